@@ -10,8 +10,13 @@ import com.amazonaws.auth.AWSStaticCredentialsProvider;
 import com.amazonaws.auth.BasicAWSCredentials;
 import com.amazonaws.services.simpleemail.AmazonSimpleEmailService;
 import com.amazonaws.services.simpleemail.AmazonSimpleEmailServiceClientBuilder;
-import com.amazonaws.services.sqs.AmazonSQS;
-import com.amazonaws.services.sqs.AmazonSQSClientBuilder;
+
+import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
+import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
+import software.amazon.awssdk.http.nio.netty.SdkEventLoopGroup;
+import software.amazon.awssdk.regions.Region;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
 
 @Configuration
 public class AWSConfig {
@@ -31,6 +36,12 @@ public class AWSConfig {
 	@Value("${aws.sqs.url}")
 	private String sqsURL;
 
+	@Value("${aws.sqs.async.event-loop-threads:2}")
+	private int sqsEventLoopThreads;
+
+	@Value("${aws.sqs.async.max-concurrency:64}")
+	private int sqsMaxConcurrency;
+
 	@Bean
 	public String getEmailFrom() {
 		return emailFrom;
@@ -55,12 +66,19 @@ public class AWSConfig {
 		return sesClient;
 	}
 	
+	/**
+	 * Non-blocking SQS client on a small Netty event loop; in-flight requests do
+	 * not hold a thread each.
+	 */
 	@Bean
-    public AmazonSQS amazonSQSClient(AWSCredentials awsCredentials) {
-        return AmazonSQSClientBuilder.standard()
-                .withCredentials(new AWSStaticCredentialsProvider(awsCredentials))
-                .withRegion(awsRegion)
-                .build();
-    }
+	public SqsAsyncClient sqsAsyncClient() {
+		return SqsAsyncClient.builder()
+				.credentialsProvider(
+						StaticCredentialsProvider.create(AwsBasicCredentials.create(awsAccessKey, awsSecretKey)))
+				.region(Region.of(awsRegion))
+				.httpClientBuilder(NettyNioAsyncHttpClient.builder().maxConcurrency(sqsMaxConcurrency)
+						.eventLoopGroupBuilder(SdkEventLoopGroup.builder().numberOfThreads(sqsEventLoopThreads)))
+				.build();
+	}
 
 }
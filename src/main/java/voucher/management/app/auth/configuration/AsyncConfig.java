@@ -0,0 +1,152 @@
+package voucher.management.app.auth.configuration;
+
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.RejectedExecutionHandler;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aop.interceptor.AsyncUncaughtExceptionHandler;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.AsyncConfigurer;
+import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.web.servlet.config.annotation.AsyncSupportConfigurer;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+/**
+ * Bounded executors for side effects that must not run on the request thread.
+ * Each executor exposes its queue depth, the time tasks wait in the queue and
+ * the number of rejected tasks under the {@code async.executor.*} metrics,
+ * tagged with the executor name.
+ *
+ * Streaming responses run on the export executor, which also bounds how many
+ * exports can hold a database cursor at once.
+ */
+@Configuration
+@EnableAsync
+public class AsyncConfig implements AsyncConfigurer, WebMvcConfigurer {
+
+	private static final Logger logger = LoggerFactory.getLogger(AsyncConfig.class);
+
+	public static final String AUDIT_EXECUTOR = "auditExecutor";
+	public static final String EMAIL_EXECUTOR = "emailExecutor";
+	public static final String EXPORT_EXECUTOR = "exportExecutor";
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${async.audit.pool-size:2}")
+	private int auditPoolSize;
+
+	@Value("${async.audit.queue-capacity:1000}")
+	private int auditQueueCapacity;
+
+	@Value("${async.email.pool-size:2}")
+	private int emailPoolSize;
+
+	@Value("${async.email.queue-capacity:200}")
+	private int emailQueueCapacity;
+
+	@Value("${async.export.pool-size:2}")
+	private int exportPoolSize;
+
+	@Value("${async.export.queue-capacity:4}")
+	private int exportQueueCapacity;
+
+	@Value("${async.export.timeout-ms:600000}")
+	private long exportTimeoutMs;
+
+	/**
+	 * Audit events are best effort: when the queue is full the event is dropped
+	 * and counted rather than slowing the request down.
+	 */
+	@Bean(name = AUDIT_EXECUTOR)
+	public ThreadPoolTaskExecutor auditExecutor() {
+		Counter rejected = rejectedCounter("audit");
+		return createExecutor("audit", auditPoolSize, auditQueueCapacity, (task, executor) -> {
+			rejected.increment();
+			logger.warn("Audit executor queue is full, dropping audit task.");
+		});
+	}
+
+	/**
+	 * Verification emails must not be lost: when the queue is full the email is
+	 * sent on the calling thread, which also pushes back on registrations.
+	 */
+	@Bean(name = EMAIL_EXECUTOR)
+	public ThreadPoolTaskExecutor emailExecutor() {
+		Counter rejected = rejectedCounter("email");
+		ThreadPoolExecutor.CallerRunsPolicy callerRuns = new ThreadPoolExecutor.CallerRunsPolicy();
+		return createExecutor("email", emailPoolSize, emailQueueCapacity, (task, executor) -> {
+			rejected.increment();
+			logger.warn("Email executor queue is full, sending on the caller thread.");
+			callerRuns.rejectedExecution(task, executor);
+		});
+	}
+
+	/**
+	 * Each export holds a connection for its whole run, so when the queue is
+	 * full the export is refused instead of waiting for a connection.
+	 */
+	@Bean(name = EXPORT_EXECUTOR)
+	public ThreadPoolTaskExecutor exportExecutor() {
+		Counter rejected = rejectedCounter("export");
+		return createExecutor("export", exportPoolSize, exportQueueCapacity, (task, executor) -> {
+			rejected.increment();
+			throw new RejectedExecutionException("Export executor queue is full.");
+		});
+	}
+
+	@Override
+	public void configureAsyncSupport(AsyncSupportConfigurer configurer) {
+		configurer.setTaskExecutor(exportExecutor());
+		configurer.setDefaultTimeout(exportTimeoutMs);
+	}
+
+	@Override
+	public AsyncUncaughtExceptionHandler getAsyncUncaughtExceptionHandler() {
+		return (ex, method, params) -> logger.error("Async method {} failed: {}", method.getName(), ex.toString());
+	}
+
+	private ThreadPoolTaskExecutor createExecutor(String name, int poolSize, int queueCapacity,
+			RejectedExecutionHandler rejectedExecutionHandler) {
+		Timer waitTimer = Timer.builder("async.executor.wait").tag("executor", name)
+				.description("Time a task spends queued before it starts running").register(meterRegistry);
+
+		ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+		executor.setThreadNamePrefix(name + "-async-");
+		executor.setCorePoolSize(poolSize);
+		executor.setMaxPoolSize(poolSize);
+		executor.setQueueCapacity(queueCapacity);
+		executor.setRejectedExecutionHandler(rejectedExecutionHandler);
+		executor.setWaitForTasksToCompleteOnShutdown(true);
+		executor.setAwaitTerminationSeconds(10);
+		executor.setTaskDecorator(task -> {
+			long queuedAt = System.nanoTime();
+			return () -> {
+				waitTimer.record(System.nanoTime() - queuedAt, TimeUnit.NANOSECONDS);
+				task.run();
+			};
+		});
+
+		Gauge.builder("async.executor.queue.depth", executor, e -> e.getThreadPoolExecutor().getQueue().size())
+				.tag("executor", name).register(meterRegistry);
+		Gauge.builder("async.executor.active", executor, ThreadPoolTaskExecutor::getActiveCount)
+				.tag("executor", name).register(meterRegistry);
+		return executor;
+	}
+
+	private Counter rejectedCounter(String name) {
+		return Counter.builder("async.executor.rejected").tag("executor", name).register(meterRegistry);
+	}
+}
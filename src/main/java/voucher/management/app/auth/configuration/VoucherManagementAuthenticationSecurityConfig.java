@@ -1,7 +1,10 @@
 package voucher.management.app.auth.configuration;
 
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -12,13 +15,18 @@ import org.springframework.security.config.annotation.web.configuration.EnableWe
 import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
 import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.DelegatingPasswordEncoder;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.security.web.header.writers.HstsHeaderWriter;
 import org.springframework.security.web.header.writers.StaticHeadersWriter;
 
 import org.springframework.web.cors.CorsConfiguration;
 
+import io.micrometer.core.instrument.MeterRegistry;
+import voucher.management.app.auth.utility.BoundedPasswordEncoder;
+
 @Configuration
 @EnableWebSecurity
 public class VoucherManagementAuthenticationSecurityConfig {
@@ -27,17 +35,55 @@ public class VoucherManagementAuthenticationSecurityConfig {
 	@Value("${frontend.url}")
 	private String frontEndUrl;
 
+	@Value("${password.hashing.algorithm:bcrypt}")
+	private String passwordHashingAlgorithm;
+
+	@Value("${password.hashing.bcrypt.strength:10}")
+	private int bcryptStrength;
+
+	@Value("${password.hashing.pbkdf2.iterations:310000}")
+	private int pbkdf2Iterations;
+
+	@Value("${password.hashing.threads:0}")
+	private int passwordHashingThreads;
+
+	@Value("${password.hashing.queue-capacity:16}")
+	private int passwordHashingQueueCapacity;
+
+	@Value("${password.hashing.max-queue-wait-ms:2000}")
+	private long passwordHashingMaxQueueWaitMs;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
 	@Bean
 	public String getFrontEndUrl() {
 		return frontEndUrl;
 	}
 
-	@Bean
+	/**
+	 * New hashes use the configured algorithm and cost and are stored with an
+	 * {@code {id}} prefix. Hashes without a prefix predate it and are plain
+	 * BCrypt. Hashing runs on a dedicated pool sized to the CPUs, not on request
+	 * threads; a threads value of 0 uses the number of available processors.
+	 */
+	@Bean(destroyMethod = "shutdown")
 	public PasswordEncoder passwordEncoder() {
-		return new BCryptPasswordEncoder();
+		Map<String, PasswordEncoder> encoders = new HashMap<>();
+		encoders.put("bcrypt", new BCryptPasswordEncoder(bcryptStrength));
+		encoders.put("pbkdf2", new Pbkdf2PasswordEncoder("", 16, pbkdf2Iterations,
+				Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256));
+		if (!encoders.containsKey(passwordHashingAlgorithm)) {
+			throw new IllegalArgumentException("Unsupported password.hashing.algorithm: " + passwordHashingAlgorithm);
+		}
+		DelegatingPasswordEncoder delegatingEncoder = new DelegatingPasswordEncoder(passwordHashingAlgorithm, encoders);
+		delegatingEncoder.setDefaultPasswordEncoderForMatches(encoders.get("bcrypt"));
+		return new BoundedPasswordEncoder(delegatingEncoder, passwordHashingThreads,
+				passwordHashingQueueCapacity, passwordHashingMaxQueueWaitMs, meterRegistry);
 	}
 
-	private static final String[] SECURED_URLS = { "/api/**" };
+	// Only health is public; metrics expose executor, cache and login guard internals.
+	private static final String[] SECURED_URLS = { "/api/**", "/actuator/health" };
 
 	@Bean
 	public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
@@ -1,16 +1,20 @@
 package voucher.management.app.auth.controller;
 
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.TimeUnit;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.aop.scope.ScopedObject;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpMethod;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -23,18 +27,26 @@ import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import jakarta.servlet.http.HttpServletRequest;
 
 import voucher.management.app.auth.dto.APIResponse;
+import voucher.management.app.auth.dto.AudienceQuery;
+import voucher.management.app.auth.dto.UserCursorPage;
 import voucher.management.app.auth.dto.UserDTO;
+import voucher.management.app.auth.dto.UserListPage;
+import voucher.management.app.auth.dto.UserLoginView;
 import voucher.management.app.auth.dto.UserRequest;
 import voucher.management.app.auth.dto.ValidationResult;
 import voucher.management.app.auth.entity.User;
-import voucher.management.app.auth.enums.AuditLogInvalidUser;
 import voucher.management.app.auth.enums.AuditLogResponseStatus;
+import voucher.management.app.auth.exception.PasswordHashingRejectedException;
 import voucher.management.app.auth.exception.UserNotFoundException;
-import voucher.management.app.auth.service.impl.AuditLogService;
+import voucher.management.app.auth.service.impl.LoginAttemptService;
 import voucher.management.app.auth.service.impl.UserService;
 import voucher.management.app.auth.strategy.impl.UserValidationStrategy;
+import voucher.management.app.auth.utility.AuditLogContext;
 import voucher.management.app.auth.utility.DTOMapper;
 import voucher.management.app.auth.utility.GeneralUtility;
 
@@ -46,6 +58,8 @@ public class UserController {
 
 	private static final Logger logger = LoggerFactory.getLogger(UserController.class);
 
+	private static final String NDJSON = "application/x-ndjson";
+
 	@Autowired
 	private UserService userService;
 
@@ -53,19 +67,24 @@ public class UserController {
 	private UserValidationStrategy userValidationStrategy;
 	
 	@Autowired
-	private AuditLogService auditLogService;
+	private AuditLogContext auditLogContext;
+
+	@Autowired
+	private LoginAttemptService loginAttemptService;
+
+	@Value("${user.list.max-page-size:500}")
+	private int maxPageSize;
 	
 	private String auditLogResponseSuccess = AuditLogResponseStatus.SUCCESS.toString();
 	private String auditLogResponseFailure = AuditLogResponseStatus.FAILED.toString();
-	private String auditLogUserId = AuditLogInvalidUser.InvalidUserID.toString();
-	private String auditLogUserName = AuditLogInvalidUser.InvalidUserName.toString();
 	private String genericErrorMessage = "An error occurred while processing your request. Please try again later.";
 	
 
 	@GetMapping(value = "", produces = "application/json")
 	public ResponseEntity<APIResponse<List<UserDTO>>> getAllActiveUsers(@RequestHeader("X-User-Id") String userID,
-			@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "500") int size) {
-		logger.info("Call user getAll API with page={}, size={}", page, size);
+			@RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "500") int size,
+			@RequestParam(required = false) String cursor) {
+		logger.info("Call user getAll API with page={}, size={}, cursor={}", page, size, cursor);
 		String message = "";
 		String activityType = "Authentication-RetrieveAllActiveUsers";
 		String apiEndPoint = "api/users";
@@ -75,14 +94,26 @@ public class UserController {
 
 		try {
 			getUserByUserID(userID);
+			size = Math.max(1, Math.min(size, maxPageSize));
+
+			if (cursor != null) {
+				// Keyset mode: seeks past the cursor instead of scanning an offset, and skips the count.
+				UserCursorPage cursorPage = userService.findActiveUsersAfter(cursor, size);
+				List<UserDTO> userDTOList = cursorPage.users();
+				message = userDTOList.isEmpty() ? "No Active User List." : "Successfully get all active verified user.";
+				logger.info(message);
+				auditLogContext.record(Integer.toString(HttpStatus.OK.value()), auditLogContext.getUserId(),
+						auditLogContext.getUserName(), activityType, message, apiEndPoint, auditLogResponseSuccess,
+						httpMethod, "");
+				return ResponseEntity.status(HttpStatus.OK).body(
+						APIResponse.success(userDTOList, message, userDTOList.size(), cursorPage.nextCursor()));
+			}
 			
 			Pageable pageable = PageRequest.of(page, size, Sort.by("username").ascending());
-			Map<Long, List<UserDTO>> resultMap = userService.findActiveUsers(pageable);
-			logger.info("all active user list size " + resultMap.size());
-
-			Map.Entry<Long, List<UserDTO>> firstEntry = resultMap.entrySet().iterator().next();
-			long totalRecord = firstEntry.getKey();
-			List<UserDTO> userDTOList = firstEntry.getValue();
+			UserListPage userPage = userService.findActiveUsers(pageable);
+			long totalRecord = userPage.total();
+			List<UserDTO> userDTOList = userPage.users();
+			logger.info("all active user list size " + userDTOList.size());
 
 			logger.info("totalRecord: " + totalRecord);
 			logger.info("userDTO List: " + userDTOList);
@@ -91,21 +122,72 @@ public class UserController {
 			if (userDTOList.size() > 0) {
 				message = "Successfully get all active verified user.";
 				return handleResponseListAndsendAuditLogForSuccessCase(userDTOList,
-						activityType, message, apiEndPoint, httpMethod, auditLogUserId, auditLogUserName, totalRecord);
+						activityType, message, apiEndPoint, httpMethod, auditLogContext.getUserId(), auditLogContext.getUserName(), totalRecord, userPage.totalExact());
 
 			} else {
 			    message = "No Active User List.";
 			    return handleEmptyResponseListAndsendAuditLogForSuccessCase(userDTOList,
-						activityType, message, apiEndPoint, httpMethod, auditLogUserId, auditLogUserName, totalRecord);
+						activityType, message, apiEndPoint, httpMethod, auditLogContext.getUserId(), auditLogContext.getUserName(), totalRecord);
 
 			}		
 
+		} catch (IllegalArgumentException e) {
+			message = e.getMessage();
+			logger.error(message);
+			auditLogContext.record(Integer.toString(HttpStatus.BAD_REQUEST.value()), auditLogContext.getUserId(),
+					auditLogContext.getUserName(), activityType, activityDesc.concat(message), apiEndPoint,
+					auditLogResponseFailure, httpMethod, message);
+			return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(APIResponse.error(message));
 		} catch (Exception e) {
 			return handleResponseListAndsendAuditLogForExceptionCase(e,
-					activityType, activityDesc, apiEndPoint, httpMethod, auditLogUserId, auditLogUserName);
+					activityType, activityDesc, apiEndPoint, httpMethod, auditLogContext.getUserId(), auditLogContext.getUserName());
 		}
 	}
 
+	/**
+	 * Streams every active user as newline-delimited JSON. The rows are written
+	 * while they are read, on the export executor, so the response is never
+	 * held in memory. The audit event is recorded when the stream ends, with
+	 * the number of users written or the error that stopped it.
+	 */
+	@GetMapping(value = "/export", produces = NDJSON)
+	public ResponseEntity<StreamingResponseBody> exportActiveUsers(@RequestHeader("X-User-Id") String userID) {
+		logger.info("Call user export API...");
+		String activityType = "Authentication-ExportActiveUsers";
+		String apiEndPoint = "api/users/export";
+		String httpMethod = HttpMethod.GET.name();
+
+		String activityDesc = "Active user export is failed due to ";
+
+		getUserByUserID(userID);
+		// The body runs on the export executor, outside the request scope, so it
+		// records on this request's context directly.
+		AuditLogContext exportAuditLog = (AuditLogContext) ((ScopedObject) auditLogContext).getTargetObject();
+		String auditUserId = exportAuditLog.getUserId();
+		String auditUserName = exportAuditLog.getUserName();
+		String incomplete = "the export did not complete.";
+		exportAuditLog.record(Integer.toString(HttpStatus.INTERNAL_SERVER_ERROR.value()), auditUserId, auditUserName,
+				activityType, activityDesc.concat(incomplete), apiEndPoint, auditLogResponseFailure, httpMethod,
+				incomplete);
+		StreamingResponseBody body = outputStream -> {
+			try {
+				long exported = userService.exportActiveUsers(outputStream);
+				String message = "Active user export is completed with " + exported + " users.";
+				logger.info(message);
+				exportAuditLog.record(Integer.toString(HttpStatus.OK.value()), auditUserId, auditUserName, activityType,
+						message, apiEndPoint, auditLogResponseSuccess, httpMethod, "");
+			} catch (RuntimeException e) {
+				String message = e.toString();
+				logger.error("Error: " + message);
+				exportAuditLog.record(Integer.toString(HttpStatus.INTERNAL_SERVER_ERROR.value()), auditUserId,
+						auditUserName, activityType, activityDesc.concat(message), apiEndPoint, auditLogResponseFailure,
+						httpMethod, message);
+				throw e;
+			}
+		};
+		return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+	}
+
 	@PostMapping(value = "", produces = "application/json")
 	public ResponseEntity<APIResponse<UserDTO>> createUser(@RequestBody UserRequest userRequest) {
 		logger.info("Call user create API...");
@@ -117,7 +199,7 @@ public class UserController {
 
 		try {
 			ValidationResult validationResult = userValidationStrategy.validateCreation(userRequest);
-			auditLogUserName = validationResult.getUserName();
+			auditLogContext.setUserName(validationResult.getUserName());
 			if (validationResult.isValid()) {
 
 				UserDTO userDTO = userService.createUser(userRequest);
@@ -136,32 +218,49 @@ public class UserController {
 	}
 
 	@PostMapping(value = "/login", produces = "application/json")
-	public ResponseEntity<APIResponse<UserDTO>> loginUser(@RequestBody UserRequest userRequest) {
+	public ResponseEntity<APIResponse<UserDTO>> loginUser(@RequestBody UserRequest userRequest, HttpServletRequest request) {
 		logger.info("Call user login API...");
 		String message = "";
 		String activityType = "Authentication-LoginUser";
 		String apiEndPoint = "api/users/login";
 		String httpMethod = HttpMethod.POST.name();
 		String activityDesc = "User failed to login due to ";
+		// X-Forwarded-For is applied only for proxies in server.tomcat.remoteip.internal-proxies
+		String clientIp = request.getRemoteAddr();
 
 		try {
-			ValidationResult validationResult =  userValidationStrategy.validateObject(userRequest.getEmail());
-			auditLogUserId = validationResult.getUserId();
-			auditLogUserName = validationResult.getUserName();
+			// Checked before any lookup or hash so blocked attempts cost almost nothing.
+			long retryAfterMillis = loginAttemptService.getRetryAfterMillis(userRequest.getEmail(), clientIp);
+			if (retryAfterMillis > 0) {
+				return handleResponseAndsendAuditLogForRejectedCase(HttpStatus.TOO_MANY_REQUESTS,
+						"Too many failed login attempts. Please try again later.",
+						TimeUnit.MILLISECONDS.toSeconds(retryAfterMillis + 999), activityType, activityDesc, apiEndPoint,
+						httpMethod);
+			}
+
+			UserLoginView loginView = userService.findLoginViewByEmail(userRequest.getEmail());
+			ValidationResult validationResult = userValidationStrategy.validateLogin(loginView);
+			auditLogContext.setUserId(validationResult.getUserId());
+			auditLogContext.setUserName(validationResult.getUserName());
 					
 			if (!validationResult.isValid()) {
 				
 				logger.error("Login Validation Error: " + validationResult.getMessage());
+				loginAttemptService.recordFailure(userRequest.getEmail(), clientIp);
 				return handleResponseAndsendAuditLogForValidationFailure(
 						validationResult, activityType, activityDesc, apiEndPoint, httpMethod);
 			}
 
-			UserDTO userDTO = userService.loginUser(userRequest.getEmail(), userRequest.getPassword());
+			UserDTO userDTO = userService.loginUser(loginView, userRequest.getPassword());
+			loginAttemptService.recordSuccess(userRequest.getEmail());
 			message = userDTO.getEmail() + " login successfully";
 			return handleResponseAndsendAuditLogForSuccessCase(userDTO,
 					activityType, message, apiEndPoint, httpMethod);
 			
 		} catch (Exception e) {
+			if (e instanceof UserNotFoundException) {
+				loginAttemptService.recordFailure(userRequest.getEmail(), clientIp);
+			}
 			HttpStatusCode htpStatuscode = e instanceof UserNotFoundException ? HttpStatus.UNAUTHORIZED : HttpStatus.INTERNAL_SERVER_ERROR;
 			return handleResponseAndsendAuditLogForExceptionCase(e,
 					htpStatuscode, activityType, activityDesc, apiEndPoint, httpMethod);
@@ -192,8 +291,8 @@ public class UserController {
 
 				message = "Vefriy Id could not be blank.";
 				logger.error(message);
-				auditLogService.sendAuditLogToSqs(Integer.toString(HttpStatus.BAD_REQUEST.value()), auditLogUserId,
-						auditLogUserName, activityType, activityDesc, apiEndPoint, auditLogResponseFailure, httpMethod,
+				auditLogContext.record(Integer.toString(HttpStatus.BAD_REQUEST.value()), auditLogContext.getUserId(),
+						auditLogContext.getUserName(), activityType, activityDesc, apiEndPoint, auditLogResponseFailure, httpMethod,
 						message);
 				return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(APIResponse.error(message));
 			}
@@ -254,8 +353,8 @@ public class UserController {
 		try {
 			String userId = id.isEmpty() ? userID : id;
 			ValidationResult validationResult = userValidationStrategy.validateUpdating(userId);
-			auditLogUserId = validationResult.getUserId();
-			auditLogUserName = validationResult.getUserName();
+			auditLogContext.setUserId(validationResult.getUserId());
+			auditLogContext.setUserName(validationResult.getUserName());
 
 			if (validationResult.isValid()) {
 
@@ -329,11 +428,10 @@ public class UserController {
 			String message = "";
 			
 			Pageable pageable = PageRequest.of(page, size, Sort.by("username").ascending());
-			Map<Long, List<UserDTO>> resultMap = userService.findUsersByPreferences(name, pageable);
+			UserListPage userPage = userService.findUsersByPreferences(name, pageable);
 			
-			Map.Entry<Long, List<UserDTO>> firstEntry = resultMap.entrySet().iterator().next();
-			long totalRecord = firstEntry.getKey();
-			List<UserDTO> userDTOList = firstEntry.getValue();
+			long totalRecord = userPage.total();
+			List<UserDTO> userDTOList = userPage.users();
 			
 			logger.info("totalRecord: " + totalRecord);
 			logger.info("userDTO List: " + userDTOList);
@@ -341,19 +439,75 @@ public class UserController {
 			if (userDTOList.size() > 0) {
 			    message = "Successfully get all active users by this preference.";
 				return handleResponseListAndsendAuditLogForSuccessCase(userDTOList,
-						activityType, message, apiEndPoint, httpMethod, auditLogUserId, auditLogUserName, totalRecord);
+						activityType, message, apiEndPoint, httpMethod, auditLogContext.getUserId(), auditLogContext.getUserName(), totalRecord, userPage.totalExact());
 			} else {
 			    message = "No user list by this preference.";
 			    return handleEmptyResponseListAndsendAuditLogForSuccessCase(userDTOList,
-						activityType, message, apiEndPoint, httpMethod, auditLogUserId, auditLogUserName, totalRecord);
+						activityType, message, apiEndPoint, httpMethod, auditLogContext.getUserId(), auditLogContext.getUserName(), totalRecord);
 			}
 
 		} catch (Exception e) {
 			return handleResponseListAndsendAuditLogForExceptionCase(e,
-					activityType, activityDesc, apiEndPoint, httpMethod, auditLogUserId, auditLogUserName);
+					activityType, activityDesc, apiEndPoint, httpMethod, auditLogContext.getUserId(), auditLogContext.getUserName());
 		}
 	}
 	
+	/**
+	 * Active customers matching a combination of preferences: all of
+	 * {@code all}, at least one of {@code any} and none of {@code none}, each a
+	 * comma-separated list. Answered from the in-memory audience index.
+	 */
+	@GetMapping(value = "/audience", produces = "application/json")
+	public ResponseEntity<APIResponse<List<UserDTO>>> getAudience(@RequestHeader("X-User-Id") String userID,
+			@RequestParam(required = false) List<String> all, @RequestParam(required = false) List<String> any,
+			@RequestParam(required = false) List<String> none, @RequestParam(defaultValue = "0") int page,
+			@RequestParam(defaultValue = "500") int size) {
+		logger.info("Call user audience API with page={}, size={}", page, size);
+
+		String activityType = "Authentication-RetrieveAudienceByPreferences";
+		String apiEndPoint = "api/users/audience";
+		String httpMethod = HttpMethod.GET.name();
+		String activityDesc = "Retrieving audience by preferences is failed due to ";
+		String message;
+
+		try {
+			getUserByUserID(userID);
+			AudienceQuery query = new AudienceQuery(all, any, none);
+			if (query.isEmpty()) {
+				throw new IllegalArgumentException("At least one preference is required.");
+			}
+			size = Math.max(1, Math.min(size, maxPageSize));
+			UserListPage userPage = userService.findAudience(query, PageRequest.of(page, size));
+			List<UserDTO> userDTOList = userPage.users();
+			logger.info("totalRecord: " + userPage.total());
+
+			if (userDTOList.size() > 0) {
+				message = "Successfully get the audience for these preferences.";
+				return handleResponseListAndsendAuditLogForSuccessCase(userDTOList, activityType, message,
+						apiEndPoint, httpMethod, auditLogContext.getUserId(), auditLogContext.getUserName(),
+						userPage.total(), userPage.totalExact());
+			} else {
+				message = "No audience for these preferences.";
+				return handleEmptyResponseListAndsendAuditLogForSuccessCase(userDTOList, activityType, message,
+						apiEndPoint, httpMethod, auditLogContext.getUserId(), auditLogContext.getUserName(),
+						userPage.total());
+			}
+
+		} catch (IllegalArgumentException | IllegalStateException e) {
+			message = e.getMessage();
+			logger.error(message);
+			HttpStatus httpStatus = e instanceof IllegalArgumentException ? HttpStatus.BAD_REQUEST
+					: HttpStatus.SERVICE_UNAVAILABLE;
+			auditLogContext.record(Integer.toString(httpStatus.value()), auditLogContext.getUserId(),
+					auditLogContext.getUserName(), activityType, activityDesc.concat(message), apiEndPoint,
+					auditLogResponseFailure, httpMethod, message);
+			return ResponseEntity.status(httpStatus).body(APIResponse.error(message));
+		} catch (Exception e) {
+			return handleResponseListAndsendAuditLogForExceptionCase(e,
+					activityType, activityDesc, apiEndPoint, httpMethod, auditLogContext.getUserId(), auditLogContext.getUserName());
+		}
+	}
+
 	@DeleteMapping(value = "/{id}/preferences", produces = "application/json")
 	public ResponseEntity<APIResponse<UserDTO>> deletePreferenceByUser(@RequestHeader("X-User-Id") String userID,
 			@PathVariable("id") String id, @RequestBody UserRequest userRequest) {
@@ -441,7 +595,7 @@ public class UserController {
 			} else {
 				message = "User not found";
 				logger.error(message);
-				auditLogService.sendAuditLogToSqs(Integer.toString(HttpStatus.NOT_FOUND.value()), userID, auditLogUserName, activityType, activityDesc.concat(message), apiEndPoint, auditLogResponseFailure, httpMethod, message);
+				auditLogContext.record(Integer.toString(HttpStatus.NOT_FOUND.value()), userID, auditLogContext.getUserName(), activityType, activityDesc.concat(message), apiEndPoint, auditLogResponseFailure, httpMethod, message);
 				return ResponseEntity.status(HttpStatus.NOT_FOUND).body(APIResponse.error(message));
 				
 
@@ -460,8 +614,8 @@ public class UserController {
 		
 		String userId = id.isEmpty() ? userID : id;
 		ValidationResult validationResult = userValidationStrategy.validateObjectByUserId(userId);
-		auditLogUserId = validationResult.getUserId();
-		auditLogUserName = validationResult.getUserName();
+		auditLogContext.setUserId(validationResult.getUserId());
+		auditLogContext.setUserName(validationResult.getUserName());
 		return validationResult;
 	}
 	
@@ -469,39 +623,50 @@ public class UserController {
 		String message = validationResult.getMessage();
 		logger.error(message);
 		activityDesc = activityDesc.concat(message);
-		auditLogService.sendAuditLogToSqs(Integer.toString(validationResult.getStatus().value()), validationResult.getUserId(), validationResult.getUserName(), activityType, activityDesc, apiEndPoint, auditLogResponseFailure, httpMethod, message);
+		auditLogContext.record(Integer.toString(validationResult.getStatus().value()), validationResult.getUserId(), validationResult.getUserName(), activityType, activityDesc, apiEndPoint, auditLogResponseFailure, httpMethod, message);
 		return ResponseEntity.status(validationResult.getStatus()).body(APIResponse.error(validationResult.getMessage()));
 		
 	}
 	
 	private ResponseEntity<APIResponse<UserDTO>> handleResponseAndsendAuditLogForExceptionCase(Exception e, HttpStatusCode htpStatuscode, String activityType, String activityDesc, String apiEndPoint, String httpMethod ) {
+		if (e instanceof PasswordHashingRejectedException rejected) {
+			return handleResponseAndsendAuditLogForRejectedCase(HttpStatus.SERVICE_UNAVAILABLE, rejected.getMessage(),
+					rejected.getRetryAfterSeconds(), activityType, activityDesc, apiEndPoint, httpMethod);
+		}
 		String message = e.getMessage();
 		String responseMessage = e instanceof UserNotFoundException ? e.getMessage() : genericErrorMessage;
 		logger.error("Error: " + message);
 		activityDesc = activityDesc.concat(message);
-		auditLogService.sendAuditLogToSqs(Integer.toString(htpStatuscode.value()), auditLogUserId, auditLogUserName, activityType, activityDesc, apiEndPoint, auditLogResponseFailure, httpMethod, message);	
+		auditLogContext.record(Integer.toString(htpStatuscode.value()), auditLogContext.getUserId(), auditLogContext.getUserName(), activityType, activityDesc, apiEndPoint, auditLogResponseFailure, httpMethod, message);	
 		return ResponseEntity.status(htpStatuscode).body(APIResponse.error(responseMessage));
 	}
 	
+	private ResponseEntity<APIResponse<UserDTO>> handleResponseAndsendAuditLogForRejectedCase(HttpStatus httpStatus, String message, long retryAfterSeconds, String activityType, String activityDesc, String apiEndPoint, String httpMethod) {
+		logger.warn("Rejected: " + message);
+		auditLogContext.record(Integer.toString(httpStatus.value()), auditLogContext.getUserId(), auditLogContext.getUserName(), activityType, activityDesc.concat(message), apiEndPoint, auditLogResponseFailure, httpMethod, message);
+		return ResponseEntity.status(httpStatus).header(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds))
+				.body(APIResponse.error(message));
+	}
+	
 	private ResponseEntity<APIResponse<UserDTO>> handleResponseAndsendAuditLogForSuccessCase(UserDTO userDTO, String activityType, String message, String apiEndPoint, String httpMethod) {
 		logger.info(message);
 		HttpStatus httpStatus = HttpStatus.OK;
-		auditLogService.sendAuditLogToSqs(Integer.toString(httpStatus.value()), userDTO.getUserID(), userDTO.getUsername(), activityType, message, apiEndPoint, auditLogResponseSuccess, httpMethod, "");
+		auditLogContext.record(Integer.toString(httpStatus.value()), userDTO.getUserID(), userDTO.getUsername(), activityType, message, apiEndPoint, auditLogResponseSuccess, httpMethod, "");
 		return ResponseEntity.status(httpStatus).body(APIResponse.success(userDTO, message));
 	}
 	
-	private ResponseEntity<APIResponse<List<UserDTO>>> handleResponseListAndsendAuditLogForSuccessCase(List<UserDTO> userDTOList, String activityType, String message, String apiEndPoint, String httpMethod, String userId, String userName, long totalRecord) {
+	private ResponseEntity<APIResponse<List<UserDTO>>> handleResponseListAndsendAuditLogForSuccessCase(List<UserDTO> userDTOList, String activityType, String message, String apiEndPoint, String httpMethod, String userId, String userName, long totalRecord, boolean totalExact) {
 		logger.info(message);
 		HttpStatus httpStatus = HttpStatus.OK;
-		auditLogService.sendAuditLogToSqs(Integer.toString(httpStatus.value()), userId, userName, activityType, message, apiEndPoint, auditLogResponseSuccess, httpMethod, "");
+		auditLogContext.record(Integer.toString(httpStatus.value()), userId, userName, activityType, message, apiEndPoint, auditLogResponseSuccess, httpMethod, "");
 		return ResponseEntity.status(httpStatus).body(
-				APIResponse.success(userDTOList, message, totalRecord));
+				APIResponse.success(userDTOList, message, totalRecord, totalExact));
 	}
 	
 	private ResponseEntity<APIResponse<List<UserDTO>>> handleEmptyResponseListAndsendAuditLogForSuccessCase(List<UserDTO> userDTOList, String activityType, String message, String apiEndPoint, String httpMethod, String userId, String userName, long totalRecord) {
 		logger.info(message);
 		HttpStatus httpStatus = HttpStatus.OK;
-		auditLogService.sendAuditLogToSqs(Integer.toString(httpStatus.value()), userId, userName, activityType, message, apiEndPoint, auditLogResponseSuccess, httpMethod, "");
+		auditLogContext.record(Integer.toString(httpStatus.value()), userId, userName, activityType, message, apiEndPoint, auditLogResponseSuccess, httpMethod, "");
 		return ResponseEntity.status(httpStatus).body(APIResponse.noList(userDTOList, message));
 	}
 	
@@ -510,19 +675,19 @@ public class UserController {
 		String responseMessage = e instanceof UserNotFoundException ? e.getMessage() : genericErrorMessage;
 		logger.error("Error: " + message);
 		activityDesc = activityDesc.concat(message);
-		auditLogService.sendAuditLogToSqs(Integer.toString(HttpStatus.NOT_FOUND.value()), userId, userName, activityType, activityDesc, apiEndPoint, auditLogResponseSuccess, httpMethod, message);
+		auditLogContext.record(Integer.toString(HttpStatus.NOT_FOUND.value()), userId, userName, activityType, activityDesc, apiEndPoint, auditLogResponseSuccess, httpMethod, message);
 		return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
 				.body(APIResponse.error(responseMessage));
 	}
 	
 	private void getUserByUserID(String userID) {
-		auditLogUserId = userID;
+		auditLogContext.setUserId(userID);
 		
 		if (!userID.isEmpty()) {
 			User user = userService.findByUserId(userID);
 			if (user != null) {
-				auditLogUserId = user.getUserId();
-				auditLogUserName = user.getUsername();
+				auditLogContext.setUserId(user.getUserId());
+				auditLogContext.setUserName(user.getUsername());
 			}
 		} 
 	}
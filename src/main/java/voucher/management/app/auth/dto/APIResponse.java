@@ -1,5 +1,7 @@
 package voucher.management.app.auth.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -14,6 +16,12 @@ public class APIResponse<T> {
 	private long totalRecord;
 	private T data;
 
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private String nextCursor;
+
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Boolean totalExact;
+
 
 	public static <T> APIResponse<T> success(String message) {
 		return APIResponse.<T>builder().success(true).message(message).data(null).totalRecord(1).build();
@@ -40,4 +48,14 @@ public class APIResponse<T> {
 		return APIResponse.<T>builder().success(true).message(message).totalRecord(totalRecord).data(data).build();
 	}
 
+	public static <T> APIResponse<T> success(T data, String message, long totalRecord, boolean totalExact) {
+		return APIResponse.<T>builder().success(true).message(message).totalRecord(totalRecord).data(data)
+				.totalExact(totalExact).build();
+	}
+
+	public static <T> APIResponse<T> success(T data, String message, long totalRecord, String nextCursor) {
+		return APIResponse.<T>builder().success(true).message(message).totalRecord(totalRecord).data(data)
+				.nextCursor(nextCursor).build();
+	}
+
 }
@@ -0,0 +1,21 @@
+package voucher.management.app.auth.dto;
+
+import java.util.List;
+
+/**
+ * Preference filter for an audience: users with every preference in
+ * {@code all}, at least one in {@code any} unless it is empty, and none in
+ * {@code none}. Missing lists are treated as empty.
+ */
+public record AudienceQuery(List<String> all, List<String> any, List<String> none) {
+
+	public AudienceQuery {
+		all = all == null ? List.of() : all;
+		any = any == null ? List.of() : any;
+		none = none == null ? List.of() : none;
+	}
+
+	public boolean isEmpty() {
+		return all.isEmpty() && any.isEmpty() && none.isEmpty();
+	}
+}
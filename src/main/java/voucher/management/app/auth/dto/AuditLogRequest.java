@@ -1,10 +1,17 @@
 package voucher.management.app.auth.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fasterxml.jackson.annotation.JsonPropertyOrder;
+import com.fasterxml.jackson.databind.annotation.JsonSerialize;
+
 import lombok.Getter;
 import lombok.Setter;
+import voucher.management.app.auth.utility.AuditLogSerializer;
 
 @Getter
 @Setter
+@JsonPropertyOrder({ "statusCode", "userId", "username", "activityType", "activityDescription",
+		"requestActionEndpoint", "responseStatus", "requestType", "count", "firstOccurredAt", "lastOccurredAt", "remarks" })
 public class AuditLogRequest {
 
 	private String statusCode;
@@ -15,5 +22,12 @@ public class AuditLogRequest {
 	private String requestActionEndpoint;
 	private String responseStatus;
 	private String requestType;
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private Integer count;
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private String firstOccurredAt;
+	@JsonInclude(JsonInclude.Include.NON_NULL)
+	private String lastOccurredAt;
+	@JsonSerialize(using = AuditLogSerializer.RemarksSerializer.class)
 	private String remarks;
 }
@@ -0,0 +1,10 @@
+package voucher.management.app.auth.dto;
+
+import java.util.List;
+
+/**
+ * One page of a cursor-paged user list. {@code nextCursor} is null on the
+ * last page.
+ */
+public record UserCursorPage(List<UserDTO> users, String nextCursor) {
+}
@@ -0,0 +1,11 @@
+package voucher.management.app.auth.dto;
+
+import java.util.List;
+
+/**
+ * One page of a user list with the total number of matching users.
+ * {@code totalExact} is false when the total came from a cached count that
+ * may be a little behind.
+ */
+public record UserListPage(List<UserDTO> users, long total, boolean totalExact) {
+}
@@ -0,0 +1,27 @@
+package voucher.management.app.auth.dto;
+
+import voucher.management.app.auth.enums.RoleType;
+
+/**
+ * The columns a login needs, read in one query: enough to tell not-found,
+ * deleted and unverified accounts apart, check the password and build the
+ * response.
+ */
+public interface UserLoginView {
+
+	String getUserId();
+
+	String getEmail();
+
+	String getUsername();
+
+	String getPassword();
+
+	RoleType getRole();
+
+	boolean isActive();
+
+	boolean isVerified();
+
+	String getPreferences();
+}
@@ -0,0 +1,12 @@
+package voucher.management.app.auth.dto;
+
+import voucher.management.app.auth.enums.RoleType;
+
+/**
+ * The columns of a user that list endpoints return. Selected with a JPQL
+ * constructor expression, so rows are never managed entities and the password
+ * and verification code are not read.
+ */
+public record UserSummary(String userId, String email, String username, RoleType role, boolean active,
+		boolean verified, String preferences) {
+}
@@ -9,12 +9,22 @@ import jakarta.persistence.Entity;
 import jakarta.persistence.EnumType;
 import jakarta.persistence.Enumerated;
 import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Getter;
 import lombok.Setter;
 import voucher.management.app.auth.enums.RoleType;
 
+/**
+ * The schema is owned by the Flyway migrations under {@code db/migration}.
+ * The indexes listed here mirror those migrations, one per repository filter.
+ */
 @Entity
+@Table(indexes = {
+		@Index(name = "idx_user_active_verified_username", columnList = "isActive, isVerified, username, userId"),
+		@Index(name = "idx_user_verification_code", columnList = "verificationCode, isVerified, isActive"),
+		@Index(name = "idx_user_created_date", columnList = "createdDate") })
 @Getter
 @Setter
 @AllArgsConstructor
@@ -0,0 +1,47 @@
+package voucher.management.app.auth.entity;
+
+import java.time.LocalDateTime;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * One row per write to a user. The identity column is the change sequence
+ * that every instance polls to evict users changed elsewhere from its cache.
+ */
+@Entity
+@Table(name = "user_change_log", indexes = @Index(name = "idx_user_change_log_changed_date", columnList = "changedDate"))
+@Getter
+@Setter
+public class UserChangeLog {
+	public UserChangeLog() {
+		super();
+	}
+
+	public UserChangeLog(String userId, String email, LocalDateTime changedDate) {
+		super();
+		this.userId = userId;
+		this.email = email;
+		this.changedDate = changedDate;
+	}
+
+	@Id
+	@GeneratedValue(strategy = GenerationType.IDENTITY)
+	private Long changeId;
+
+	@Column(nullable = false)
+	private String userId;
+
+	@Column(nullable = false)
+	private String email;
+
+	@Column(nullable = false, columnDefinition = "datetime")
+	private LocalDateTime changedDate;
+}
@@ -0,0 +1,70 @@
+package voucher.management.app.auth.entity;
+
+import java.io.Serializable;
+
+import org.springframework.data.domain.Persistable;
+
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.IdClass;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+/**
+ * One row per preference of a user, keyed by the normalized preference first
+ * so that preference search is an index lookup. The comma-separated
+ * {@code preferences} column on {@link User} stays the copy that is returned
+ * to clients, and every write to it replaces these rows.
+ *
+ * Rows are only ever inserted and bulk deleted, so they always count as new
+ * and are persisted without a select first.
+ */
+@Entity
+@Table(name = "user_preference", indexes = @Index(name = "idx_user_preference_user_id", columnList = "userId"))
+@IdClass(UserPreference.Key.class)
+@Getter
+@Setter
+public class UserPreference implements Persistable<UserPreference.Key> {
+	public UserPreference() {
+		super();
+	}
+
+	public UserPreference(String preference, String userId) {
+		super();
+		this.preference = preference;
+		this.userId = userId;
+	}
+
+	@Id
+	private String preference;
+
+	@Id
+	private String userId;
+
+	@Override
+	public Key getId() {
+		return new Key(preference, userId);
+	}
+
+	@Override
+	public boolean isNew() {
+		return true;
+	}
+
+	@Getter
+	@Setter
+	@NoArgsConstructor
+	@AllArgsConstructor
+	@EqualsAndHashCode
+	public static class Key implements Serializable {
+		private static final long serialVersionUID = 1L;
+
+		private String preference;
+		private String userId;
+	}
+}
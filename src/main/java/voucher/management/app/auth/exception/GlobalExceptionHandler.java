@@ -2,6 +2,7 @@ package voucher.management.app.auth.exception;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
@@ -24,6 +25,16 @@ public class GlobalExceptionHandler {
 		return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ex.getMessage());
 	}
 
+	@SuppressWarnings("rawtypes")
+	@ExceptionHandler(PasswordHashingRejectedException.class)
+	@ResponseBody
+	public ResponseEntity<APIResponse> handlePasswordHashingRejectedException(PasswordHashingRejectedException ex) {
+		logger.warn(ex.getMessage());
+		return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE)
+				.header(HttpHeaders.RETRY_AFTER, Long.toString(ex.getRetryAfterSeconds()))
+				.body(APIResponse.error(ex.getMessage()));
+	}
+
 	@SuppressWarnings("rawtypes")
 	@ExceptionHandler(Exception.class)
 	@ResponseBody
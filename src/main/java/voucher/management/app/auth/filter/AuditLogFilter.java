@@ -0,0 +1,66 @@
+package voucher.management.app.auth.filter;
+
+import java.io.IOException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import voucher.management.app.auth.service.impl.AuditLogService;
+import voucher.management.app.auth.utility.AuditLogContext;
+
+/**
+ * Sends the audit event recorded in {@link AuditLogContext} after the handler
+ * has finished. The response is flushed to the client first, so audit work
+ * never delays it. For a streamed response the event is sent on the async
+ * dispatch that follows the end of the stream.
+ */
+@Component
+public class AuditLogFilter extends OncePerRequestFilter {
+
+	private static final Logger logger = LoggerFactory.getLogger(AuditLogFilter.class);
+
+	@Autowired
+	private AuditLogService auditLogService;
+
+	@Autowired
+	private AuditLogContext auditLogContext;
+
+	@Override
+	protected boolean shouldNotFilterAsyncDispatch() {
+		return false;
+	}
+
+	@Override
+	protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+			throws ServletException, IOException {
+		try {
+			filterChain.doFilter(request, response);
+		} finally {
+			if (!request.isAsyncStarted()) {
+				emit(response);
+			}
+		}
+	}
+
+	private void emit(HttpServletResponse response) {
+		if (!auditLogContext.isRecorded()) {
+			return;
+		}
+		try {
+			response.flushBuffer();
+		} catch (IOException e) {
+			logger.debug("Response could not be flushed before auditing: {}", e.toString());
+		}
+		auditLogService.sendAuditLogToSqs(auditLogContext.getStatusCode(), auditLogContext.getUserId(),
+				auditLogContext.getUserName(), auditLogContext.getActivityType(),
+				auditLogContext.getActivityDescription(), auditLogContext.getRequestActionEndpoint(),
+				auditLogContext.getResponseStatus(), auditLogContext.getRequestType(), auditLogContext.getRemarks());
+	}
+}
@@ -0,0 +1,31 @@
+package voucher.management.app.auth.repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import voucher.management.app.auth.entity.UserChangeLog;
+
+@Repository
+public interface UserChangeLogRepository extends JpaRepository<UserChangeLog, Long> {
+
+	@Query("SELECT c FROM UserChangeLog c WHERE c.changeId > ?1 ORDER BY c.changeId")
+	List<UserChangeLog> findChangesAfter(Long changeId, Pageable pageable);
+	
+	@Query("SELECT c FROM UserChangeLog c WHERE c.changedDate >= ?1")
+	List<UserChangeLog> findChangesSince(LocalDateTime changedDate);
+	
+	@Query("SELECT MAX(c.changeId) FROM UserChangeLog c")
+	Long findLatestChangeId();
+	
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM UserChangeLog c WHERE c.changedDate < ?1")
+	int deleteChangesBefore(LocalDateTime changedDate);
+}
@@ -0,0 +1,18 @@
+package voucher.management.app.auth.repository;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import voucher.management.app.auth.entity.UserPreference;
+
+@Repository
+public interface UserPreferenceRepository extends JpaRepository<UserPreference, UserPreference.Key> {
+
+	@Transactional
+	@Modifying
+	@Query("DELETE FROM UserPreference p WHERE p.userId = ?1")
+	int deleteByUserId(String userId);
+}
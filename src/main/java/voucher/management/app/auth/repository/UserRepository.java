@@ -1,26 +1,82 @@
 package voucher.management.app.auth.repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.hibernate.jpa.AvailableHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import jakarta.persistence.QueryHint;
 
+import voucher.management.app.auth.dto.UserLoginView;
+import voucher.management.app.auth.dto.UserSummary;
 import voucher.management.app.auth.entity.User;
 import voucher.management.app.auth.enums.RoleType;
 
 @Repository
 public interface UserRepository extends JpaRepository<User, String> {
 
-	@Query("SELECT u FROM User u WHERE u.isActive = ?1 AND u.isVerified = ?2")
-	Page<User> findActiveUserList(boolean isActive, boolean isVerified, Pageable pageable);
+	String USER_SUMMARY = "SELECT new voucher.management.app.auth.dto.UserSummary(u.userId, u.email, u.username, u.role, "
+			+ "u.isActive, u.isVerified, u.preferences) FROM User u ";
+
+	@Query(value = USER_SUMMARY + "WHERE u.isActive = ?1 AND u.isVerified = ?2",
+			countQuery = "SELECT count(u) FROM User u WHERE u.isActive = ?1 AND u.isVerified = ?2")
+	Page<UserSummary> findActiveUserList(boolean isActive, boolean isVerified, Pageable pageable);
+
+	@Query(USER_SUMMARY + "WHERE u.isActive = ?1 AND u.isVerified = ?2")
+	Slice<UserSummary> findActiveUserSlice(boolean isActive, boolean isVerified, Pageable pageable);
+
+	@Query("SELECT count(u) FROM User u WHERE u.isActive = ?1 AND u.isVerified = ?2")
+	long countActiveUsers(boolean isActive, boolean isVerified);
+
+	@QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query(USER_SUMMARY + "WHERE u.isActive = ?1 AND u.isVerified = ?2 ORDER BY u.username, u.userId")
+	Stream<UserSummary> streamActiveUsers(boolean isActive, boolean isVerified);
+
+	@QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query(USER_SUMMARY + "WHERE u.isActive = ?1 AND u.isVerified = ?2 AND u.role = ?3 ORDER BY u.username, u.userId")
+	Stream<UserSummary> streamActiveUsersByRole(boolean isActive, boolean isVerified, RoleType role);
+
+	@Query(USER_SUMMARY + "WHERE u.userId IN ?1")
+	List<UserSummary> findSummariesByUserIds(Collection<String> userIds);
+
+	@Query(USER_SUMMARY + "WHERE u.isActive = ?1 AND u.isVerified = ?2 "
+			+ "AND (u.username > ?3 OR (u.username = ?3 AND u.userId > ?4)) ORDER BY u.username, u.userId")
+	List<UserSummary> findActiveUserListAfter(boolean isActive, boolean isVerified, String username, String userId,
+			Pageable pageable);
 	
 	User save(User user);
 	
 	User findByEmail(String email);
 	
+	@Query("SELECT u.userId AS userId, u.email AS email, u.username AS username, u.password AS password, u.role AS role, "
+			+ "u.isActive AS active, u.isVerified AS verified, u.preferences AS preferences FROM User u WHERE u.email = ?1")
+	UserLoginView findLoginViewByEmail(String email);
+	
 	User findByUserId(String userId);
 	
+	@QueryHints(@QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "1000"))
+	@Query("SELECT u.email FROM User u")
+	Stream<String> streamAllEmails();
+	
+	@Query("SELECT u.email FROM User u WHERE u.createdDate >= ?1")
+	List<String> findEmailsCreatedSince(LocalDateTime since);
+	
+	@Transactional
+	@Modifying
+	@Query("UPDATE User u SET u.password = ?2 WHERE u.userId = ?1")
+	int updatePassword(String userId, String password);
+	
 	@Query("SELECT u FROM User u WHERE u.email = ?1 AND u.isActive = ?2")
 	public User findByEmailAndStatus(String email, boolean isActive,boolean isVerified);
 	
@@ -30,8 +86,19 @@ public interface UserRepository extends JpaRepository<User, String> {
 	@Query("SELECT u FROM User u WHERE u.verificationCode = ?1 AND u.isVerified = ?2 AND u.isActive = ?3")
 	User findByVerificationCode(String verificationCode,boolean isVerified,boolean isActive);
 	
-	@Query("SELECT u FROM User u WHERE u.preferences LIKE %?1% AND u.isActive = ?2  AND u.isVerified = ?3  AND u.role = ?4")
-	Page<User> findByPreferences(String perferences, boolean isActive, boolean isVerified, RoleType role, Pageable pageable);
+	@Query(value = USER_SUMMARY + "JOIN UserPreference p ON p.userId = u.userId "
+			+ "WHERE p.preference = ?1 AND u.isActive = ?2 AND u.isVerified = ?3 AND u.role = ?4",
+			countQuery = "SELECT count(u) FROM User u JOIN UserPreference p ON p.userId = u.userId "
+					+ "WHERE p.preference = ?1 AND u.isActive = ?2 AND u.isVerified = ?3 AND u.role = ?4")
+	Page<UserSummary> findByPreferences(String preference, boolean isActive, boolean isVerified, RoleType role, Pageable pageable);
+
+	@Query(USER_SUMMARY + "JOIN UserPreference p ON p.userId = u.userId "
+			+ "WHERE p.preference = ?1 AND u.isActive = ?2 AND u.isVerified = ?3 AND u.role = ?4")
+	Slice<UserSummary> findSliceByPreferences(String preference, boolean isActive, boolean isVerified, RoleType role, Pageable pageable);
+
+	@Query("SELECT count(u) FROM User u JOIN UserPreference p ON p.userId = u.userId "
+			+ "WHERE p.preference = ?1 AND u.isActive = ?2 AND u.isVerified = ?3 AND u.role = ?4")
+	long countByPreferences(String preference, boolean isActive, boolean isVerified, RoleType role);
 	
 	
 }
@@ -0,0 +1,29 @@
+package voucher.management.app.auth.service;
+
+/**
+ * Destination for serialized audit messages. The implementation is chosen
+ * with the {@code audit.sink} property: {@code sqs} (default), {@code file} or
+ * {@code memory}.
+ */
+public interface IAuditSink {
+
+	/**
+	 * Hands over one serialized audit message. Must not block the caller for
+	 * long; returns false when the message was not accepted.
+	 */
+	boolean send(byte[] message);
+
+	/**
+	 * Pushes out anything the sink still buffers.
+	 */
+	default void flush() {
+	}
+
+	/**
+	 * How full the sink's buffers are, from 0 to 1. Used to throttle audit
+	 * sampling when the sink falls behind.
+	 */
+	default double getUtilisation() {
+		return 0.0;
+	}
+}
@@ -0,0 +1,8 @@
+package voucher.management.app.auth.service;
+
+import voucher.management.app.auth.entity.User;
+
+public interface IEmailService {
+
+	void sendVerificationEmail(User user);
+}
@@ -1,22 +1,32 @@
 package voucher.management.app.auth.service;
 
+import java.io.OutputStream;
 import java.util.List;
-import java.util.Map;
 
 import org.springframework.data.domain.Pageable;
 
+import voucher.management.app.auth.dto.AudienceQuery;
+import voucher.management.app.auth.dto.UserCursorPage;
 import voucher.management.app.auth.dto.UserDTO;
+import voucher.management.app.auth.dto.UserListPage;
+import voucher.management.app.auth.dto.UserLoginView;
 import voucher.management.app.auth.dto.UserRequest;
 import voucher.management.app.auth.entity.User;
 
 public interface IUserService {
-	Map<Long, List<UserDTO>> findActiveUsers(Pageable pageable);
+	UserListPage findActiveUsers(Pageable pageable);
+
+	UserCursorPage findActiveUsersAfter(String cursor, int size);
+
+	long exportActiveUsers(OutputStream outputStream);
 	
 	 UserDTO createUser(UserRequest userReq) throws Exception;
 	 
 	 User findByEmail(String email);
 	 
-	 UserDTO loginUser(String email, String password);
+	 UserLoginView findLoginViewByEmail(String email);
+	 
+	 UserDTO loginUser(UserLoginView loginView, String password);
 	 
 	 UserDTO verifyUser(String verificationCode) throws Exception;
 	 
@@ -24,7 +34,9 @@ public interface IUserService {
 	 
 	 UserDTO update(UserRequest userRequest);
 	 
-	 Map<Long, List<UserDTO>> findUsersByPreferences(String preferences, Pageable pageable);
+	 UserListPage findUsersByPreferences(String preferences, Pageable pageable);
+	 
+	 UserListPage findAudience(AudienceQuery query, Pageable pageable);
 	 
 	 UserDTO resetPassword(String userId, String password);
 	 
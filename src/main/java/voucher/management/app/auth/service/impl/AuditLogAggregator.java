@@ -0,0 +1,205 @@
+package voucher.management.app.auth.service.impl;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import voucher.management.app.auth.dto.AuditLogRequest;
+import voucher.management.app.auth.enums.AuditLogResponseStatus;
+
+/**
+ * Coalesces repeated audit events before they are serialized. Events with the
+ * same activity type, status code, user id and response status that arrive
+ * within one window are emitted as a single record carrying the number of
+ * occurrences and the first and last occurrence times. The descriptive fields
+ * of the first event in the window are kept.
+ *
+ * Only successful events of the high-volume {@code activity-types} are taken,
+ * so failures and writes are never held back for a window. Those events are
+ * not sampled either, so the counts are exact.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.aggregation.enabled", havingValue = "true")
+public class AuditLogAggregator {
+
+	private static final Logger logger = LoggerFactory.getLogger(AuditLogAggregator.class);
+
+	@Value("${audit.aggregation.window-ms:5000}")
+	private long windowMs;
+
+	@Value("${audit.aggregation.max-keys:10000}")
+	private int maxKeys;
+
+	@Value("${audit.aggregation.activity-types:}")
+	private Set<String> activityTypes = Set.of();
+
+	private final ConcurrentHashMap<Key, Summary> summaries = new ConcurrentHashMap<>();
+
+	private volatile Consumer<AuditLogRequest> sink;
+	private Thread flusher;
+	private volatile boolean running;
+
+	private final AtomicLong receivedCount = new AtomicLong();
+	private final AtomicLong emittedCount = new AtomicLong();
+
+	record Key(String activityType, String statusCode, String userId, String responseStatus) {
+	}
+
+	private static class Summary {
+		final AuditLogRequest first;
+		final long firstOccurredAt;
+		long lastOccurredAt;
+		int count;
+
+		Summary(AuditLogRequest first, long occurredAt) {
+			this.first = first;
+			this.firstOccurredAt = occurredAt;
+			this.lastOccurredAt = occurredAt;
+			this.count = 1;
+		}
+	}
+
+	@PostConstruct
+	public void start() {
+		running = true;
+		flusher = new Thread(this::runFlushLoop, "audit-aggregator");
+		flusher.setDaemon(true);
+		flusher.start();
+		logger.info("Audit aggregation started with windowMs={}, maxKeys={}, activityTypes={}", windowMs, maxKeys,
+				activityTypes);
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		if (flusher != null) {
+			flusher.interrupt();
+			try {
+				flusher.join(TimeUnit.SECONDS.toMillis(5));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		flushExpired(Long.MAX_VALUE);
+	}
+
+	/**
+	 * Sets where the coalesced records go once their window closes.
+	 */
+	public void setSink(Consumer<AuditLogRequest> sink) {
+		this.sink = sink;
+	}
+
+	/**
+	 * Whether events of this activity type and response status are coalesced.
+	 */
+	public boolean accepts(String activityType, String responseStatus) {
+		return activityTypes.contains(activityType) && AuditLogResponseStatus.SUCCESS.toString().equals(responseStatus);
+	}
+
+	/**
+	 * Adds an event to the open window for its key. Returns false when the
+	 * event was not taken, because it is not an accepted event, no sink is set
+	 * yet or too many distinct keys are open, so the caller sends it on its own.
+	 */
+	public boolean add(AuditLogRequest auditLogRequest) {
+		return add(auditLogRequest, System.currentTimeMillis());
+	}
+
+	public boolean add(AuditLogRequest auditLogRequest, long occurredAt) {
+		if (sink == null || !accepts(auditLogRequest.getActivityType(), auditLogRequest.getResponseStatus())) {
+			return false;
+		}
+		Key key = new Key(auditLogRequest.getActivityType(), auditLogRequest.getStatusCode(),
+				auditLogRequest.getUserId(), auditLogRequest.getResponseStatus());
+		if (summaries.size() >= maxKeys && !summaries.containsKey(key)) {
+			return false;
+		}
+		summaries.compute(key, (k, summary) -> {
+			if (summary == null) {
+				return new Summary(auditLogRequest, occurredAt);
+			}
+			summary.count++;
+			summary.lastOccurredAt = Math.max(summary.lastOccurredAt, occurredAt);
+			return summary;
+		});
+		receivedCount.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * Emits every summary whose window started at least {@code windowMs} before
+	 * {@code now}. Returns the number of records emitted.
+	 */
+	public int flushExpired(long now) {
+		List<Summary> expired = new ArrayList<>();
+		for (Key key : summaries.keySet()) {
+			summaries.computeIfPresent(key, (k, summary) -> {
+				if (now - summary.firstOccurredAt < windowMs) {
+					return summary;
+				}
+				expired.add(summary);
+				return null;
+			});
+		}
+		for (Summary summary : expired) {
+			emit(summary);
+		}
+		return expired.size();
+	}
+
+	private void emit(Summary summary) {
+		AuditLogRequest auditLogRequest = summary.first;
+		if (summary.count > 1) {
+			auditLogRequest.setCount(summary.count);
+			auditLogRequest.setFirstOccurredAt(Instant.ofEpochMilli(summary.firstOccurredAt).toString());
+			auditLogRequest.setLastOccurredAt(Instant.ofEpochMilli(summary.lastOccurredAt).toString());
+		}
+		try {
+			sink.accept(auditLogRequest);
+			emittedCount.incrementAndGet();
+		} catch (Exception e) {
+			logger.error("Failed to emit aggregated audit log " + e.toString());
+		}
+	}
+
+	private void runFlushLoop() {
+		long tickMs = Math.max(10, windowMs / 4);
+		while (running) {
+			try {
+				Thread.sleep(tickMs);
+				flushExpired(System.currentTimeMillis());
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception e) {
+				logger.error("Unexpected error in audit aggregator " + e.toString());
+			}
+		}
+	}
+
+	public int getOpenKeys() {
+		return summaries.size();
+	}
+
+	public long getReceivedCount() {
+		return receivedCount.get();
+	}
+
+	public long getEmittedCount() {
+		return emittedCount.get();
+	}
+}
@@ -0,0 +1,385 @@
+package voucher.management.app.auth.service.impl;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.MessageAttributeValue;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequestEntry;
+import voucher.management.app.auth.configuration.AWSConfig;
+import voucher.management.app.auth.utility.AuditLogCompactCodec;
+
+/**
+ * Buffers audit messages in a bounded queue and ships them to SQS with
+ * SendMessageBatch. A batch is flushed when it holds 10 entries, when the next
+ * message would push it past 256 KB, or when the linger time has elapsed since
+ * the first message of the batch arrived.
+ *
+ * Batches are sent with the non-blocking {@link SqsAsyncClient}, so the
+ * flusher thread never waits for SQS; up to {@code max-in-flight} batches can
+ * be outstanding at once. Send latency is recorded in the
+ * {@code audit.sqs.batch.latency} timer, tagged with the outcome.
+ *
+ * Compact binary messages are sent Base64-encoded with an
+ * {@value #ENCODING_ATTRIBUTE} message attribute naming the format; JSON
+ * messages carry no attribute.
+ */
+@Service
+@ConditionalOnProperty(name = "audit.sink", havingValue = "sqs", matchIfMissing = true)
+public class AuditLogBatchPublisher {
+
+	private static final Logger logger = LoggerFactory.getLogger(AuditLogBatchPublisher.class);
+
+	public static final int MAX_BATCH_ENTRIES = 10;
+	public static final int MAX_BATCH_BYTES = 256 * 1024;
+
+	public static final String ENCODING_ATTRIBUTE = "AuditEncoding";
+
+	@Autowired
+	private AWSConfig awsConfig;
+
+	@Autowired
+	private SqsAsyncClient sqsAsyncClient;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	@Value("${audit.sqs.batch.queue-capacity:10000}")
+	private int queueCapacity;
+
+	@Value("${audit.sqs.batch.linger-ms:200}")
+	private long lingerMs;
+
+	@Value("${audit.sqs.batch.max-retries:3}")
+	private int maxRetries;
+
+	@Value("${audit.sqs.batch.retry-backoff-ms:1000}")
+	private long retryBackoffMs;
+
+	@Value("${audit.sqs.batch.max-in-flight:32}")
+	private int maxInFlight;
+
+	private BlockingQueue<PendingMessage> queue;
+	private PendingMessage carryOver;
+	private Semaphore inFlight;
+	private volatile long backoffUntil;
+	private Thread flusher;
+	private volatile boolean running;
+
+	private Timer successTimer;
+	private Timer partialTimer;
+	private Timer errorTimer;
+
+	private final AtomicLong sentCount = new AtomicLong();
+	private final AtomicLong batchCount = new AtomicLong();
+	private final AtomicLong retriedCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+	private final AtomicLong droppedCount = new AtomicLong();
+
+	@PostConstruct
+	public void start() {
+		queue = new ArrayBlockingQueue<>(queueCapacity);
+		inFlight = new Semaphore(maxInFlight);
+		successTimer = latencyTimer("success");
+		partialTimer = latencyTimer("partial");
+		errorTimer = latencyTimer("error");
+		Gauge.builder("audit.sqs.batch.in-flight", inFlight, s -> maxInFlight - s.availablePermits())
+				.register(meterRegistry);
+		Gauge.builder("audit.sqs.queue.depth", queue, BlockingQueue::size).register(meterRegistry);
+		running = true;
+		flusher = new Thread(this::runFlushLoop, "audit-sqs-batch-publisher");
+		flusher.setDaemon(true);
+		flusher.start();
+		logger.info("Audit SQS batch publisher started with capacity={}, lingerMs={}, maxRetries={}, maxInFlight={}",
+				queueCapacity, lingerMs, maxRetries, maxInFlight);
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		if (flusher != null) {
+			flusher.interrupt();
+			try {
+				flusher.join(TimeUnit.SECONDS.toMillis(5));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+		// Give whatever is still buffered one last attempt before shutdown.
+		List<CompletableFuture<Integer>> pending = new ArrayList<>();
+		List<PendingMessage> batch;
+		while (!(batch = nextBatch(0)).isEmpty()) {
+			pending.add(sendBatch(batch));
+		}
+		try {
+			CompletableFuture.allOf(pending.toArray(new CompletableFuture[0])).get(5, TimeUnit.SECONDS);
+		} catch (Exception e) {
+			logger.warn("Audit batches still in flight at shutdown: {}", e.toString());
+		}
+	}
+
+	/**
+	 * Enqueues a serialized audit message. Never blocks the caller; when the
+	 * queue is full the message is dropped and counted.
+	 */
+	public boolean publish(byte[] messageBody) {
+		PendingMessage message = new PendingMessage(messageBody);
+		if (message.size > MAX_BATCH_BYTES) {
+			logger.error("Audit message of {} bytes exceeds the SQS limit and is dropped.", message.size);
+			droppedCount.incrementAndGet();
+			return false;
+		}
+		if (!queue.offer(message)) {
+			logger.warn("Audit queue is full ({} messages), dropping audit message.", queueCapacity);
+			droppedCount.incrementAndGet();
+			return false;
+		}
+		return true;
+	}
+
+	private void runFlushLoop() {
+		while (running) {
+			try {
+				long backoff = backoffUntil - System.currentTimeMillis();
+				if (backoff > 0) {
+					Thread.sleep(backoff);
+				}
+				List<PendingMessage> batch = nextBatch(lingerMs);
+				if (!batch.isEmpty()) {
+					inFlight.acquire();
+					sendBatch(batch).whenComplete((retried, error) -> inFlight.release());
+				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception e) {
+				logger.error("Unexpected error in audit batch publisher " + e.toString());
+			}
+		}
+	}
+
+	/**
+	 * Collects the next batch, waiting at most {@code linger} milliseconds after
+	 * the first message arrives for the batch to fill up.
+	 */
+	List<PendingMessage> nextBatch(long linger) {
+		List<PendingMessage> batch = new ArrayList<>(MAX_BATCH_ENTRIES);
+		try {
+			PendingMessage first = carryOver != null ? carryOver : queue.poll(linger, TimeUnit.MILLISECONDS);
+			carryOver = null;
+			if (first == null) {
+				return batch;
+			}
+			batch.add(first);
+			int batchBytes = first.size;
+			long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(linger);
+
+			while (batch.size() < MAX_BATCH_ENTRIES) {
+				long remaining = deadline - System.nanoTime();
+				PendingMessage next = remaining > 0 ? queue.poll(remaining, TimeUnit.NANOSECONDS) : queue.poll();
+				if (next == null) {
+					break;
+				}
+				if (batchBytes + next.size > MAX_BATCH_BYTES) {
+					carryOver = next;
+					break;
+				}
+				batch.add(next);
+				batchBytes += next.size;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+		return batch;
+	}
+
+	/**
+	 * Sends one batch and, once SQS answers, re-queues the entries it rejected
+	 * for a transient reason. The future yields the number of entries scheduled
+	 * for retry.
+	 */
+	CompletableFuture<Integer> sendBatch(List<PendingMessage> batch) {
+		return deliver(batch).thenApply(retryable -> {
+			int retried = 0;
+			for (PendingMessage message : retryable) {
+				if (retry(message)) {
+					retried++;
+				}
+			}
+			if (retried > 0) {
+				backoffUntil = System.currentTimeMillis() + retryBackoffMs;
+			}
+			return retried;
+		});
+	}
+
+	/**
+	 * Delivers a batch under the shared {@code max-in-flight} limit, or returns
+	 * null without sending when that many batches are already in flight.
+	 */
+	CompletableFuture<List<PendingMessage>> tryDeliver(List<PendingMessage> batch) {
+		if (!inFlight.tryAcquire()) {
+			return null;
+		}
+		return deliver(batch).whenComplete((retryable, error) -> inFlight.release());
+	}
+
+	/**
+	 * Sends one batch to SQS without re-queueing anything. Entries rejected as a
+	 * sender fault are dropped; the entries that failed for a transient reason
+	 * are returned through the future, which never completes exceptionally.
+	 */
+	CompletableFuture<List<PendingMessage>> deliver(List<PendingMessage> batch) {
+		List<SendMessageBatchRequestEntry> entries = new ArrayList<>(batch.size());
+		for (int i = 0; i < batch.size(); i++) {
+			PendingMessage message = batch.get(i);
+			SendMessageBatchRequestEntry.Builder entry = SendMessageBatchRequestEntry.builder().id(Integer.toString(i))
+					.messageBody(message.body);
+			if (message.encoding != null) {
+				entry.messageAttributes(Map.of(ENCODING_ATTRIBUTE,
+						MessageAttributeValue.builder().dataType("String").stringValue(message.encoding).build()));
+			}
+			entries.add(entry.build());
+		}
+
+		SendMessageBatchRequest request = SendMessageBatchRequest.builder().queueUrl(awsConfig.getSQSUrl())
+				.entries(entries).build();
+		batchCount.incrementAndGet();
+		long startedAt = System.nanoTime();
+
+		CompletableFuture<List<PendingMessage>> result;
+		try {
+			result = sqsAsyncClient.sendMessageBatch(request).thenApply(response -> {
+				sentCount.addAndGet(response.successful().size());
+				List<PendingMessage> retryable = new ArrayList<>();
+				for (BatchResultErrorEntry error : response.failed()) {
+					PendingMessage message = batch.get(Integer.parseInt(error.id()));
+					message.attempts++;
+					message.lastError = error.code() + " " + error.message();
+					if (Boolean.TRUE.equals(error.senderFault())) {
+						logger.error("Audit message rejected by SQS as a sender fault and dropped: {}", message.lastError);
+						failedCount.incrementAndGet();
+					} else {
+						retryable.add(message);
+					}
+				}
+				record(response.failed().isEmpty() ? successTimer : partialTimer, startedAt);
+				return retryable;
+			});
+		} catch (Exception e) {
+			result = CompletableFuture.failedFuture(e);
+		}
+		return result.exceptionally(e -> {
+			logger.error("Audit batch of {} messages failed: {}", batch.size(), e.toString());
+			record(errorTimer, startedAt);
+			for (PendingMessage message : batch) {
+				message.attempts++;
+				message.lastError = e.toString();
+			}
+			return batch;
+		});
+	}
+
+	private void record(Timer timer, long startedAt) {
+		if (timer != null) {
+			timer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+		}
+	}
+
+	private Timer latencyTimer(String outcome) {
+		return Timer.builder("audit.sqs.batch.latency").tag("outcome", outcome)
+				.description("Time from sending an audit batch to SQS until it completes").register(meterRegistry);
+	}
+
+	private boolean retry(PendingMessage message) {
+		if (message.attempts > maxRetries) {
+			logger.error("Audit message dropped after {} attempt(s): {}", message.attempts, message.lastError);
+			failedCount.incrementAndGet();
+			return false;
+		}
+		logger.warn("Audit message attempt {} failed, retrying: {}", message.attempts, message.lastError);
+		if (!queue.offer(message)) {
+			droppedCount.incrementAndGet();
+			return false;
+		}
+		retriedCount.incrementAndGet();
+		return true;
+	}
+
+	public int getQueueDepth() {
+		return queue.size();
+	}
+
+	public int getQueueCapacity() {
+		return queueCapacity;
+	}
+
+	public int getInFlightBatches() {
+		return inFlight == null ? 0 : maxInFlight - inFlight.availablePermits();
+	}
+
+	public long getSentCount() {
+		return sentCount.get();
+	}
+
+	public long getBatchCount() {
+		return batchCount.get();
+	}
+
+	public long getRetriedCount() {
+		return retriedCount.get();
+	}
+
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+
+	public long getDroppedCount() {
+		return droppedCount.get();
+	}
+
+	static class PendingMessage {
+		final String body;
+		final String encoding;
+		final int size;
+		int attempts;
+		String lastError;
+
+		PendingMessage(byte[] body) {
+			if (AuditLogCompactCodec.isCompact(body)) {
+				this.body = Base64.getEncoder().encodeToString(body);
+				this.encoding = AuditLogCompactCodec.ENCODING;
+				// SQS counts message attributes towards the size limit
+				this.size = this.body.length() + ENCODING_ATTRIBUTE.length() + "String".length()
+						+ encoding.length();
+			} else {
+				this.body = new String(body, StandardCharsets.UTF_8);
+				this.encoding = null;
+				this.size = body.length;
+			}
+		}
+	}
+}
@@ -0,0 +1,330 @@
+package voucher.management.app.auth.service.impl;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.TreeMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Append-only, memory-mapped spool for serialized audit messages.
+ *
+ * Records are written to fixed-size segment files as
+ * {@code [length][crc32][payload]}. A segment that cannot take the next record
+ * is sealed with an end marker and a new one is started. The replayer reads
+ * from the checkpoint, and segments behind the checkpoint are deleted.
+ */
+@Component
+@ConditionalOnExpression("${audit.spool.enabled:false} and '${audit.sink:sqs}' == 'sqs'")
+public class AuditLogSpool {
+
+	private static final Logger logger = LoggerFactory.getLogger(AuditLogSpool.class);
+
+	private static final int RECORD_HEADER_BYTES = 8;
+	private static final int END_OF_SEGMENT = -1;
+	private static final String SEGMENT_PREFIX = "segment-";
+	private static final String SEGMENT_SUFFIX = ".spool";
+	private static final String CHECKPOINT_FILE = "checkpoint";
+
+	@Value("${audit.spool.path:logs/audit-spool}")
+	private String spoolPath;
+
+	@Value("${audit.spool.segment-size-bytes:8388608}")
+	private int segmentSize;
+
+	@Value("${audit.spool.max-segments:64}")
+	private int maxSegments;
+
+	private Path directory;
+
+	private MappedByteBuffer writeBuffer;
+	private long writeSegment;
+	private int writeOffset;
+
+	private MappedByteBuffer checkpointBuffer;
+	private volatile Position checkpoint;
+
+	private MappedByteBuffer readBuffer;
+	private long readSegment = -1;
+
+	private final AtomicLong appendedCount = new AtomicLong();
+	private final AtomicLong rejectedCount = new AtomicLong();
+
+	public record Position(long segment, int offset) {
+	}
+
+	public record ReadResult(List<byte[]> records, Position next) {
+	}
+
+	@PostConstruct
+	public void open() throws IOException {
+		directory = Paths.get(spoolPath);
+		Files.createDirectories(directory);
+
+		checkpointBuffer = map(directory.resolve(CHECKPOINT_FILE), 12, FileChannel.MapMode.READ_WRITE);
+		long checkpointSegment = checkpointBuffer.getLong(0);
+		int checkpointOffset = checkpointBuffer.getInt(8);
+
+		TreeMap<Long, Path> segments = listSegments();
+		if (checkpointSegment == 0) {
+			checkpointSegment = segments.isEmpty() ? 1 : segments.firstKey();
+			checkpointOffset = 0;
+		}
+		checkpoint = new Position(checkpointSegment, checkpointOffset);
+		deleteSegmentsBefore(checkpointSegment);
+
+		writeSegment = segments.isEmpty() ? checkpointSegment : Math.max(segments.lastKey(), checkpointSegment);
+		writeBuffer = mapSegment(writeSegment, FileChannel.MapMode.READ_WRITE);
+		writeOffset = recoverWriteOffset(writeBuffer);
+		if (writeOffset < 0) {
+			rotate();
+		}
+		logger.info("Audit spool opened at {}, checkpoint={}, write position={}:{}", directory.toAbsolutePath(),
+				checkpoint, writeSegment, writeOffset);
+	}
+
+	@PreDestroy
+	public synchronized void close() {
+		if (writeBuffer != null) {
+			writeBuffer.force();
+		}
+		if (checkpointBuffer != null) {
+			checkpointBuffer.force();
+		}
+	}
+
+	/**
+	 * Appends one record. Returns false when the spool is full or the disk write
+	 * failed, so the caller can fall back to another path.
+	 */
+	public synchronized boolean append(byte[] payload) {
+		try {
+			if (RECORD_HEADER_BYTES + payload.length > segmentSize - 4) {
+				rejectedCount.incrementAndGet();
+				return false;
+			}
+			if (writeOffset + RECORD_HEADER_BYTES + payload.length > segmentSize - 4) {
+				writeBuffer.putInt(writeOffset, END_OF_SEGMENT);
+				if (writeSegment + 1 - checkpoint.segment() >= maxSegments) {
+					logger.warn("Audit spool is full ({} segments), rejecting audit record.", maxSegments);
+					rejectedCount.incrementAndGet();
+					return false;
+				}
+				rotate();
+			}
+			CRC32 crc = new CRC32();
+			crc.update(payload);
+			writeBuffer.put(writeOffset + RECORD_HEADER_BYTES, payload);
+			writeBuffer.putInt(writeOffset + 4, (int) crc.getValue());
+			writeBuffer.putInt(writeOffset, payload.length);
+			writeOffset += RECORD_HEADER_BYTES + payload.length;
+			appendedCount.incrementAndGet();
+			return true;
+		} catch (IOException | UncheckedIOException e) {
+			logger.error("Audit spool append failed " + e.toString());
+			rejectedCount.incrementAndGet();
+			return false;
+		}
+	}
+
+	public synchronized Position getWritePosition() {
+		return new Position(writeSegment, writeOffset);
+	}
+
+	public Position getCheckpoint() {
+		return checkpoint;
+	}
+
+	/**
+	 * Reads records starting at {@code from}, stopping at the write position,
+	 * after {@code maxRecords} records or before exceeding {@code maxBytes}.
+	 * Only the replayer thread calls this.
+	 */
+	public ReadResult read(Position from, int maxRecords, int maxBytes) throws IOException {
+		Position limit = getWritePosition();
+		List<byte[]> records = new ArrayList<>();
+		long segment = from.segment();
+		int offset = from.offset();
+		int bytes = 0;
+
+		while (records.size() < maxRecords) {
+			if (segment == limit.segment() && offset >= limit.offset()) {
+				break;
+			}
+			if (segment < limit.segment() && !Files.exists(segmentPath(segment))) {
+				segment++;
+				offset = 0;
+				continue;
+			}
+			MappedByteBuffer buffer = readBuffer(segment);
+			int length = offset + RECORD_HEADER_BYTES <= segmentSize ? buffer.getInt(offset) : END_OF_SEGMENT;
+			if (length <= 0 || offset + RECORD_HEADER_BYTES + length > segmentSize) {
+				if (segment >= limit.segment()) {
+					break;
+				}
+				segment++;
+				offset = 0;
+				continue;
+			}
+			if (!records.isEmpty() && bytes + length > maxBytes) {
+				break;
+			}
+			byte[] payload = new byte[length];
+			buffer.get(offset + RECORD_HEADER_BYTES, payload);
+			CRC32 crc = new CRC32();
+			crc.update(payload);
+			if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+				logger.error("Corrupt audit spool record at {}:{}, skipping the rest of the segment.", segment, offset);
+				if (segment >= limit.segment()) {
+					break;
+				}
+				segment++;
+				offset = 0;
+				continue;
+			}
+			records.add(payload);
+			bytes += length;
+			offset += RECORD_HEADER_BYTES + length;
+		}
+		return new ReadResult(records, new Position(segment, offset));
+	}
+
+	/**
+	 * Persists the replay position and removes the segments it has moved past.
+	 */
+	public void checkpoint(Position position) {
+		checkpointBuffer.putInt(8, position.offset());
+		checkpointBuffer.putLong(0, position.segment());
+		Position previous = checkpoint;
+		checkpoint = position;
+		if (position.segment() > previous.segment()) {
+			deleteSegmentsBefore(position.segment());
+		}
+	}
+
+	/**
+	 * Flushes dirty pages so records survive a node crash, not just a process
+	 * restart.
+	 */
+	public synchronized void force() {
+		writeBuffer.force();
+		checkpointBuffer.force();
+	}
+
+	public long getBacklogSegments() {
+		return writeSegment - checkpoint.segment() + 1;
+	}
+
+	public int getMaxSegments() {
+		return maxSegments;
+	}
+
+	public long getAppendedCount() {
+		return appendedCount.get();
+	}
+
+	public long getRejectedCount() {
+		return rejectedCount.get();
+	}
+
+	private void rotate() throws IOException {
+		writeBuffer.force();
+		writeSegment++;
+		writeBuffer = mapSegment(writeSegment, FileChannel.MapMode.READ_WRITE);
+		writeOffset = 0;
+	}
+
+	/**
+	 * Walks the records of the last segment to find where writing stopped.
+	 * Returns -1 when the segment was already sealed.
+	 */
+	private int recoverWriteOffset(MappedByteBuffer buffer) {
+		int offset = 0;
+		while (offset + RECORD_HEADER_BYTES <= segmentSize) {
+			int length = buffer.getInt(offset);
+			if (length == END_OF_SEGMENT) {
+				return -1;
+			}
+			if (length <= 0 || offset + RECORD_HEADER_BYTES + length > segmentSize) {
+				break;
+			}
+			byte[] payload = new byte[length];
+			buffer.get(offset + RECORD_HEADER_BYTES, payload);
+			CRC32 crc = new CRC32();
+			crc.update(payload);
+			if ((int) crc.getValue() != buffer.getInt(offset + 4)) {
+				break;
+			}
+			offset += RECORD_HEADER_BYTES + length;
+		}
+		return offset;
+	}
+
+	private MappedByteBuffer readBuffer(long segment) throws IOException {
+		if (segment != readSegment) {
+			readBuffer = mapSegment(segment, FileChannel.MapMode.READ_ONLY);
+			readSegment = segment;
+		}
+		return readBuffer;
+	}
+
+	private MappedByteBuffer mapSegment(long segment, FileChannel.MapMode mode) throws IOException {
+		return map(segmentPath(segment), segmentSize, mode);
+	}
+
+	private MappedByteBuffer map(Path path, int size, FileChannel.MapMode mode) throws IOException {
+		StandardOpenOption[] options = mode == FileChannel.MapMode.READ_ONLY
+				? new StandardOpenOption[] { StandardOpenOption.READ }
+				: new StandardOpenOption[] { StandardOpenOption.READ, StandardOpenOption.WRITE,
+						StandardOpenOption.CREATE };
+		try (FileChannel channel = FileChannel.open(path, options)) {
+			return channel.map(mode, 0, size);
+		}
+	}
+
+	private Path segmentPath(long segment) {
+		return directory.resolve(String.format("%s%020d%s", SEGMENT_PREFIX, segment, SEGMENT_SUFFIX));
+	}
+
+	private TreeMap<Long, Path> listSegments() throws IOException {
+		TreeMap<Long, Path> segments = new TreeMap<>();
+		try (Stream<Path> files = Files.list(directory)) {
+			files.forEach(file -> {
+				String name = file.getFileName().toString();
+				if (name.startsWith(SEGMENT_PREFIX) && name.endsWith(SEGMENT_SUFFIX)) {
+					String id = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+					segments.put(Long.parseLong(id), file);
+				}
+			});
+		}
+		return segments;
+	}
+
+	private void deleteSegmentsBefore(long segment) {
+		try {
+			for (Path file : listSegments().headMap(segment).values()) {
+				Files.deleteIfExists(file);
+			}
+		} catch (IOException e) {
+			logger.error("Failed to delete drained audit spool segments " + e.toString());
+		}
+	}
+}
@@ -0,0 +1,213 @@
+package voucher.management.app.auth.service.impl;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import voucher.management.app.auth.service.impl.AuditLogBatchPublisher.PendingMessage;
+import voucher.management.app.auth.service.impl.AuditLogSpool.Position;
+import voucher.management.app.auth.service.impl.AuditLogSpool.ReadResult;
+
+/**
+ * Drains the audit spool to SQS in the background. Up to
+ * {@code audit.sqs.batch.max-in-flight} batches are sent at once, sharing that
+ * limit with {@link AuditLogBatchPublisher}. A batch is retried with
+ * exponential backoff until SQS accepts it, and the checkpoint only moves past
+ * the leading run of accepted batches, so after an SQS outage or a pod restart
+ * the spool resumes at the oldest batch not yet delivered. Delivery is
+ * at-least-once: a restart resends every batch after the checkpoint, including
+ * those accepted out of order.
+ */
+@Component
+@ConditionalOnExpression("${audit.spool.enabled:false} and '${audit.sink:sqs}' == 'sqs'")
+public class AuditLogSpoolReplayer {
+
+	private static final Logger logger = LoggerFactory.getLogger(AuditLogSpoolReplayer.class);
+
+	// Delivered batches wait here for the ones before them, so this bounds how
+	// far a batch stuck in retry lets the rest of the spool run ahead.
+	private static final int MAX_WINDOW_BATCHES = 1000;
+
+	@Autowired
+	private AuditLogSpool auditLogSpool;
+
+	@Autowired
+	private AuditLogBatchPublisher auditLogBatchPublisher;
+
+	@Value("${audit.spool.poll-interval-ms:200}")
+	private long pollIntervalMs;
+
+	@Value("${audit.spool.max-backoff-ms:30000}")
+	private long maxBackoffMs;
+
+	@Value("${audit.spool.force-interval-ms:1000}")
+	private long forceIntervalMs;
+
+	@Value("${audit.sqs.batch.max-in-flight:32}")
+	private int maxInFlight;
+
+	private Thread replayer;
+	private volatile boolean running;
+
+	/**
+	 * A batch read from the spool, in spool order. {@code delivery} is set while
+	 * a send is outstanding; otherwise {@code messages} holds what is left to
+	 * send, and nothing once SQS has accepted the whole batch.
+	 */
+	private static class SpoolBatch {
+		final Position end;
+		List<PendingMessage> messages;
+		CompletableFuture<List<PendingMessage>> delivery;
+		long backoffMs;
+		long retryAt;
+
+		SpoolBatch(Position end, List<PendingMessage> messages, long backoffMs) {
+			this.end = end;
+			this.messages = messages;
+			this.backoffMs = backoffMs;
+		}
+
+		boolean isDelivered() {
+			return delivery == null && messages.isEmpty();
+		}
+	}
+
+	@PostConstruct
+	public void start() {
+		running = true;
+		replayer = new Thread(this::runReplayLoop, "audit-spool-replayer");
+		replayer.setDaemon(true);
+		replayer.start();
+	}
+
+	@PreDestroy
+	public void stop() {
+		running = false;
+		if (replayer != null) {
+			replayer.interrupt();
+			try {
+				replayer.join(TimeUnit.SECONDS.toMillis(5));
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			}
+		}
+	}
+
+	private void runReplayLoop() {
+		long errorBackoffMs = pollIntervalMs;
+		long lastForce = System.currentTimeMillis();
+		Deque<SpoolBatch> window = new ArrayDeque<>();
+		Position readPosition = auditLogSpool.getCheckpoint();
+
+		while (running) {
+			try {
+				long now = System.currentTimeMillis();
+				if (now - lastForce >= forceIntervalMs) {
+					auditLogSpool.force();
+					lastForce = now;
+				}
+
+				for (SpoolBatch batch : window) {
+					if (batch.delivery != null && batch.delivery.isDone()) {
+						batch.messages = batch.delivery.join();
+						batch.delivery = null;
+						if (!batch.messages.isEmpty()) {
+							logger.warn("{} spooled audit message(s) not accepted by SQS, retrying in {} ms",
+									batch.messages.size(), batch.backoffMs);
+							batch.retryAt = now + batch.backoffMs;
+							batch.backoffMs = Math.min(batch.backoffMs * 2, maxBackoffMs);
+						}
+					}
+				}
+
+				// The checkpoint is ordered, so it only passes batches with nothing undelivered before them.
+				Position delivered = null;
+				while (!window.isEmpty() && window.peekFirst().isDelivered()) {
+					delivered = window.pollFirst().end;
+				}
+				if (delivered != null) {
+					auditLogSpool.checkpoint(delivered);
+				}
+
+				for (SpoolBatch batch : window) {
+					if (batch.delivery == null && !batch.messages.isEmpty() && now >= batch.retryAt) {
+						batch.delivery = auditLogBatchPublisher.tryDeliver(batch.messages);
+					}
+				}
+
+				while (countUndelivered(window) < maxInFlight && window.size() < MAX_WINDOW_BATCHES) {
+					ReadResult result = auditLogSpool.read(readPosition, AuditLogBatchPublisher.MAX_BATCH_ENTRIES,
+							AuditLogBatchPublisher.MAX_BATCH_BYTES);
+					readPosition = result.next();
+					if (result.records().isEmpty()) {
+						if (window.isEmpty() && !readPosition.equals(auditLogSpool.getCheckpoint())) {
+							auditLogSpool.checkpoint(readPosition);
+						}
+						break;
+					}
+					List<PendingMessage> messages = new ArrayList<>(result.records().size());
+					for (byte[] record : result.records()) {
+						messages.add(new PendingMessage(record));
+					}
+					SpoolBatch batch = new SpoolBatch(readPosition, messages, pollIntervalMs);
+					batch.delivery = auditLogBatchPublisher.tryDeliver(messages);
+					window.addLast(batch);
+					if (batch.delivery == null) {
+						break;
+					}
+				}
+
+				awaitAnyDelivery(window);
+				errorBackoffMs = pollIntervalMs;
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (Exception e) {
+				logger.error("Unexpected error while replaying the audit spool " + e.toString());
+				try {
+					Thread.sleep(errorBackoffMs);
+				} catch (InterruptedException ie) {
+					Thread.currentThread().interrupt();
+					return;
+				}
+				errorBackoffMs = Math.min(errorBackoffMs * 2, maxBackoffMs);
+			}
+		}
+	}
+
+	private static long countUndelivered(Deque<SpoolBatch> window) {
+		return window.stream().filter(batch -> !batch.isDelivered()).count();
+	}
+
+	/**
+	 * Waits up to {@code poll-interval-ms} for an outstanding send to complete.
+	 */
+	private void awaitAnyDelivery(Deque<SpoolBatch> window) throws InterruptedException {
+		CompletableFuture<?>[] deliveries = window.stream().map(batch -> batch.delivery).filter(Objects::nonNull)
+				.toArray(CompletableFuture[]::new);
+		if (deliveries.length == 0) {
+			Thread.sleep(pollIntervalMs);
+			return;
+		}
+		try {
+			CompletableFuture.anyOf(deliveries).get(pollIntervalMs, TimeUnit.MILLISECONDS);
+		} catch (TimeoutException | ExecutionException e) {
+			// checked again on the next pass
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package voucher.management.app.auth.service.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import lombok.Getter;
+import lombok.Setter;
+import voucher.management.app.auth.configuration.AsyncConfig;
+import voucher.management.app.auth.enums.AuditLogResponseStatus;
+import voucher.management.app.auth.service.IAuditSink;
+
+/**
+ * Decides which audit events are worth sending. Failures, non-2xx responses
+ * and anything other than a GET are always kept. Successful reads are sampled
+ * at the rate configured for their activity type under
+ * {@code audit.sampling.rates}, and that rate is lowered further once the
+ * audit pipeline is more than {@code pressure-threshold} full.
+ */
+@Component
+@ConfigurationProperties(prefix = "audit.sampling")
+public class AuditSamplingPolicy {
+
+	@Getter
+	@Setter
+	private Map<String, Double> rates = new HashMap<>();
+
+	@Getter
+	@Setter
+	private double pressureThreshold = 0.5;
+
+	@Getter
+	@Setter
+	private double minRate = 0.01;
+
+	@Autowired
+	private IAuditSink auditSink;
+
+	@Autowired
+	@Qualifier(AsyncConfig.AUDIT_EXECUTOR)
+	private ThreadPoolTaskExecutor auditExecutor;
+
+	private final AtomicLong sampledOutCount = new AtomicLong();
+
+	/**
+	 * Returns true when the event should not be sent.
+	 */
+	public boolean isSampledOut(String statusCode, String activityType, String responseStatus, String requestType) {
+		if (!AuditLogResponseStatus.SUCCESS.toString().equals(responseStatus) || !"GET".equals(requestType)
+				|| statusCode == null || !statusCode.startsWith("2")) {
+			return false;
+		}
+		double rate = effectiveRate(activityType);
+		if (rate >= 1.0 || ThreadLocalRandom.current().nextDouble() < rate) {
+			return false;
+		}
+		sampledOutCount.incrementAndGet();
+		return true;
+	}
+
+	/**
+	 * The configured rate, scaled down linearly from the pressure threshold to
+	 * a full pipeline but never below {@code min-rate}.
+	 */
+	public double effectiveRate(String activityType) {
+		double rate = rates.getOrDefault(activityType, 1.0);
+		double utilisation = getUtilisation();
+		if (utilisation <= pressureThreshold) {
+			return rate;
+		}
+		double factor = Math.max(0.0, (1.0 - utilisation) / (1.0 - pressureThreshold));
+		return Math.min(rate, Math.max(rate * factor, minRate));
+	}
+
+	/**
+	 * How full the fullest stage of the audit pipeline is, from 0 to 1.
+	 */
+	public double getUtilisation() {
+		double utilisation = auditSink.getUtilisation();
+		int executorCapacity = auditExecutor.getQueueCapacity();
+		if (executorCapacity > 0) {
+			utilisation = Math.max(utilisation,
+					(double) auditExecutor.getThreadPoolExecutor().getQueue().size() / executorCapacity);
+		}
+		return Math.min(1.0, utilisation);
+	}
+
+	public long getSampledOutCount() {
+		return sampledOutCount.get();
+	}
+}
@@ -0,0 +1,194 @@
+package voucher.management.app.auth.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import voucher.management.app.auth.repository.UserRepository;
+import voucher.management.app.auth.utility.BloomFilter;
+import voucher.management.app.auth.utility.GeneralUtility;
+
+/**
+ * In-memory Bloom filter of every registered email, so that lookups for an
+ * email that definitely does not exist can skip the database. Until the first
+ * build has finished every email is reported as possibly present.
+ *
+ * The filter is built by streaming the user table, then kept current by
+ * adding emails created on this instance and by polling for emails created
+ * since the last poll, which covers registrations on other instances. It is
+ * rebuilt from scratch every {@code rebuild-interval-ms}, sized for twice
+ * the current number of users.
+ *
+ * Emails are lower-cased, stripped of accents and trailing spaces before they
+ * are hashed, so that anything the database collation treats as equal maps to
+ * the same entry.
+ */
+@Component
+@ConditionalOnProperty(name = "email.index.enabled", havingValue = "true")
+public class EmailExistenceIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(EmailExistenceIndex.class);
+
+	@Value("${email.index.expected-insertions:1000000}")
+	private long expectedInsertions;
+
+	@Value("${email.index.false-positive-rate:0.01}")
+	private double falsePositiveRate;
+
+	@Value("${email.index.refresh-interval-ms:5000}")
+	private long refreshIntervalMs;
+
+	@Value("${email.index.rebuild-interval-ms:3600000}")
+	private long rebuildIntervalMs;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private volatile BloomFilter current;
+	private volatile BloomFilter building;
+	private volatile LocalDateTime refreshedUpTo;
+	private ScheduledExecutorService scheduler;
+
+	private final AtomicLong emailCount = new AtomicLong();
+	private Counter negativeCounter;
+	private Counter positiveCounter;
+
+	@PostConstruct
+	public void start() {
+		negativeCounter = Counter.builder("email.index.lookups").tag("result", "absent").register(meterRegistry);
+		positiveCounter = Counter.builder("email.index.lookups").tag("result", "maybe").register(meterRegistry);
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "email-index");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::runRebuild, 0, rebuildIntervalMs, TimeUnit.MILLISECONDS);
+		scheduler.scheduleWithFixedDelay(this::runRefresh, refreshIntervalMs, refreshIntervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		scheduler.shutdownNow();
+	}
+
+	/**
+	 * Returns false only when no user with this email exists.
+	 */
+	public boolean mightContain(String email) {
+		BloomFilter filter = current;
+		if (filter == null || email == null || filter.mightContain(GeneralUtility.normalizeEmail(email))) {
+			positiveCounter.increment();
+			return true;
+		}
+		negativeCounter.increment();
+		return false;
+	}
+
+	public void put(String email) {
+		if (email == null) {
+			return;
+		}
+		String normalized = GeneralUtility.normalizeEmail(email);
+		// A rebuild in progress gets the email too, in case its scan has passed it.
+		BloomFilter next = building;
+		if (next != null) {
+			next.put(normalized);
+		}
+		BloomFilter filter = current;
+		if (filter != null) {
+			filter.put(normalized);
+		}
+	}
+
+	public boolean isReady() {
+		return current != null;
+	}
+
+	/**
+	 * Builds a new filter from the whole user table and swaps it in.
+	 */
+	public void rebuild() {
+		LocalDateTime startedAt = LocalDateTime.now();
+		long sizeFor = Math.max(expectedInsertions, emailCount.get() * 2);
+		BloomFilter next = new BloomFilter(sizeFor, falsePositiveRate);
+		building = next;
+		try {
+			TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+			transactionTemplate.setReadOnly(true);
+			long count = transactionTemplate.execute(status -> {
+				long added = 0;
+				try (Stream<String> emails = userRepository.streamAllEmails()) {
+					for (String email : (Iterable<String>) emails::iterator) {
+						next.put(GeneralUtility.normalizeEmail(email));
+						added++;
+					}
+				}
+				return added;
+			});
+			emailCount.set(count);
+			current = next;
+			if (refreshedUpTo == null || refreshedUpTo.isBefore(startedAt)) {
+				refreshedUpTo = startedAt;
+			}
+			logger.info("Email index rebuilt with {} emails, {} bits, {} hashes", count, next.getBitCount(),
+					next.getHashCount());
+		} finally {
+			building = null;
+		}
+	}
+
+	/**
+	 * Adds emails created since the last refresh. The window reaches back one
+	 * refresh interval further to allow for clock skew between instances.
+	 */
+	public void refresh() {
+		LocalDateTime since = refreshedUpTo;
+		if (since == null) {
+			return;
+		}
+		LocalDateTime now = LocalDateTime.now();
+		for (String email : userRepository.findEmailsCreatedSince(since.minus(Duration.ofMillis(refreshIntervalMs)))) {
+			put(email);
+		}
+		refreshedUpTo = now;
+	}
+
+	private void runRebuild() {
+		try {
+			rebuild();
+		} catch (Exception e) {
+			logger.error("Email index rebuild failed " + e.toString());
+		}
+	}
+
+	private void runRefresh() {
+		try {
+			refresh();
+		} catch (Exception e) {
+			logger.error("Email index refresh failed " + e.toString());
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package voucher.management.app.auth.service.impl;
+
+import java.util.Arrays;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import com.amazonaws.services.simpleemail.AmazonSimpleEmailService;
+
+import voucher.management.app.auth.configuration.AWSConfig;
+import voucher.management.app.auth.configuration.AsyncConfig;
+import voucher.management.app.auth.configuration.VoucherManagementAuthenticationSecurityConfig;
+import voucher.management.app.auth.entity.User;
+import voucher.management.app.auth.service.IEmailService;
+import voucher.management.app.auth.utility.AmazonSES;
+import voucher.management.app.auth.utility.EncryptionUtils;
+
+@Service
+public class EmailService implements IEmailService {
+
+	private static final Logger logger = LoggerFactory.getLogger(EmailService.class);
+
+	@Autowired
+	private EncryptionUtils encryptionUtils;
+
+	@Autowired
+	private AWSConfig awsConfig;
+
+	@Autowired
+	private VoucherManagementAuthenticationSecurityConfig securityConfig;
+
+	@Async(AsyncConfig.EMAIL_EXECUTOR)
+	@Override
+	public void sendVerificationEmail(User user) {
+
+		try {
+
+			AmazonSimpleEmailService client = awsConfig.sesClient();
+			String from = awsConfig.getEmailFrom().trim();
+			String clientURL = securityConfig.getFrontEndUrl().trim();
+
+			String to = user.getEmail();
+
+			String verificationCode = encryptionUtils.encrypt(user.getVerificationCode());
+			logger.info(" Verification Code "+ verificationCode);
+
+			String verifyURL = clientURL + "/verification/" + verificationCode.trim();
+			logger.info("verifyURL... {}", verifyURL);
+
+			String subject = "Please verify your registration";
+			String body = "Dear [[name]],<br><br>" + "Thank you for choosing our service.<br>"
+					+ "To complete your registration, please click the link below to verify :<br>"
+					+ "<h3><a href=\"[[URL]]\" target=\"_self\">VERIFY</a></h3>" + "Thank you" + "<br><br>"
+					+ "<i>(This is an auto-generated email, please do not reply)</i>";
+
+			body = body.replace("[[name]]", user.getUsername());
+
+			body = body.replace("[[URL]]", verifyURL);
+
+			AmazonSES.sendEmail(client, from, Arrays.asList(to), subject, body);
+		} catch (Exception e) {
+			logger.error("Error occurred while sendVerificationEmail, " + e.toString());
+			e.printStackTrace();
+		}
+	}
+}
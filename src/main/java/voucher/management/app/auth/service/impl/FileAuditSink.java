@@ -0,0 +1,139 @@
+package voucher.management.app.auth.service.impl;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Base64;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import voucher.management.app.auth.service.IAuditSink;
+import voucher.management.app.auth.utility.AuditLogCompactCodec;
+
+/**
+ * Writes audit messages to a local file, one message per line. When the file
+ * reaches {@code max-file-bytes} it is rolled to {@code audit.log.1}, older
+ * files shift up by one and anything past {@code max-files} is deleted.
+ * Compact binary messages are written Base64-encoded. Each message is
+ * flushed as soon as it is written, so a killed process loses nothing that
+ * {@link #send} accepted.
+ * Meant for load tests and local runs without AWS access.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.sink", havingValue = "file")
+public class FileAuditSink implements IAuditSink {
+
+	private static final Logger logger = LoggerFactory.getLogger(FileAuditSink.class);
+
+	static final String FILE_NAME = "audit.log";
+
+	@Value("${audit.sink.file.directory:logs/audit}")
+	private String directoryPath;
+
+	@Value("${audit.sink.file.max-file-bytes:67108864}")
+	private long maxFileBytes;
+
+	@Value("${audit.sink.file.max-files:10}")
+	private int maxFiles;
+
+	private Path directory;
+	private OutputStream out;
+	private long fileBytes;
+
+	private final AtomicLong sentCount = new AtomicLong();
+	private final AtomicLong failedCount = new AtomicLong();
+
+	@PostConstruct
+	public void open() throws IOException {
+		directory = Paths.get(directoryPath);
+		Files.createDirectories(directory);
+		Path file = directory.resolve(FILE_NAME);
+		fileBytes = Files.exists(file) ? Files.size(file) : 0;
+		out = openFile(file);
+		logger.info("Audit file sink writing to {}", file.toAbsolutePath());
+	}
+
+	@PreDestroy
+	public synchronized void close() {
+		try {
+			out.close();
+		} catch (IOException e) {
+			logger.error("Failed to close audit file sink " + e.toString());
+		}
+	}
+
+	@Override
+	public synchronized boolean send(byte[] message) {
+		if (AuditLogCompactCodec.isCompact(message)) {
+			message = Base64.getEncoder().encode(message);
+		}
+		try {
+			if (fileBytes > 0 && fileBytes + message.length + 1 > maxFileBytes) {
+				roll();
+			}
+			out.write(message);
+			out.write('\n');
+			out.flush();
+			fileBytes += message.length + 1;
+			sentCount.incrementAndGet();
+			return true;
+		} catch (IOException e) {
+			logger.error("Audit file sink write failed " + e.toString());
+			failedCount.incrementAndGet();
+			return false;
+		}
+	}
+
+	@Override
+	public synchronized void flush() {
+		try {
+			out.flush();
+		} catch (IOException e) {
+			logger.error("Audit file sink flush failed " + e.toString());
+		}
+	}
+
+	public Path getDirectory() {
+		return directory;
+	}
+
+	public long getSentCount() {
+		return sentCount.get();
+	}
+
+	public long getFailedCount() {
+		return failedCount.get();
+	}
+
+	private void roll() throws IOException {
+		out.close();
+		Files.deleteIfExists(directory.resolve(FILE_NAME + "." + maxFiles));
+		for (int i = maxFiles - 1; i >= 1; i--) {
+			Path rolled = directory.resolve(FILE_NAME + "." + i);
+			if (Files.exists(rolled)) {
+				Files.move(rolled, directory.resolve(FILE_NAME + "." + (i + 1)), StandardCopyOption.REPLACE_EXISTING);
+			}
+		}
+		Path file = directory.resolve(FILE_NAME);
+		Files.move(file, directory.resolve(FILE_NAME + ".1"), StandardCopyOption.REPLACE_EXISTING);
+		out = openFile(file);
+		fileBytes = 0;
+	}
+
+	private OutputStream openFile(Path file) throws IOException {
+		return new BufferedOutputStream(
+				Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+	}
+}
@@ -0,0 +1,71 @@
+package voucher.management.app.auth.service.impl;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import voucher.management.app.auth.service.IAuditSink;
+
+/**
+ * Keeps the most recent audit messages in a fixed-size ring. Producers claim a
+ * slot with a single atomic increment and never wait on each other; once the
+ * ring wraps, the oldest messages are overwritten. Meant for load tests and
+ * local runs without AWS access.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.sink", havingValue = "memory")
+public class InMemoryAuditSink implements IAuditSink {
+
+	@Value("${audit.sink.memory.capacity:65536}")
+	private int capacity;
+
+	private AtomicReferenceArray<byte[]> slots;
+	private int mask;
+
+	private final AtomicLong sequence = new AtomicLong();
+
+	@PostConstruct
+	public void init() {
+		int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+		slots = new AtomicReferenceArray<>(size);
+		mask = size - 1;
+	}
+
+	@Override
+	public boolean send(byte[] message) {
+		long claimed = sequence.getAndIncrement();
+		slots.lazySet((int) (claimed & mask), message);
+		return true;
+	}
+
+	/**
+	 * Returns the messages still held by the ring, oldest first. Slots claimed
+	 * but not yet written by a concurrent producer are skipped.
+	 */
+	public List<byte[]> getMessages() {
+		long end = sequence.get();
+		long start = Math.max(0, end - slots.length());
+		List<byte[]> messages = new ArrayList<>((int) (end - start));
+		for (long i = start; i < end; i++) {
+			byte[] message = slots.get((int) (i & mask));
+			if (message != null) {
+				messages.add(message);
+			}
+		}
+		return messages;
+	}
+
+	public long getSentCount() {
+		return sequence.get();
+	}
+
+	public int getCapacity() {
+		return slots.length();
+	}
+}
@@ -0,0 +1,230 @@
+package voucher.management.app.auth.service.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import voucher.management.app.auth.utility.GeneralUtility;
+
+/**
+ * Tracks failed logins per email and per client IP so that a credential
+ * stuffing run is turned away before it costs a database read or a password
+ * hash. Failures are counted over a sliding window of {@code window-ms}. Once
+ * a key reaches its limit it is blocked for {@code backoff-base-ms}, doubling
+ * with every further failure up to {@code backoff-max-ms}.
+ *
+ * Counters live in {@code stripes} independently locked maps, each holding at
+ * most {@code max-keys / stripes} entries with the least recently used evicted
+ * first, so memory stays bounded however many addresses an attack uses.
+ *
+ * The IP key is off unless {@code ip-key.enabled} is set. Behind a proxy every
+ * client shares the proxy's address, so the IP is only meaningful once the
+ * proxy is listed in {@code server.tomcat.remoteip.internal-proxies} and the
+ * request address is taken from its X-Forwarded-For header.
+ */
+@Service
+public class LoginAttemptService {
+
+	private static final Logger logger = LoggerFactory.getLogger(LoginAttemptService.class);
+
+	private static final String EMAIL_PREFIX = "e:";
+	private static final String IP_PREFIX = "ip:";
+
+	@Value("${login.guard.max-failures-per-email:5}")
+	private int maxFailuresPerEmail;
+
+	@Value("${login.guard.ip-key.enabled:false}")
+	private boolean ipKeyEnabled;
+
+	@Value("${login.guard.max-failures-per-ip:50}")
+	private int maxFailuresPerIp;
+
+	@Value("${login.guard.window-ms:900000}")
+	private long windowMs;
+
+	@Value("${login.guard.backoff-base-ms:1000}")
+	private long backoffBaseMs;
+
+	@Value("${login.guard.backoff-max-ms:900000}")
+	private long backoffMaxMs;
+
+	@Value("${login.guard.max-keys:100000}")
+	private int maxKeys;
+
+	@Value("${login.guard.stripes:64}")
+	private int stripeCount;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private Stripe[] stripes;
+	private Counter emailRejectedCounter;
+	private Counter ipRejectedCounter;
+
+	private static class Attempts {
+		long windowStart;
+		int current;
+		int previous;
+		int consecutive;
+		long blockedUntil;
+
+		Attempts(long windowStart) {
+			this.windowStart = windowStart;
+		}
+	}
+
+	private static class Stripe {
+		final Map<String, Attempts> entries;
+
+		Stripe(int capacity) {
+			entries = new LinkedHashMap<>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Attempts> eldest) {
+					return size() > capacity;
+				}
+			};
+		}
+	}
+
+	@PostConstruct
+	public void init() {
+		int size = Integer.highestOneBit(Math.max(1, stripeCount));
+		stripes = new Stripe[size];
+		for (int i = 0; i < size; i++) {
+			stripes[i] = new Stripe(Math.max(1, maxKeys / size));
+		}
+		emailRejectedCounter = Counter.builder("login.guard.rejected").tag("key", "email").register(meterRegistry);
+		ipRejectedCounter = Counter.builder("login.guard.rejected").tag("key", "ip").register(meterRegistry);
+		Gauge.builder("login.guard.tracked.keys", this, LoginAttemptService::getTrackedKeys).register(meterRegistry);
+		logger.info(
+				"Login guard started with maxFailuresPerEmail={}, ipKeyEnabled={}, maxFailuresPerIp={}, windowMs={}, maxKeys={}",
+				maxFailuresPerEmail, ipKeyEnabled, maxFailuresPerIp, windowMs, maxKeys);
+	}
+
+	/**
+	 * Returns how long the caller has to wait before another attempt for this
+	 * email or IP is allowed, or 0 when it may go ahead.
+	 */
+	public long getRetryAfterMillis(String email, String clientIp) {
+		return getRetryAfterMillis(email, clientIp, System.currentTimeMillis());
+	}
+
+	public long getRetryAfterMillis(String email, String clientIp, long now) {
+		long emailWait = email == null ? 0 : blockedFor(emailKey(email), now);
+		if (emailWait > 0) {
+			emailRejectedCounter.increment();
+			return emailWait;
+		}
+		long ipWait = !ipKeyEnabled || clientIp == null ? 0 : blockedFor(IP_PREFIX + clientIp, now);
+		if (ipWait > 0) {
+			ipRejectedCounter.increment();
+		}
+		return ipWait;
+	}
+
+	public void recordFailure(String email, String clientIp) {
+		recordFailure(email, clientIp, System.currentTimeMillis());
+	}
+
+	public void recordFailure(String email, String clientIp, long now) {
+		if (email != null) {
+			fail(emailKey(email), maxFailuresPerEmail, now);
+		}
+		if (ipKeyEnabled && clientIp != null) {
+			fail(IP_PREFIX + clientIp, maxFailuresPerIp, now);
+		}
+	}
+
+	/**
+	 * Clears the email's failures. The IP keeps its count so that a valid login
+	 * mixed into a stuffing run does not reset it.
+	 */
+	public void recordSuccess(String email) {
+		if (email == null) {
+			return;
+		}
+		String key = emailKey(email);
+		Stripe stripe = stripeFor(key);
+		synchronized (stripe) {
+			stripe.entries.remove(key);
+		}
+	}
+
+	public int getTrackedKeys() {
+		int total = 0;
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				total += stripe.entries.size();
+			}
+		}
+		return total;
+	}
+
+	private long blockedFor(String key, long now) {
+		Stripe stripe = stripeFor(key);
+		synchronized (stripe) {
+			Attempts attempts = stripe.entries.get(key);
+			return attempts == null ? 0 : Math.max(0, attempts.blockedUntil - now);
+		}
+	}
+
+	private void fail(String key, int limit, long now) {
+		Stripe stripe = stripeFor(key);
+		synchronized (stripe) {
+			Attempts attempts = stripe.entries.computeIfAbsent(key, k -> new Attempts(now));
+			roll(attempts, now);
+			attempts.current++;
+			attempts.consecutive++;
+			if (estimate(attempts, now) >= limit) {
+				int doublings = Math.min(attempts.consecutive - limit, 30);
+				long backoff = Math.min(backoffBaseMs << Math.max(0, doublings), backoffMaxMs);
+				attempts.blockedUntil = now + backoff;
+			}
+		}
+	}
+
+	private void roll(Attempts attempts, long now) {
+		long elapsedWindows = (now - attempts.windowStart) / windowMs;
+		if (elapsedWindows > 0) {
+			attempts.previous = elapsedWindows == 1 ? attempts.current : 0;
+			attempts.current = 0;
+			attempts.windowStart += elapsedWindows * windowMs;
+			if (attempts.previous == 0) {
+				attempts.consecutive = 0;
+			}
+		}
+	}
+
+	/**
+	 * Failures over the last full window: the current window plus the share of
+	 * the previous one that still overlaps it.
+	 */
+	private double estimate(Attempts attempts, long now) {
+		double overlap = 1.0 - (double) (now - attempts.windowStart) / windowMs;
+		return attempts.previous * overlap + attempts.current;
+	}
+
+	private Stripe stripeFor(String key) {
+		int hash = key.hashCode();
+		return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+	}
+
+	/**
+	 * Accent and case variants reach the same row through the database
+	 * collation, so they share one counter.
+	 */
+	private static String emailKey(String email) {
+		return EMAIL_PREFIX + GeneralUtility.normalizeEmail(email.trim());
+	}
+}
@@ -0,0 +1,225 @@
+package voucher.management.app.auth.service.impl;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import voucher.management.app.auth.dto.AudienceQuery;
+import voucher.management.app.auth.dto.UserSummary;
+import voucher.management.app.auth.enums.RoleType;
+import voucher.management.app.auth.repository.UserRepository;
+import voucher.management.app.auth.utility.AudienceBitmapIndex;
+
+/**
+ * In-memory {@link AudienceBitmapIndex} of the preferences of every active,
+ * verified customer, so that audience queries are answered with bitmap
+ * operations instead of database scans. Until the first build has finished
+ * the index is not ready and callers fall back to the database.
+ *
+ * The index is built by streaming those users in username order, so matches
+ * come back in username order apart from users who joined since the last
+ * build, who follow them. {@link UserService} updates it after every write
+ * that changes a user's preferences or status, and {@link UserChangePoller},
+ * when cache coherence is enabled, reloads users changed on other instances.
+ * It is rebuilt from scratch every {@code rebuild-interval-ms}. Updates that
+ * arrive while a rebuild is reading the table are applied to both the old and
+ * the new index.
+ */
+@Component
+@ConditionalOnProperty(name = "user.audience.index.enabled", havingValue = "true")
+public class PreferenceAudienceIndex {
+
+	private static final Logger logger = LoggerFactory.getLogger(PreferenceAudienceIndex.class);
+
+	private static final int RELOAD_BATCH_SIZE = 500;
+
+	@Value("${user.audience.index.rebuild-interval-ms:3600000}")
+	private long rebuildIntervalMs;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	private final ReadWriteLock lock = new ReentrantReadWriteLock();
+	private AudienceBitmapIndex current;
+	private List<Consumer<AudienceBitmapIndex>> pending;
+	private ScheduledExecutorService scheduler;
+
+	public record Match(List<String> userIds, long total) {
+	}
+
+	@PostConstruct
+	public void start() {
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "audience-index");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::runRebuild, 0, rebuildIntervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		scheduler.shutdownNow();
+	}
+
+	public static boolean isAudienceMember(boolean isActive, boolean isVerified, RoleType role) {
+		return isActive && isVerified && role == RoleType.CUSTOMER;
+	}
+
+	public boolean isReady() {
+		lock.readLock().lock();
+		try {
+			return current != null;
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Returns up to {@code limit} matching user ids after skipping
+	 * {@code offset}, with the total number of matches, or null if the index
+	 * is not built yet.
+	 */
+	public Match match(AudienceQuery query, int offset, int limit) {
+		lock.readLock().lock();
+		try {
+			if (current == null) {
+				return null;
+			}
+			BitSet matches = current.match(query.all(), query.any(), query.none());
+			return new Match(current.userIds(matches, offset, limit), matches.cardinality());
+		} finally {
+			lock.readLock().unlock();
+		}
+	}
+
+	/**
+	 * Records the current state of a user: indexed with these preferences if
+	 * it is an audience member, removed otherwise.
+	 */
+	public void update(String userId, boolean member, String preferences) {
+		apply(index -> {
+			if (member) {
+				index.put(userId, preferences);
+			} else {
+				index.remove(userId);
+			}
+		});
+	}
+
+	/**
+	 * Reads the users again and updates them, removing those that no longer
+	 * exist.
+	 */
+	public void reload(Collection<String> userIds) {
+		List<String> remaining = new ArrayList<>(userIds);
+		for (int from = 0; from < remaining.size(); from += RELOAD_BATCH_SIZE) {
+			reloadBatch(remaining.subList(from, Math.min(from + RELOAD_BATCH_SIZE, remaining.size())));
+		}
+	}
+
+	private void reloadBatch(List<String> userIds) {
+		Map<String, UserSummary> users = new HashMap<>();
+		for (UserSummary user : userRepository.findSummariesByUserIds(userIds)) {
+			users.put(user.userId(), user);
+		}
+		for (String userId : userIds) {
+			UserSummary user = users.get(userId);
+			if (user == null) {
+				update(userId, false, null);
+			} else {
+				update(userId, isAudienceMember(user.active(), user.verified(), user.role()), user.preferences());
+			}
+		}
+	}
+
+	/**
+	 * Builds a new index from the user table and swaps it in.
+	 */
+	public void rebuild() {
+		lock.writeLock().lock();
+		try {
+			pending = new ArrayList<>();
+		} finally {
+			lock.writeLock().unlock();
+		}
+		try {
+			AudienceBitmapIndex next = new AudienceBitmapIndex();
+			TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+			transactionTemplate.setReadOnly(true);
+			transactionTemplate.executeWithoutResult(status -> {
+				try (Stream<UserSummary> users = userRepository.streamActiveUsersByRole(true, true,
+						RoleType.CUSTOMER)) {
+					for (UserSummary user : (Iterable<UserSummary>) users::iterator) {
+						next.put(user.userId(), user.preferences());
+					}
+				}
+			});
+			lock.writeLock().lock();
+			try {
+				// the scan may have read these users before they changed
+				for (Consumer<AudienceBitmapIndex> change : pending) {
+					change.accept(next);
+				}
+				current = next;
+			} finally {
+				lock.writeLock().unlock();
+			}
+			logger.info("Audience index rebuilt with {} users, {} preferences", next.getUserCount(),
+					next.getPreferenceCount());
+		} finally {
+			lock.writeLock().lock();
+			try {
+				pending = null;
+			} finally {
+				lock.writeLock().unlock();
+			}
+		}
+	}
+
+	private void apply(Consumer<AudienceBitmapIndex> change) {
+		lock.writeLock().lock();
+		try {
+			if (current != null) {
+				change.accept(current);
+			}
+			if (pending != null) {
+				pending.add(change);
+			}
+		} finally {
+			lock.writeLock().unlock();
+		}
+	}
+
+	private void runRebuild() {
+		try {
+			rebuild();
+		} catch (Exception e) {
+			logger.error("Audience index rebuild failed " + e.toString());
+		}
+	}
+}
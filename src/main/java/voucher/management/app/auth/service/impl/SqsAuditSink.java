@@ -0,0 +1,49 @@
+package voucher.management.app.auth.service.impl;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import voucher.management.app.auth.service.IAuditSink;
+
+/**
+ * Ships audit messages to SQS. Messages are appended to the spool when it is
+ * enabled so they survive SQS outages, and go to the in-memory batch queue
+ * when there is no spool or it is full.
+ */
+@Component
+@ConditionalOnProperty(name = "audit.sink", havingValue = "sqs", matchIfMissing = true)
+public class SqsAuditSink implements IAuditSink {
+
+	@Autowired
+	private AuditLogBatchPublisher auditLogBatchPublisher;
+
+	@Autowired(required = false)
+	private AuditLogSpool auditLogSpool;
+
+	@Override
+	public boolean send(byte[] message) {
+		if (auditLogSpool != null && auditLogSpool.append(message)) {
+			return true;
+		}
+		return auditLogBatchPublisher.publish(message);
+	}
+
+	@Override
+	public void flush() {
+		if (auditLogSpool != null) {
+			auditLogSpool.force();
+		}
+	}
+
+	@Override
+	public double getUtilisation() {
+		double utilisation = (double) auditLogBatchPublisher.getQueueDepth() / auditLogBatchPublisher.getQueueCapacity();
+		if (auditLogSpool != null) {
+			// One open segment is the normal state, so only the segments behind it count as backlog.
+			utilisation = Math.max(utilisation,
+					(double) (auditLogSpool.getBacklogSegments() - 1) / auditLogSpool.getMaxSegments());
+		}
+		return Math.min(1.0, utilisation);
+	}
+}
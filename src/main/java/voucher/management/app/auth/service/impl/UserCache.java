@@ -0,0 +1,201 @@
+package voucher.management.app.auth.service.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import voucher.management.app.auth.entity.User;
+import voucher.management.app.auth.utility.GeneralUtility;
+
+/**
+ * Local cache of user rows keyed by user id and by email. Entries expire
+ * {@code ttl-ms} after they were loaded, and each of the {@code stripes}
+ * independently locked maps evicts its least recently used entries beyond its
+ * share of {@code max-size}.
+ *
+ * Callers always get their own copy of a user, so changing it does not
+ * change the cached row. Every write in {@link UserService} calls
+ * {@link #invalidate(String, String)} once it has saved. A load that was
+ * already running when an invalidation happened does not store its result,
+ * so a stale row read just before a write cannot be cached after it.
+ *
+ * Lookups are counted under {@code cache.gets} with the {@code result} tag,
+ * the same names the Micrometer cache binders use.
+ */
+@Component
+public class UserCache {
+
+	private static final String CACHE_NAME = "users";
+	private static final String USER_ID_PREFIX = "id:";
+	private static final String EMAIL_PREFIX = "e:";
+
+	@Value("${user.cache.max-size:10000}")
+	private int maxSize;
+
+	@Value("${user.cache.ttl-ms:60000}")
+	private long ttlMs;
+
+	@Value("${user.cache.stripes:16}")
+	private int stripeCount;
+
+	@Autowired
+	private MeterRegistry meterRegistry;
+
+	private Stripe[] stripes;
+	private final AtomicLong invalidations = new AtomicLong();
+	private final AtomicLong evictionCount = new AtomicLong();
+	private Counter hitCounter;
+	private Counter missCounter;
+
+	private record Entry(User user, long expiresAt) {
+	}
+
+	private class Stripe {
+		final Map<String, Entry> entries;
+
+		Stripe(int capacity) {
+			entries = new LinkedHashMap<>(16, 0.75f, true) {
+				private static final long serialVersionUID = 1L;
+
+				@Override
+				protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+					if (size() > capacity) {
+						evictionCount.incrementAndGet();
+						return true;
+					}
+					return false;
+				}
+			};
+		}
+	}
+
+	@PostConstruct
+	public void init() {
+		int size = Integer.highestOneBit(Math.max(1, stripeCount));
+		stripes = new Stripe[size];
+		// every user is held under its id and its email
+		for (int i = 0; i < size; i++) {
+			stripes[i] = new Stripe(Math.max(1, maxSize * 2 / size));
+		}
+		hitCounter = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "hit")
+				.register(meterRegistry);
+		missCounter = Counter.builder("cache.gets").tag("cache", CACHE_NAME).tag("result", "miss")
+				.register(meterRegistry);
+		FunctionCounter.builder("cache.evictions", evictionCount, AtomicLong::get).tag("cache", CACHE_NAME)
+				.register(meterRegistry);
+		Gauge.builder("cache.size", this, UserCache::getSize).tag("cache", CACHE_NAME).register(meterRegistry);
+	}
+
+	public User getByUserId(String userId, Function<String, User> loader) {
+		return get(USER_ID_PREFIX + userId, userId, loader);
+	}
+
+	public User getByEmail(String email, Function<String, User> loader) {
+		return get(EMAIL_PREFIX + GeneralUtility.normalizeEmail(email), email, loader);
+	}
+
+	/**
+	 * Drops the user under both keys. Called after every write to the user.
+	 */
+	public void invalidate(String userId, String email) {
+		invalidations.incrementAndGet();
+		if (userId != null) {
+			remove(USER_ID_PREFIX + userId);
+		}
+		if (email != null) {
+			remove(EMAIL_PREFIX + GeneralUtility.normalizeEmail(email));
+		}
+	}
+
+	/**
+	 * Drops every entry, for when changes made elsewhere can no longer be
+	 * tracked.
+	 */
+	public void clear() {
+		invalidations.incrementAndGet();
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				stripe.entries.clear();
+			}
+		}
+	}
+
+	public int getSize() {
+		int total = 0;
+		for (Stripe stripe : stripes) {
+			synchronized (stripe) {
+				total += stripe.entries.size();
+			}
+		}
+		return total;
+	}
+
+	public double getHitRate() {
+		double hits = hitCounter.count();
+		double total = hits + missCounter.count();
+		return total == 0 ? 0 : hits / total;
+	}
+
+	private User get(String key, String lookup, Function<String, User> loader) {
+		long now = System.currentTimeMillis();
+		Stripe stripe = stripeFor(key);
+		synchronized (stripe) {
+			Entry entry = stripe.entries.get(key);
+			if (entry != null && entry.expiresAt() > now) {
+				hitCounter.increment();
+				return copy(entry.user());
+			}
+			if (entry != null) {
+				stripe.entries.remove(key);
+			}
+		}
+		missCounter.increment();
+
+		long invalidationsBefore = invalidations.get();
+		User user = loader.apply(lookup);
+		if (user != null) {
+			Entry entry = new Entry(copy(user), System.currentTimeMillis() + ttlMs);
+			put(USER_ID_PREFIX + user.getUserId(), entry, invalidationsBefore);
+			put(EMAIL_PREFIX + GeneralUtility.normalizeEmail(user.getEmail()), entry, invalidationsBefore);
+		}
+		return user;
+	}
+
+	private void put(String key, Entry entry, long invalidationsBefore) {
+		Stripe stripe = stripeFor(key);
+		synchronized (stripe) {
+			// checked under the stripe lock so it cannot pass just before an invalidate removes the key
+			if (invalidations.get() == invalidationsBefore) {
+				stripe.entries.put(key, entry);
+			}
+		}
+	}
+
+	private void remove(String key) {
+		Stripe stripe = stripeFor(key);
+		synchronized (stripe) {
+			stripe.entries.remove(key);
+		}
+	}
+
+	private Stripe stripeFor(String key) {
+		int hash = key.hashCode();
+		return stripes[(hash ^ (hash >>> 16)) & (stripes.length - 1)];
+	}
+
+	private static User copy(User user) {
+		return new User(user.getUserId(), user.getEmail(), user.getUsername(), user.getPassword(), user.getRole(),
+				user.getCreatedDate(), user.getUpdatedDate(), user.isActive(), user.getLastLoginDate(),
+				user.getVerificationCode(), user.isVerified(), user.getPreferences());
+	}
+}
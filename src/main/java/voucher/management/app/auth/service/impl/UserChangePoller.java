@@ -0,0 +1,149 @@
+package voucher.management.app.auth.service.impl;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import voucher.management.app.auth.entity.UserChangeLog;
+import voucher.management.app.auth.repository.UserChangeLogRepository;
+
+/**
+ * Keeps {@link UserCache} coherent across instances. Every
+ * {@code poll-interval-ms} it reads the user change log past the last change
+ * id it has seen and evicts those users, so a write on any instance is
+ * visible everywhere within about one poll interval. The same users are
+ * reloaded into {@link PreferenceAudienceIndex} when it is enabled.
+ *
+ * Change ids are handed out before commit, so a lower id can become visible
+ * after a higher one. To catch those, changes from the last {@code grace-ms}
+ * are read again on every poll. If polling keeps failing for longer than
+ * {@code max-staleness-ms} the cache is cleared on each attempt until it
+ * recovers. Entries older than {@code retention-ms} are purged once a minute.
+ */
+@Component
+@ConditionalOnProperty(name = "user.cache.coherence.enabled", havingValue = "true")
+public class UserChangePoller {
+
+	private static final Logger logger = LoggerFactory.getLogger(UserChangePoller.class);
+
+	private static final long PURGE_INTERVAL_MS = 60_000;
+
+	@Value("${user.cache.coherence.poll-interval-ms:1000}")
+	private long pollIntervalMs;
+
+	@Value("${user.cache.coherence.grace-ms:5000}")
+	private long graceMs;
+
+	@Value("${user.cache.coherence.batch-size:500}")
+	private int batchSize;
+
+	@Value("${user.cache.coherence.max-staleness-ms:10000}")
+	private long maxStalenessMs;
+
+	@Value("${user.cache.coherence.retention-ms:3600000}")
+	private long retentionMs;
+
+	@Autowired
+	private UserChangeLogRepository userChangeLogRepository;
+
+	@Autowired
+	private UserCache userCache;
+
+	@Autowired(required = false)
+	private PreferenceAudienceIndex preferenceAudienceIndex;
+
+	private ScheduledExecutorService scheduler;
+	private volatile long lastChangeId = -1;
+	private volatile long lastSuccessMillis = System.currentTimeMillis();
+	private long lastPurgeMillis;
+
+	@PostConstruct
+	public void start() {
+		scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "user-change-poller");
+			thread.setDaemon(true);
+			return thread;
+		});
+		scheduler.scheduleWithFixedDelay(this::runPoll, 0, pollIntervalMs, TimeUnit.MILLISECONDS);
+	}
+
+	@PreDestroy
+	public void stop() {
+		scheduler.shutdownNow();
+	}
+
+	/**
+	 * Evicts every user changed since the previous poll. Returns the number of
+	 * change log entries read.
+	 */
+	public int poll() {
+		LocalDateTime now = LocalDateTime.now();
+		if (lastChangeId < 0) {
+			// The cache starts empty, so only changes from here on matter.
+			Long latest = userChangeLogRepository.findLatestChangeId();
+			lastChangeId = latest == null ? 0 : latest;
+			return 0;
+		}
+
+		int read = 0;
+		Set<String> changedUserIds = new LinkedHashSet<>();
+		List<UserChangeLog> changes;
+		do {
+			changes = userChangeLogRepository.findChangesAfter(lastChangeId, PageRequest.of(0, batchSize));
+			for (UserChangeLog change : changes) {
+				userCache.invalidate(change.getUserId(), change.getEmail());
+				changedUserIds.add(change.getUserId());
+				lastChangeId = Math.max(lastChangeId, change.getChangeId());
+			}
+			read += changes.size();
+		} while (changes.size() == batchSize);
+
+		for (UserChangeLog change : userChangeLogRepository.findChangesSince(now.minus(Duration.ofMillis(graceMs)))) {
+			userCache.invalidate(change.getUserId(), change.getEmail());
+			changedUserIds.add(change.getUserId());
+		}
+		if (preferenceAudienceIndex != null) {
+			preferenceAudienceIndex.reload(changedUserIds);
+		}
+
+		if (System.currentTimeMillis() - lastPurgeMillis >= PURGE_INTERVAL_MS) {
+			lastPurgeMillis = System.currentTimeMillis();
+			int purged = userChangeLogRepository.deleteChangesBefore(now.minus(Duration.ofMillis(retentionMs)));
+			if (purged > 0) {
+				logger.info("Purged {} user change log entries", purged);
+			}
+		}
+		return read;
+	}
+
+	public long getLastChangeId() {
+		return lastChangeId;
+	}
+
+	private void runPoll() {
+		try {
+			poll();
+			lastSuccessMillis = System.currentTimeMillis();
+		} catch (Exception e) {
+			logger.error("User change poll failed " + e.toString());
+			if (System.currentTimeMillis() - lastSuccessMillis > maxStalenessMs) {
+				userCache.clear();
+			}
+		}
+	}
+}
@@ -0,0 +1,132 @@
+package voucher.management.app.auth.service.impl;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+
+/**
+ * Row counts for list endpoints, keyed by endpoint and filter, so that a
+ * page does not need its own {@code COUNT(*)}. The first request for a key
+ * counts inline. After that the cached value is returned, and once it is
+ * older than {@code count-ttl-ms} it is recounted on a background thread
+ * while callers keep getting the previous value.
+ *
+ * At most {@code count-max-keys} filters are kept, least recently used
+ * evicted first.
+ */
+@Component
+public class UserCountCache {
+
+	private static final Logger logger = LoggerFactory.getLogger(UserCountCache.class);
+
+	@Value("${user.list.count-ttl-ms:30000}")
+	private long ttlMs;
+
+	@Value("${user.list.count-max-keys:1000}")
+	private int maxKeys;
+
+	private Map<String, Entry> entries;
+	private ThreadPoolExecutor refresher;
+
+	private static class Entry {
+		volatile long count;
+		volatile long countedAt;
+		volatile boolean refreshing;
+
+		Entry(long count, long countedAt) {
+			this.count = count;
+			this.countedAt = countedAt;
+		}
+	}
+
+	@PostConstruct
+	public void init() {
+		int capacity = Math.max(1, maxKeys);
+		entries = new LinkedHashMap<>(16, 0.75f, true) {
+			private static final long serialVersionUID = 1L;
+
+			@Override
+			protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+				return size() > capacity;
+			}
+		};
+		refresher = new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(capacity),
+				runnable -> {
+					Thread thread = new Thread(runnable, "user-count-refresh");
+					thread.setDaemon(true);
+					return thread;
+				});
+	}
+
+	@PreDestroy
+	public void shutdown() {
+		refresher.shutdownNow();
+	}
+
+	/**
+	 * Returns the cached count for the key, counting inline only when there is
+	 * none yet.
+	 */
+	public long get(String key, LongSupplier counter) {
+		Entry entry;
+		synchronized (this) {
+			entry = entries.get(key);
+		}
+		if (entry == null) {
+			long count = counter.getAsLong();
+			put(key, count);
+			return count;
+		}
+		if (System.currentTimeMillis() - entry.countedAt > ttlMs && !entry.refreshing) {
+			refresh(key, entry, counter);
+		}
+		return entry.count;
+	}
+
+	/**
+	 * Records a count that is known to be exact, such as one worked out from
+	 * the last page of a list.
+	 */
+	public void put(String key, long count) {
+		synchronized (this) {
+			Entry entry = entries.get(key);
+			if (entry == null) {
+				entries.put(key, new Entry(count, System.currentTimeMillis()));
+			} else {
+				entry.count = count;
+				entry.countedAt = System.currentTimeMillis();
+			}
+		}
+	}
+
+	private void refresh(String key, Entry entry, LongSupplier counter) {
+		entry.refreshing = true;
+		try {
+			refresher.execute(() -> {
+				try {
+					entry.count = counter.getAsLong();
+					entry.countedAt = System.currentTimeMillis();
+				} catch (Exception e) {
+					logger.error("Count refresh failed for " + key + " " + e.toString());
+				} finally {
+					entry.refreshing = false;
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			// the stale count is still served and the next caller retries
+			entry.refreshing = false;
+		}
+	}
+}
@@ -0,0 +1,119 @@
+package voucher.management.app.auth.service.impl;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.Function;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+
+import voucher.management.app.auth.entity.User;
+import voucher.management.app.auth.utility.GeneralUtility;
+
+/**
+ * Users already looked up during the current HTTP request, keyed by user id
+ * and by email, so that validation, the service and the controller share one
+ * instance instead of each running the same query. The map lives in the
+ * request attributes and is dropped with the request. Outside a request every
+ * lookup goes straight to the loader.
+ *
+ * Entries remember whether they were read from the database in this request.
+ * Writes only reuse those, so a row that came from {@link UserCache} is read
+ * again before it is changed and saved.
+ */
+@Component
+public class UserIdentityMap {
+
+	private static final String ATTRIBUTE = UserIdentityMap.class.getName();
+	private static final String USER_ID_PREFIX = "id:";
+	private static final String EMAIL_PREFIX = "e:";
+
+	private record Entry(User user, boolean loaded) {
+	}
+
+	public User getByUserId(String userId, Function<String, User> loader) {
+		return get(USER_ID_PREFIX + userId, userId, loader, false);
+	}
+
+	public User getByEmail(String email, Function<String, User> loader) {
+		return get(EMAIL_PREFIX + GeneralUtility.normalizeEmail(email), email, loader, false);
+	}
+
+	/**
+	 * Returns the user only if it was read from the database earlier in this
+	 * request, otherwise calls the loader, which must read the database.
+	 */
+	public User getLoadedByUserId(String userId, Function<String, User> loader) {
+		return get(USER_ID_PREFIX + userId, userId, loader, true);
+	}
+
+	/**
+	 * Records a user just read from the database and returns it.
+	 */
+	public User loaded(User user) {
+		Map<String, Entry> entries = entries();
+		if (entries != null && user != null) {
+			put(entries, new Entry(user, true));
+		}
+		return user;
+	}
+
+	public void invalidate(String userId, String email) {
+		Map<String, Entry> entries = entries();
+		if (entries == null) {
+			return;
+		}
+		if (userId != null) {
+			entries.remove(USER_ID_PREFIX + userId);
+		}
+		if (email != null) {
+			entries.remove(EMAIL_PREFIX + GeneralUtility.normalizeEmail(email));
+		}
+	}
+
+	private User get(String key, String lookup, Function<String, User> loader, boolean mustBeLoaded) {
+		Map<String, Entry> entries = entries();
+		if (entries == null) {
+			return loader.apply(lookup);
+		}
+		Entry entry = entries.get(key);
+		if (entry != null && (entry.loaded() || !mustBeLoaded)) {
+			return entry.user();
+		}
+
+		User user = loader.apply(lookup);
+		// a loader that read the database has recorded the row itself through loaded(User)
+		entry = entries.get(key);
+		if (entry != null && entry.loaded()) {
+			return entry.user();
+		}
+		if (user != null) {
+			put(entries, new Entry(user, mustBeLoaded));
+		}
+		return user;
+	}
+
+	private static void put(Map<String, Entry> entries, Entry entry) {
+		User user = entry.user();
+		entries.put(USER_ID_PREFIX + user.getUserId(), entry);
+		if (user.getEmail() != null) {
+			entries.put(EMAIL_PREFIX + GeneralUtility.normalizeEmail(user.getEmail()), entry);
+		}
+	}
+
+	@SuppressWarnings("unchecked")
+	private static Map<String, Entry> entries() {
+		RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+		if (attributes == null) {
+			return null;
+		}
+		Map<String, Entry> entries = (Map<String, Entry>) attributes.getAttribute(ATTRIBUTE,
+				RequestAttributes.SCOPE_REQUEST);
+		if (entries == null) {
+			entries = new HashMap<>();
+			attributes.setAttribute(ATTRIBUTE, entries, RequestAttributes.SCOPE_REQUEST);
+		}
+		return entries;
+	}
+}
@@ -1,43 +1,71 @@
 package voucher.management.app.auth.service.impl;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.function.LongSupplier;
+import java.util.stream.Stream;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
-
-import com.amazonaws.services.simpleemail.AmazonSimpleEmailService;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import org.springframework.data.domain.Page;
 
-import voucher.management.app.auth.configuration.AWSConfig;
-import voucher.management.app.auth.configuration.VoucherManagementAuthenticationSecurityConfig;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import voucher.management.app.auth.dto.AudienceQuery;
+import voucher.management.app.auth.dto.UserCursorPage;
 import voucher.management.app.auth.dto.UserDTO;
+import voucher.management.app.auth.dto.UserListPage;
+import voucher.management.app.auth.dto.UserLoginView;
 import voucher.management.app.auth.dto.UserRequest;
+import voucher.management.app.auth.dto.UserSummary;
 import voucher.management.app.auth.entity.User;
+import voucher.management.app.auth.entity.UserChangeLog;
+import voucher.management.app.auth.entity.UserPreference;
 import voucher.management.app.auth.enums.RoleType;
 import voucher.management.app.auth.exception.UserNotFoundException;
+import voucher.management.app.auth.repository.UserChangeLogRepository;
+import voucher.management.app.auth.repository.UserPreferenceRepository;
 import voucher.management.app.auth.repository.UserRepository;
 import voucher.management.app.auth.service.IUserService;
-import voucher.management.app.auth.utility.AmazonSES;
 import voucher.management.app.auth.utility.DTOMapper;
 import voucher.management.app.auth.utility.EncryptionUtils;
+import voucher.management.app.auth.utility.GeneralUtility;
+import voucher.management.app.auth.utility.UserCursor;
 
 @Service
 public class UserService implements IUserService  {
 	
 	private static final Logger logger = LoggerFactory.getLogger(UserService.class);
 
+	private static final String COUNT_MODE_CACHED = "cached";
+	private static final String ACTIVE_USERS_COUNT_KEY = "active";
+	private static final String PREFERENCES_COUNT_KEY = "preferences:";
+	private static final int EXPORT_FLUSH_ROWS = 1000;
+
 	@Autowired
 	private UserRepository userRepository;
 	
@@ -48,27 +76,51 @@ public class UserService implements IUserService  {
 	private EncryptionUtils encryptionUtils;
 	
 	@Autowired
-	private AWSConfig awsConfig;
-	
+	private EmailService emailService;
+
+	@Autowired(required = false)
+	private EmailExistenceIndex emailExistenceIndex;
+
+	@Autowired
+	private UserCache userCache;
+
+	@Autowired
+	private UserChangeLogRepository userChangeLogRepository;
+
 	@Autowired
-	private VoucherManagementAuthenticationSecurityConfig securityConfig;
+	private UserPreferenceRepository userPreferenceRepository;
+
+	@Autowired
+	private UserIdentityMap userIdentityMap;
+
+	@Autowired(required = false)
+	private PreferenceAudienceIndex preferenceAudienceIndex;
+
+	@Autowired
+	private UserCountCache userCountCache;
+
+	@Value("${user.list.count-mode:exact}")
+	private String countMode;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@Autowired
+	private ObjectMapper objectMapper;
 
 	@Override
-	public Map<Long, List<UserDTO>> findActiveUsers(Pageable pageable) {
-		Map<Long, List<UserDTO>> result = new HashMap<>();
-		List<UserDTO> userDTOList = new ArrayList<>();
+	public UserListPage findActiveUsers(Pageable pageable) {
 		try {
-			Page<User> userPages = userRepository.findActiveUserList(true, true, pageable);
-			long totalRecord = userPages.getTotalElements();
-			if (totalRecord > 0) {
-				logger.info("Active user list is found.");
-				for (User user : userPages.getContent()) {
-					UserDTO userDTO = DTOMapper.toUserDTO(user);
-					userDTOList.add(userDTO);
+			if (!isCachedCountMode()) {
+				Page<UserSummary> userPages = userRepository.findActiveUserList(true, true, pageable);
+				if (userPages.getTotalElements() > 0) {
+					logger.info("Active user list is found.");
 				}
+				return new UserListPage(toUserDTOs(userPages.getContent()), userPages.getTotalElements(), true);
 			}
-			result.put(totalRecord, userDTOList);
-			return result;
+			Slice<UserSummary> userSlice = userRepository.findActiveUserSlice(true, true, pageable);
+			return toListPage(userSlice, pageable, ACTIVE_USERS_COUNT_KEY,
+					() -> userRepository.countActiveUsers(true, true));
 
 		} catch (Exception ex) {
 			logger.error("findByIsActiveTrue exception... {}", ex.toString());
@@ -77,6 +129,58 @@ public class UserService implements IUserService  {
 		}
 	}
 
+	/**
+	 * Returns up to {@code size} active users after the cursor, ordered by
+	 * username then user id. One extra row is read to tell whether there is a
+	 * next page, so no count query is needed.
+	 */
+	@Override
+	public UserCursorPage findActiveUsersAfter(String cursor, int size) {
+		UserCursor position = UserCursor.decode(cursor);
+		List<UserSummary> rows = userRepository.findActiveUserListAfter(true, true, position.username(),
+				position.userId(), PageRequest.of(0, size + 1));
+		boolean hasNext = rows.size() > size;
+		List<UserDTO> userDTOList = new ArrayList<>();
+		for (UserSummary user : hasNext ? rows.subList(0, size) : rows) {
+			userDTOList.add(DTOMapper.toUserDTO(user));
+		}
+		String nextCursor = null;
+		if (hasNext) {
+			UserSummary last = rows.get(size - 1);
+			nextCursor = new UserCursor(last.username(), last.userId()).encode();
+		}
+		return new UserCursorPage(userDTOList, nextCursor);
+	}
+
+	/**
+	 * Writes every active user to the stream as one JSON object per line, in
+	 * username order. Rows are read through a forward-only cursor in a
+	 * read-only transaction and written as they arrive, so memory use does not
+	 * depend on the number of users. Returns the number of users written.
+	 */
+	@Override
+	public long exportActiveUsers(OutputStream outputStream) {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+		return transactionTemplate.execute(status -> {
+			long written = 0;
+			try (Stream<UserSummary> users = userRepository.streamActiveUsers(true, true);
+					JsonGenerator generator = objectMapper.getFactory().createGenerator(outputStream)) {
+				generator.configure(JsonGenerator.Feature.AUTO_CLOSE_TARGET, false);
+				for (UserSummary user : (Iterable<UserSummary>) users::iterator) {
+					generator.writeObject(DTOMapper.toUserDTO(user));
+					generator.writeRaw('\n');
+					if (++written % EXPORT_FLUSH_ROWS == 0) {
+						generator.flush();
+					}
+				}
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+			return written;
+		});
+	}
+
 	@Override
 	public UserDTO createUser(UserRequest userReq) throws Exception {
 		try {
@@ -94,15 +198,26 @@ public class UserService implements IUserService  {
 			String preferences = formatPreferencesString(userReq.getPreferences());
 			user.setPreferences(preferences);
 			logger.info("Create User...");
-			User createdUser = userRepository.save(user);
+			TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+			User createdUser = transactionTemplate.execute(status -> {
+				User savedUser = userRepository.save(user);
+				if (savedUser != null) {
+					savePreferenceIndex(savedUser.getUserId(), savedUser.getPreferences());
+				}
+				return savedUser;
+			});
 
 			if (createdUser == null) {
 				throw new Exception("User registration is not successful");
 			}
 			logger.info("User registration is successful.");
+			if (emailExistenceIndex != null) {
+				emailExistenceIndex.put(createdUser.getEmail());
+			}
+			onAudienceChanged(createdUser);
 			String verificationCode = encryptionUtils.encrypt(createdUser.getVerificationCode());
 			logger.info("verification code" + verificationCode);
-			sendVerificationEmail(createdUser);
+			emailService.sendVerificationEmail(createdUser);
 
 			UserDTO userDTO = DTOMapper.toUserDTO(createdUser);
 			return userDTO;
@@ -118,36 +233,117 @@ public class UserService implements IUserService  {
 	
 	@Override
 	public User findByEmail(String email) {
-
-		return userRepository.findByEmail(email);
+		if (isKnownAbsent(email)) {
+			return null;
+		}
+		return userIdentityMap.getByEmail(email,
+				key -> userCache.getByEmail(key, lookup -> userIdentityMap.loaded(userRepository.findByEmail(lookup))));
 	}
 	
 	
 	@Override
 	public User findByUserId(String userId) {
 
-		return userRepository.findByUserId(userId);
+		return userIdentityMap.getByUserId(userId, id -> userCache.getByUserId(id, this::loadUserById));
+	}
+
+	/**
+	 * Reads the user from the database, or reuses the row already read in this
+	 * request. Writes start from here so no stale cached field is saved back.
+	 */
+	private User loadUserById(String userId) {
+		return userIdentityMap.getLoadedByUserId(userId, userRepository::findByUserId);
+	}
+
+
+	@Override
+	public UserLoginView findLoginViewByEmail(String email) {
+		if (isKnownAbsent(email)) {
+			return null;
+		}
+		return userRepository.findLoginViewByEmail(email);
+	}
+
+	/**
+	 * Logs the change for other instances to pick up and evicts the user from
+	 * this instance's cache, again after commit when inside a transaction.
+	 */
+	private void onUserChanged(String userId, String email) {
+		userChangeLogRepository.save(new UserChangeLog(userId, email, LocalDateTime.now()));
+		userIdentityMap.invalidate(userId, email);
+		userCache.invalidate(userId, email);
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					userCache.invalidate(userId, email);
+				}
+			});
+		}
 	}
 
+	/**
+	 * Updates the audience index with the user's new preferences and status,
+	 * after commit when inside a transaction.
+	 */
+	private void onAudienceChanged(User user) {
+		if (preferenceAudienceIndex == null) {
+			return;
+		}
+		String userId = user.getUserId();
+		boolean member = PreferenceAudienceIndex.isAudienceMember(user.isActive(), user.isVerified(), user.getRole());
+		String preferences = user.getPreferences();
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+				@Override
+				public void afterCommit() {
+					preferenceAudienceIndex.update(userId, member, preferences);
+				}
+			});
+		} else {
+			preferenceAudienceIndex.update(userId, member, preferences);
+		}
+	}
+
+	private boolean isKnownAbsent(String email) {
+		return emailExistenceIndex != null && !emailExistenceIndex.mightContain(email);
+	}
 
+	/**
+	 * Checks the password against a login view that has already passed the
+	 * account status checks, so a login needs no second read of the user.
+	 */
 	@Override
-	public UserDTO loginUser(String email, String password) {
+	public UserDTO loginUser(UserLoginView loginView, String password) {
+		if (loginView != null && loginView.isActive() && loginView.isVerified()
+				&& passwordEncoder.matches(password, loginView.getPassword())) {
+			logger.info("User login is successful.");
+			upgradePasswordHash(loginView.getUserId(), loginView.getEmail(), password, loginView.getPassword());
+			return DTOMapper.toUserDTO(loginView);
+		}
+		logger.error("User login is not successful.");
+		throw new UserNotFoundException("Invalid Credentials");
+	}
+
+	/**
+	 * Re-hashes a password whose stored hash uses an older algorithm or a lower
+	 * cost than configured. Only possible at login, while the raw password is at
+	 * hand. A failure here keeps the old hash and does not fail the login.
+	 */
+	private void upgradePasswordHash(String userId, String email, String password, String encodedPassword) {
 		try {
-			User user = userRepository.findByEmailAndStatus(email, true, true);
-			if (user != null && passwordEncoder.matches(password, user.getPassword())) {
-				logger.info("User login is successful.");
-				return DTOMapper.toUserDTO(user);
+			if (passwordEncoder.upgradeEncoding(encodedPassword)) {
+				userRepository.updatePassword(userId, passwordEncoder.encode(password));
+				onUserChanged(userId, email);
+				logger.info("Password hash is upgraded.");
 			}
-			logger.error("User login is not successful.");
-			throw new UserNotFoundException("Invalid Credentials");
 		} catch (Exception e) {
-			logger.error("Error occurred while validateUserLogin, " + e.toString());
-			e.printStackTrace();
-			throw e;
+			logger.warn("Password hash upgrade failed, keeping the existing hash. " + e.toString());
 		}
 	}
 
 	@Override
+	@Transactional(rollbackFor = Exception.class)
 	public UserDTO verifyUser(String verificationCode) throws Exception {
 		String decodedVerificationCode = encryptionUtils.decrypt(verificationCode);
 		User user = userRepository.findByVerificationCode(decodedVerificationCode, false, true);
@@ -158,6 +354,8 @@ public class UserService implements IUserService  {
 		user.setVerified(true);
 		user.setUpdatedDate(LocalDateTime.now());
 		User verifiedUser = userRepository.save(user);
+		onUserChanged(user.getUserId(), user.getEmail());
+		onAudienceChanged(user);
 		UserDTO userDTO = DTOMapper.toUserDTO(verifiedUser);
 		
 		if (userDTO == null) {
@@ -175,15 +373,19 @@ public class UserService implements IUserService  {
 	}
 	
 	public User findByUserIdAndStatus(String userId, boolean isActive, boolean isVerified) {
-
-		return userRepository.findByUserIdAndStatus(userId, isActive, isVerified);
+		User user = findByUserId(userId);
+		if (user == null || user.isActive() != isActive || user.isVerified() != isVerified) {
+			return null;
+		}
+		return user;
 	}
 	
 	@Override
+	@Transactional(rollbackFor = Exception.class)
 	public UserDTO update(UserRequest userRequest) {
 		try {
 		
-			User dbUser = findByUserId(userRequest.getUserId());
+			User dbUser = loadUserById(userRequest.getUserId());
 			if (dbUser == null) {
 				throw new UserNotFoundException("User not found.");
 			}
@@ -195,6 +397,9 @@ public class UserService implements IUserService  {
 			dbUser.setPreferences(preferences);
 			logger.info("Update User...");
 			User updateUser = userRepository.save(dbUser);
+			replacePreferenceIndex(dbUser.getUserId(), preferences);
+			onUserChanged(dbUser.getUserId(), dbUser.getEmail());
+			onAudienceChanged(dbUser);
 			logger.info("User update is successful");
 			UserDTO updateUserDTO = DTOMapper.toUserDTO(updateUser);
 			return updateUserDTO;
@@ -206,6 +411,25 @@ public class UserService implements IUserService  {
 
 	}
 	
+	/**
+	 * Replaces the user's rows in user_preference, the indexed copy of the
+	 * preferences column that preference search reads.
+	 */
+	private void replacePreferenceIndex(String userId, String preferences) {
+		userPreferenceRepository.deleteByUserId(userId);
+		savePreferenceIndex(userId, preferences);
+	}
+
+	private void savePreferenceIndex(String userId, String preferences) {
+		List<UserPreference> rows = new ArrayList<>();
+		for (String preference : GeneralUtility.parsePreferences(preferences)) {
+			rows.add(new UserPreference(preference, userId));
+		}
+		if (!rows.isEmpty()) {
+			userPreferenceRepository.saveAll(rows);
+		}
+	}
+
 	private String formatPreferencesString(List<String> preferencesList) {
 		String preferences = preferencesList == null ? "" : String.join(",", preferencesList);
 		String removedWhiteSpacePreferences = preferences.replaceAll("\\s*,\\s*", ",");
@@ -225,71 +449,120 @@ public class UserService implements IUserService  {
 //	}
 	
 
-	public void sendVerificationEmail(User user) {
-
+	@Override
+	public UserListPage findUsersByPreferences(String preferences, Pageable pageable) {
 		try {
+			if (preferenceAudienceIndex != null && preferenceAudienceIndex.isReady()) {
+				return findAudience(new AudienceQuery(List.of(preferences), null, null), pageable);
+			}
+			String preference = GeneralUtility.normalizePreference(preferences);
+			if (!isCachedCountMode()) {
+				Page<UserSummary> userPages = userRepository.findByPreferences(preference, true, true, RoleType.CUSTOMER, pageable);
+				if (userPages.getTotalElements() > 0) {
+					logger.info("Active User list by preferences is found");
+				} else {
+					logger.error("User not found...");
+				}
+				return new UserListPage(toUserDTOs(userPages.getContent()), userPages.getTotalElements(), true);
+			}
+			Slice<UserSummary> userSlice = userRepository.findSliceByPreferences(preference, true, true, RoleType.CUSTOMER, pageable);
+			return toListPage(userSlice, pageable, PREFERENCES_COUNT_KEY + preference,
+					() -> userRepository.countByPreferences(preference, true, true, RoleType.CUSTOMER));
 
-			AmazonSimpleEmailService client = awsConfig.sesClient();
-			String from = awsConfig.getEmailFrom().trim();
-			String clientURL = securityConfig.getFrontEndUrl().trim();
-
-			String to = user.getEmail();
-
-			String verificationCode = encryptionUtils.encrypt(user.getVerificationCode());
-			logger.info(" Verification Code "+ verificationCode);
-
-			String verifyURL = clientURL + "/verification/" + verificationCode.trim();
-			logger.info("verifyURL... {}", verifyURL);
-
-			String subject = "Please verify your registration";
-			String body = "Dear [[name]],<br><br>" + "Thank you for choosing our service.<br>"
-					+ "To complete your registration, please click the link below to verify :<br>"
-					+ "<h3><a href=\"[[URL]]\" target=\"_self\">VERIFY</a></h3>" + "Thank you" + "<br><br>"
-					+ "<i>(This is an auto-generated email, please do not reply)</i>";
-
-			body = body.replace("[[name]]", user.getUsername());
-
-			body = body.replace("[[URL]]", verifyURL);
+		} catch (Exception ex) {
+			logger.error("findByIsActiveTrue exception... {}", ex.toString());
+			throw ex;
 
-			AmazonSES.sendEmail(client, from, Arrays.asList(to), subject, body);
-		} catch (Exception e) {
-			logger.error("Error occurred while sendVerificationEmail, " + e.toString());
-			e.printStackTrace();
 		}
 	}
 
+	/**
+	 * Answers the query from the audience index, then reads the page of users
+	 * by primary key. Ordered by username as of the last index build. Users
+	 * that no longer match are left out of the page and corrected in the
+	 * index, and the total is then reported as approximate.
+	 */
 	@Override
-	public Map<Long, List<UserDTO>> findUsersByPreferences(String preferences, Pageable pageable) {
-		Map<Long, List<UserDTO>> result = new HashMap<>();
-		try {
-			Page<User> userPages = userRepository.findByPreferences(preferences, true, true, RoleType.CUSTOMER, pageable);
-			long totalRecord = userPages.getTotalElements();
-			List<UserDTO> userDTOList = new ArrayList<>();
-			if (totalRecord > 0) {
-				logger.info("Active User list by preferences is found");
-				for (User user : userPages.getContent()) {
-					UserDTO userDTO = DTOMapper.toUserDTO(user);
-					userDTOList.add(userDTO);
-				}
-
+	public UserListPage findAudience(AudienceQuery query, Pageable pageable) {
+		PreferenceAudienceIndex.Match match = preferenceAudienceIndex == null ? null
+				: preferenceAudienceIndex.match(query, (int) pageable.getOffset(), pageable.getPageSize());
+		if (match == null) {
+			throw new IllegalStateException("Audience index is not ready.");
+		}
+		if (match.userIds().isEmpty()) {
+			return new UserListPage(new ArrayList<>(), match.total(), true);
+		}
+		Map<String, UserSummary> users = new HashMap<>();
+		for (UserSummary user : userRepository.findSummariesByUserIds(match.userIds())) {
+			users.put(user.userId(), user);
+		}
+		List<UserDTO> userDTOList = new ArrayList<>();
+		int stale = 0;
+		for (String userId : match.userIds()) {
+			UserSummary user = users.get(userId);
+			if (user == null) {
+				preferenceAudienceIndex.update(userId, false, null);
+				stale++;
+				continue;
+			}
+			boolean member = PreferenceAudienceIndex.isAudienceMember(user.active(), user.verified(), user.role());
+			if (member && matchesAudience(query, user.preferences())) {
+				userDTOList.add(DTOMapper.toUserDTO(user));
 			} else {
-				logger.error("User not found...");
+				// the index had not caught up with a change made on another instance
+				preferenceAudienceIndex.update(userId, member, user.preferences());
+				stale++;
 			}
-			result.put(totalRecord, userDTOList);
-			return result;
+		}
+		if (stale > 0) {
+			logger.info("Corrected {} stale audience index entries", stale);
+			return new UserListPage(userDTOList, match.total() - stale, false);
+		}
+		return new UserListPage(userDTOList, match.total(), true);
+	}
 
-		} catch (Exception ex) {
-			logger.error("findByIsActiveTrue exception... {}", ex.toString());
-			throw ex;
+	private static boolean matchesAudience(AudienceQuery query, String preferences) {
+		Set<String> parsed = GeneralUtility.parsePreferences(preferences);
+		return query.all().stream().map(GeneralUtility::normalizePreference).allMatch(parsed::contains)
+				&& (query.any().isEmpty()
+						|| query.any().stream().map(GeneralUtility::normalizePreference).anyMatch(parsed::contains))
+				&& query.none().stream().map(GeneralUtility::normalizePreference).noneMatch(parsed::contains);
+	}
 
+	private boolean isCachedCountMode() {
+		return COUNT_MODE_CACHED.equalsIgnoreCase(countMode);
+	}
+
+	/**
+	 * A last page gives the exact total for free, which also refreshes the
+	 * cached count. Any other page reports the cached count as approximate.
+	 */
+	private UserListPage toListPage(Slice<UserSummary> userSlice, Pageable pageable, String countKey,
+			LongSupplier counter) {
+		List<UserDTO> userDTOList = toUserDTOs(userSlice.getContent());
+		if (!userSlice.hasNext() && (userSlice.hasContent() || pageable.getOffset() == 0)) {
+			long total = pageable.getOffset() + userSlice.getNumberOfElements();
+			userCountCache.put(countKey, total);
+			return new UserListPage(userDTOList, total, true);
+		}
+		return new UserListPage(userDTOList, userCountCache.get(countKey, counter), false);
+	}
+
+	private static List<UserDTO> toUserDTOs(List<UserSummary> users) {
+		List<UserDTO> userDTOList = new ArrayList<>();
+		for (UserSummary user : users) {
+			userDTOList.add(DTOMapper.toUserDTO(user));
 		}
+		return userDTOList;
 	}
 
 	@Override
+	@Transactional(rollbackFor = Exception.class)
 	public UserDTO resetPassword(String userId, String password) {
 		try {
-			User dbUser = findByUserIdAndStatus(userId, true, true);
-			if (dbUser == null) {
+			User dbUser = userIdentityMap.getLoadedByUserId(userId,
+					id -> userRepository.findByUserIdAndStatus(id, true, true));
+			if (dbUser == null || !dbUser.isActive() || !dbUser.isVerified()) {
 				logger.error("Reset Password failed.");
 				throw new UserNotFoundException(
 						"Reset Password failed: Unable to find the user with this user Id :" + userId);
@@ -297,6 +570,7 @@ public class UserService implements IUserService  {
 
 			dbUser.setPassword(passwordEncoder.encode(password));
 			User updatedUser = userRepository.save(dbUser);
+			onUserChanged(dbUser.getUserId(), dbUser.getEmail());
 			logger.info("Reset Password is successful.");
 			UserDTO updateUserDTO = DTOMapper.toUserDTO(updatedUser);
 			return updateUserDTO;
@@ -327,9 +601,10 @@ public class UserService implements IUserService  {
 	}
 
 	@Override
+	@Transactional(rollbackFor = Exception.class)
 	public UserDTO deletePreferencesByUser(String userId, List<String> preferences) throws Exception {
 		try {
-			User dbUser = findByUserId(userId);
+			User dbUser = loadUserById(userId);
 			if (dbUser == null) {
 			    logger.error("user by this deleted preference is not found.");
 				throw new UserNotFoundException("User not found.");
@@ -355,6 +630,9 @@ public class UserService implements IUserService  {
 			    dbUser.setUpdatedDate(LocalDateTime.now());
 			    logger.info("preference deletion ...");
 				User updateUser = userRepository.save(dbUser);
+				replacePreferenceIndex(dbUser.getUserId(), dbUser.getPreferences());
+				onUserChanged(dbUser.getUserId(), dbUser.getEmail());
+				onAudienceChanged(dbUser);
 				logger.info("preference deletion is successful");
 				UserDTO updateUserDTO = DTOMapper.toUserDTO(updateUser);
 				return updateUserDTO;
@@ -368,9 +646,10 @@ public class UserService implements IUserService  {
 	}
 	
 	@Override
+	@Transactional(rollbackFor = Exception.class)
 	public UserDTO updatePreferencesByUser(String userId, List<String> preferences) throws Exception {
 		try {
-			User dbUser = findByUserId(userId);
+			User dbUser = loadUserById(userId);
 			if (dbUser == null) {
 				logger.error("user by this updated preference is not found.");
 				throw new UserNotFoundException("User not found.");
@@ -382,6 +661,9 @@ public class UserService implements IUserService  {
 			dbUser.setUpdatedDate(LocalDateTime.now());
 
 			User updateUser = userRepository.save(dbUser);
+			replacePreferenceIndex(dbUser.getUserId(), dbUser.getPreferences());
+			onUserChanged(dbUser.getUserId(), dbUser.getEmail());
+			onAudienceChanged(dbUser);
 			logger.info("preference update is successful");
 			UserDTO updateUserDTO = DTOMapper.toUserDTO(updateUser);
 			logger.info("Update Preferences size "+updateUserDTO.getPreferences().size());
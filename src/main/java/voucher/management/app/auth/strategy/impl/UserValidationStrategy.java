@@ -5,6 +5,7 @@ import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
 import org.springframework.util.StringUtils;
 
+import voucher.management.app.auth.dto.UserLoginView;
 import voucher.management.app.auth.dto.UserRequest;
 import voucher.management.app.auth.dto.ValidationResult;
 import voucher.management.app.auth.entity.User;
@@ -73,6 +74,29 @@ public class UserValidationStrategy implements IAPIHelperValidationStrategy<User
 		return validateValidUser(userId, userName);
 	}
 
+	/**
+	 * Same checks as {@link #validateObject(String)}, on a login view that was
+	 * already loaded for the password check.
+	 */
+	public ValidationResult validateLogin(UserLoginView loginView) {
+		if (loginView == null) {
+			return validateUserNotFound(auditLogInvalidUserId, auditLogInvalidUserName);
+		}
+
+		String userId = loginView.getUserId();
+		String userName = loginView.getUsername();
+
+		if (!loginView.isActive()) {
+			return validateDeletedUser(userId, userName);
+		}
+
+		if (!loginView.isVerified()) {
+			return validateUnVerifiedUser(userId, userName);
+		}
+
+		return validateValidUser(userId, userName);
+	}
+
 	@Override
 	public ValidationResult validateUpdating(String userId) {
 		ValidationResult validationResult = new ValidationResult();
@@ -0,0 +1,138 @@
+package voucher.management.app.auth.utility;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Inverted index from preferences to the users who have them. Each user gets
+ * a dense ordinal and each distinct normalized preference an int code, and
+ * every code maps to a bitmap of ordinals, so audience queries are plain
+ * {@link BitSet} operations costing one bit per user per preference.
+ *
+ * Ordinals are handed out in insertion order and kept when a user is removed,
+ * so iteration follows insertion order with gaps. Rebuilding the index from
+ * scratch compacts them. Not thread-safe.
+ */
+public final class AudienceBitmapIndex {
+
+	private static final int[] NO_CODES = new int[0];
+
+	private final Map<String, Integer> ordinals = new HashMap<>();
+	private final List<String> userIds = new ArrayList<>();
+	private final List<int[]> userCodes = new ArrayList<>();
+	private final Map<String, Integer> codes = new HashMap<>();
+	private final List<BitSet> bitmaps = new ArrayList<>();
+	private final BitSet members = new BitSet();
+
+	/**
+	 * Adds the user, or replaces all of its preferences if already present.
+	 */
+	public void put(String userId, String preferences) {
+		int ordinal = ordinals.computeIfAbsent(userId, id -> {
+			userIds.add(id);
+			userCodes.add(NO_CODES);
+			return userIds.size() - 1;
+		});
+		clearCodes(ordinal);
+		members.set(ordinal);
+
+		List<String> parsed = new ArrayList<>(GeneralUtility.parsePreferences(preferences));
+		int[] assigned = new int[parsed.size()];
+		for (int i = 0; i < assigned.length; i++) {
+			int code = codes.computeIfAbsent(parsed.get(i), preference -> {
+				bitmaps.add(new BitSet());
+				return bitmaps.size() - 1;
+			});
+			bitmaps.get(code).set(ordinal);
+			assigned[i] = code;
+		}
+		userCodes.set(ordinal, assigned);
+	}
+
+	public void remove(String userId) {
+		Integer ordinal = ordinals.get(userId);
+		if (ordinal == null) {
+			return;
+		}
+		clearCodes(ordinal);
+		members.clear(ordinal);
+	}
+
+	/**
+	 * Returns the ordinals of the users that have every preference in
+	 * {@code all}, at least one in {@code any} unless it is empty, and none in
+	 * {@code none}. Preferences are normalized before lookup.
+	 */
+	public BitSet match(Collection<String> all, Collection<String> any, Collection<String> none) {
+		BitSet result = (BitSet) members.clone();
+		for (String preference : all) {
+			BitSet bitmap = bitmapFor(preference);
+			if (bitmap == null) {
+				return new BitSet();
+			}
+			result.and(bitmap);
+		}
+		if (!any.isEmpty()) {
+			BitSet union = new BitSet();
+			for (String preference : any) {
+				BitSet bitmap = bitmapFor(preference);
+				if (bitmap != null) {
+					union.or(bitmap);
+				}
+			}
+			result.and(union);
+		}
+		for (String preference : none) {
+			BitSet bitmap = bitmapFor(preference);
+			if (bitmap != null) {
+				result.andNot(bitmap);
+			}
+		}
+		return result;
+	}
+
+	/**
+	 * Returns the user ids of up to {@code limit} matches after skipping
+	 * {@code offset}, in ordinal order.
+	 */
+	public List<String> userIds(BitSet matches, int offset, int limit) {
+		List<String> page = new ArrayList<>(Math.min(limit, matches.cardinality()));
+		int skipped = 0;
+		for (int ordinal = matches.nextSetBit(0); ordinal >= 0 && page.size() < limit; ordinal = matches
+				.nextSetBit(ordinal + 1)) {
+			if (skipped++ >= offset) {
+				page.add(userIds.get(ordinal));
+			}
+		}
+		return page;
+	}
+
+	public boolean contains(String userId) {
+		Integer ordinal = ordinals.get(userId);
+		return ordinal != null && members.get(ordinal);
+	}
+
+	public int getUserCount() {
+		return members.cardinality();
+	}
+
+	public int getPreferenceCount() {
+		return codes.size();
+	}
+
+	private BitSet bitmapFor(String preference) {
+		Integer code = codes.get(GeneralUtility.normalizePreference(preference));
+		return code == null ? null : bitmaps.get(code);
+	}
+
+	private void clearCodes(int ordinal) {
+		for (int code : userCodes.get(ordinal)) {
+			bitmaps.get(code).clear(ordinal);
+		}
+		userCodes.set(ordinal, NO_CODES);
+	}
+}
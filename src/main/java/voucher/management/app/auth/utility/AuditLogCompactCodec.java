@@ -0,0 +1,244 @@
+package voucher.management.app.auth.utility;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import voucher.management.app.auth.dto.AuditLogRequest;
+import voucher.management.app.auth.enums.AuditLogInvalidUser;
+import voucher.management.app.auth.enums.AuditLogResponseStatus;
+
+/**
+ * Compact binary encoding of {@link AuditLogRequest}.
+ *
+ * A message starts with {@link #MAGIC} and the format version, followed by the
+ * fields in a fixed order. Each string is written either as a code into
+ * {@link #DICTIONARY}, as a dictionary prefix plus the remaining text, or as a
+ * length-prefixed UTF-8 literal. Numbers and timestamps are varints. The
+ * dictionary is append-only: codes must never be reused or reordered, and new
+ * entries require a new version.
+ */
+public final class AuditLogCompactCodec {
+
+	public static final byte MAGIC = (byte) 0xA1;
+	public static final byte VERSION = 1;
+
+	/** Value of the {@code AuditEncoding} message attribute for this format. */
+	public static final String ENCODING = "compact-v1";
+
+	/**
+	 * Largest encoded message. SQS carries it as Base64, which needs four chars
+	 * per three bytes, and the encoding attribute counts towards the limit too.
+	 */
+	public static final int MAX_ENCODED_BYTES = (AuditLogSerializer.MAX_MESSAGE_BYTES - 64) / 4 * 3;
+
+	private static final int TAG_NULL = 0;
+	private static final int TAG_LITERAL = 1;
+	private static final int TAG_CODE = 2;
+	private static final int TAG_PREFIX = 3;
+
+	private static final String TRUNCATION_SUFFIX = "...";
+
+	static final List<String> DICTIONARY;
+	private static final Map<String, Integer> CODES = new HashMap<>();
+	private static final List<Integer> PREFIX_CODES = new ArrayList<>();
+
+	static {
+		List<String> dictionary = new ArrayList<>();
+		for (AuditLogResponseStatus status : AuditLogResponseStatus.values()) {
+			dictionary.add(status.toString());
+		}
+		for (AuditLogInvalidUser invalidUser : AuditLogInvalidUser.values()) {
+			dictionary.add(invalidUser.toString());
+		}
+		dictionary.addAll(Arrays.asList("GET", "POST", "PUT", "PATCH", "DELETE"));
+		dictionary.addAll(Arrays.asList("Authentication-RetrieveAllActiveUsers", "Authentication-CreateUser",
+				"Authentication-LoginUser", "Authentication-VerifyUser", "Authentication-ResetPassword",
+				"Authentication-UpdateUser", "Authentication-RetrieveActiveUserByUserId",
+				"Authentication-RetrieveActiveUserListByPreference", "Authentication-DeleteUserPreferenceByUserId",
+				"Authentication-UpdateUserPreferenceByUserId", "Authentication-Logout"));
+		dictionary.addAll(Arrays.asList("api/users", "api/users/login", "/api/users/logout",
+				"An error occurred while processing your request. Please try again later.",
+				"Successfully get all active verified user.", "No Active User List.",
+				"Successfully get all active users by this preference.", "No user list by this preference.",
+				"User successfully verified.", "Reset Password is completed.", "User updated successfully.",
+				"Preferences are deleted successfully.", "Preferences are updated successfully.",
+				"User logout successfully", "User not found", ""));
+		// Entries from here on are also matched as prefixes.
+		int firstPrefix = dictionary.size();
+		dictionary.addAll(Arrays.asList("api/users/verify/", "api/users/preferences/", "api/users/",
+				"Retreving active user list is failed due to ", "User registration is failed due to ",
+				"User failed to login due to ", "User verification is failed due to ",
+				"Reset password is failed due to ", "Update User failed due to ",
+				"Retrieving active user by id failed due to ",
+				"Retreving active user list by preference name is failed due to ",
+				"Delete user preference by preference is failed due to ",
+				"Update user preference by preference is failed due to ", "Logging out user is failed due to "));
+		DICTIONARY = Collections.unmodifiableList(dictionary);
+		for (int code = 0; code < DICTIONARY.size(); code++) {
+			CODES.put(DICTIONARY.get(code), code);
+			if (code >= firstPrefix) {
+				PREFIX_CODES.add(code);
+			}
+		}
+	}
+
+	private AuditLogCompactCodec() {
+	}
+
+	public static boolean isCompact(byte[] message) {
+		return message.length > 1 && message[0] == MAGIC;
+	}
+
+	/**
+	 * Encodes the request, cutting the remarks on a character boundary so the
+	 * result is at most {@code maxBytes} long.
+	 */
+	public static byte[] encode(AuditLogRequest request, int maxBytes) {
+		ByteArrayOutputStream out = new ByteArrayOutputStream(256);
+		out.write(MAGIC);
+		out.write(VERSION);
+		writeString(out, request.getStatusCode());
+		writeString(out, request.getUserId());
+		writeString(out, request.getUsername());
+		writeString(out, request.getActivityType());
+		writeString(out, request.getActivityDescription());
+		writeString(out, request.getRequestActionEndpoint());
+		writeString(out, request.getResponseStatus());
+		writeString(out, request.getRequestType());
+		writeVarLong(out, request.getCount() == null ? 0 : request.getCount());
+		writeVarLong(out, toEpochMilli(request.getFirstOccurredAt()));
+		writeVarLong(out, toEpochMilli(request.getLastOccurredAt()));
+
+		String remarks = request.getRemarks();
+		if (remarks == null) {
+			out.write(TAG_NULL);
+			return out.toByteArray();
+		}
+		byte[] bytes = remarks.getBytes(StandardCharsets.UTF_8);
+		// tag plus a length varint of at most five bytes
+		int budget = maxBytes - out.size() - 6;
+		if (bytes.length > budget) {
+			int cut = Math.max(0, budget - TRUNCATION_SUFFIX.length());
+			while (cut > 0 && (bytes[cut] & 0xC0) == 0x80) {
+				cut--;
+			}
+			bytes = (new String(bytes, 0, cut, StandardCharsets.UTF_8) + TRUNCATION_SUFFIX)
+					.getBytes(StandardCharsets.UTF_8);
+		}
+		out.write(TAG_LITERAL);
+		writeVarLong(out, bytes.length);
+		out.write(bytes, 0, bytes.length);
+		return out.toByteArray();
+	}
+
+	public static AuditLogRequest decode(byte[] message) {
+		if (!isCompact(message) || message[1] != VERSION) {
+			throw new IllegalArgumentException("Not a compact-v" + VERSION + " audit message");
+		}
+		int[] position = { 2 };
+		AuditLogRequest request = new AuditLogRequest();
+		request.setStatusCode(readString(message, position));
+		request.setUserId(readString(message, position));
+		request.setUsername(readString(message, position));
+		request.setActivityType(readString(message, position));
+		request.setActivityDescription(readString(message, position));
+		request.setRequestActionEndpoint(readString(message, position));
+		request.setResponseStatus(readString(message, position));
+		request.setRequestType(readString(message, position));
+		long count = readVarLong(message, position);
+		request.setCount(count == 0 ? null : (int) count);
+		request.setFirstOccurredAt(fromEpochMilli(readVarLong(message, position)));
+		request.setLastOccurredAt(fromEpochMilli(readVarLong(message, position)));
+		request.setRemarks(readString(message, position));
+		return request;
+	}
+
+	private static void writeString(ByteArrayOutputStream out, String value) {
+		if (value == null) {
+			out.write(TAG_NULL);
+			return;
+		}
+		Integer code = CODES.get(value);
+		if (code != null) {
+			out.write(TAG_CODE);
+			writeVarLong(out, code);
+			return;
+		}
+		for (int prefixCode : PREFIX_CODES) {
+			String prefix = DICTIONARY.get(prefixCode);
+			if (value.startsWith(prefix)) {
+				out.write(TAG_PREFIX);
+				writeVarLong(out, prefixCode);
+				writeLiteral(out, value.substring(prefix.length()));
+				return;
+			}
+		}
+		out.write(TAG_LITERAL);
+		writeLiteral(out, value);
+	}
+
+	private static void writeLiteral(ByteArrayOutputStream out, String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		writeVarLong(out, bytes.length);
+		out.write(bytes, 0, bytes.length);
+	}
+
+	private static String readString(byte[] message, int[] position) {
+		int tag = message[position[0]++];
+		switch (tag) {
+		case TAG_NULL:
+			return null;
+		case TAG_CODE:
+			return DICTIONARY.get((int) readVarLong(message, position));
+		case TAG_PREFIX:
+			String prefix = DICTIONARY.get((int) readVarLong(message, position));
+			return prefix + readLiteral(message, position);
+		case TAG_LITERAL:
+			return readLiteral(message, position);
+		default:
+			throw new IllegalArgumentException("Unknown string tag " + tag);
+		}
+	}
+
+	private static String readLiteral(byte[] message, int[] position) {
+		int length = (int) readVarLong(message, position);
+		String value = new String(message, position[0], length, StandardCharsets.UTF_8);
+		position[0] += length;
+		return value;
+	}
+
+	private static void writeVarLong(ByteArrayOutputStream out, long value) {
+		while ((value & ~0x7FL) != 0) {
+			out.write((int) ((value & 0x7F) | 0x80));
+			value >>>= 7;
+		}
+		out.write((int) value);
+	}
+
+	private static long readVarLong(byte[] message, int[] position) {
+		long value = 0;
+		int shift = 0;
+		byte b;
+		do {
+			b = message[position[0]++];
+			value |= (long) (b & 0x7F) << shift;
+			shift += 7;
+		} while ((b & 0x80) != 0);
+		return value;
+	}
+
+	private static long toEpochMilli(String timestamp) {
+		return timestamp == null ? 0 : Instant.parse(timestamp).toEpochMilli();
+	}
+
+	private static String fromEpochMilli(long epochMilli) {
+		return epochMilli == 0 ? null : Instant.ofEpochMilli(epochMilli).toString();
+	}
+}
@@ -0,0 +1,53 @@
+package voucher.management.app.auth.utility;
+
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.annotation.RequestScope;
+
+import lombok.Getter;
+import lombok.Setter;
+import voucher.management.app.auth.enums.AuditLogInvalidUser;
+
+/**
+ * Audit details of the current request. Handlers fill it in while they work;
+ * {@link voucher.management.app.auth.filter.AuditLogFilter} sends the recorded
+ * event once the response has been written.
+ */
+@Component
+@RequestScope
+@Getter
+public class AuditLogContext {
+
+	@Setter
+	private String userId = AuditLogInvalidUser.InvalidUserID.toString();
+
+	@Setter
+	private String userName = AuditLogInvalidUser.InvalidUserName.toString();
+
+	private String statusCode;
+	private String activityType;
+	private String activityDescription;
+	private String requestActionEndpoint;
+	private String responseStatus;
+	private String requestType;
+	private String remarks;
+	private boolean recorded;
+
+	/**
+	 * Records the audit event for this request. A later call replaces an
+	 * earlier one, so only the outcome the handler ended with is sent.
+	 */
+	public void record(String statusCode, String userId, String userName, String activityType,
+			String activityDescription, String requestActionEndpoint, String responseStatus, String requestType,
+			String remarks) {
+		this.statusCode = statusCode;
+		this.userId = userId;
+		this.userName = userName;
+		this.activityType = activityType;
+		this.activityDescription = activityDescription;
+		this.requestActionEndpoint = requestActionEndpoint;
+		this.responseStatus = responseStatus;
+		this.requestType = requestType;
+		this.remarks = remarks;
+		this.recorded = true;
+	}
+}
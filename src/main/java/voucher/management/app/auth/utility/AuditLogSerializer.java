@@ -0,0 +1,126 @@
+package voucher.management.app.auth.utility;
+
+import java.io.IOException;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.util.ByteArrayBuilder;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.std.StdSerializer;
+
+import voucher.management.app.auth.dto.AuditLogRequest;
+
+/**
+ * Serializes audit events in a single pass into a per-thread reusable buffer.
+ * The remarks field is written last and truncated on the fly so the message
+ * never exceeds the SQS size limit. With {@code audit.encoding=compact} the
+ * {@link AuditLogCompactCodec} binary format is produced instead.
+ */
+@Component
+public class AuditLogSerializer {
+
+	public static final int MAX_MESSAGE_BYTES = 256 * 1024;
+
+	private static final String TRUNCATION_SUFFIX = "...";
+
+	private static final ObjectWriter AUDIT_LOG_WRITER = new ObjectMapper().writerFor(AuditLogRequest.class);
+
+	private static final ThreadLocal<ByteArrayBuilder> BUFFER = ThreadLocal.withInitial(() -> new ByteArrayBuilder(2048));
+
+	@Value("${audit.encoding:json}")
+	private String encoding;
+
+	public byte[] serialize(AuditLogRequest auditLogRequest) throws IOException {
+		if ("compact".equals(encoding)) {
+			return AuditLogCompactCodec.encode(auditLogRequest, AuditLogCompactCodec.MAX_ENCODED_BYTES);
+		}
+		ByteArrayBuilder buffer = BUFFER.get();
+		buffer.reset();
+		try (JsonGenerator generator = AUDIT_LOG_WRITER.createGenerator(buffer)) {
+			AUDIT_LOG_WRITER.writeValue(generator, auditLogRequest);
+		}
+		return buffer.toByteArray();
+	}
+
+	/**
+	 * Writes the remarks with whatever room is left under
+	 * {@link #MAX_MESSAGE_BYTES}, cutting on a character boundary so the UTF-8
+	 * output stays valid.
+	 */
+	public static class RemarksSerializer extends StdSerializer<String> {
+
+		private static final long serialVersionUID = 1L;
+
+		// closing quote of the value and the closing brace of the object
+		private static final int CLOSING_BYTES = 2;
+
+		public RemarksSerializer() {
+			super(String.class);
+		}
+
+		@Override
+		public void serialize(String remarks, JsonGenerator generator, SerializerProvider provider) throws IOException {
+			if (!(generator.getOutputTarget() instanceof ByteArrayBuilder target)) {
+				generator.writeString(remarks);
+				return;
+			}
+			// +1 for the opening quote of the value
+			int written = target.size() + generator.getOutputBuffered() + 1;
+			int budget = MAX_MESSAGE_BYTES - written - CLOSING_BYTES;
+			int cut = truncatedLength(remarks, budget);
+			if (cut == remarks.length()) {
+				generator.writeString(remarks);
+			} else {
+				generator.writeString(remarks.substring(0, cut).concat(TRUNCATION_SUFFIX));
+			}
+		}
+
+		/**
+		 * Returns the number of chars of {@code value} that fit in {@code budget}
+		 * escaped UTF-8 bytes, leaving room for the truncation suffix when the
+		 * whole value does not fit.
+		 */
+		static int truncatedLength(String value, int budget) {
+			int suffixBudget = budget - TRUNCATION_SUFFIX.length();
+			int used = 0;
+			int cut = 0;
+			int i = 0;
+			while (i < value.length()) {
+				char c = value.charAt(i);
+				int chars = 1;
+				int bytes;
+				if (c < 0x20) {
+					bytes = (c == '\b' || c == '\t' || c == '\n' || c == '\f' || c == '\r') ? 2 : 6;
+				} else if (c == '"' || c == '\\') {
+					bytes = 2;
+				} else if (c < 0x80) {
+					bytes = 1;
+				} else if (c < 0x800) {
+					bytes = 2;
+				} else if (Character.isHighSurrogate(c) && i + 1 < value.length()
+						&& Character.isLowSurrogate(value.charAt(i + 1))) {
+					// Jackson escapes each half of a surrogate pair as six ASCII bytes
+					bytes = 12;
+					chars = 2;
+				} else if (Character.isSurrogate(c)) {
+					bytes = 6;
+				} else {
+					bytes = 3;
+				}
+				used += bytes;
+				if (used > budget) {
+					return cut;
+				}
+				i += chars;
+				if (used <= suffixBudget) {
+					cut = i;
+				}
+			}
+			return value.length();
+		}
+	}
+}
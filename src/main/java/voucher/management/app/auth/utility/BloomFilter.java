@@ -0,0 +1,80 @@
+package voucher.management.app.auth.utility;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Fixed-size Bloom filter over strings. {@link #mightContain(String)} never
+ * returns false for a value that was {@link #put(String) put}, and returns true
+ * for an absent value with roughly the false positive rate it was sized for.
+ * Puts and lookups are lock-free and may run concurrently.
+ *
+ * Bit positions come from two 64-bit hashes of the UTF-8 bytes, combined as
+ * {@code h1 + i * h2} for each of the {@code k} hash functions.
+ */
+public final class BloomFilter {
+
+	private final AtomicLongArray bits;
+	private final long bitCount;
+	private final int hashCount;
+
+	public BloomFilter(long expectedInsertions, double falsePositiveRate) {
+		long n = Math.max(1, expectedInsertions);
+		long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+		int words = (int) Math.min(Integer.MAX_VALUE - 8, Math.max(1, (m + 63) / 64));
+		this.bits = new AtomicLongArray(words);
+		this.bitCount = (long) words * 64;
+		this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+	}
+
+	public void put(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		long h1 = hash(bytes, 0x9E3779B97F4A7C15L);
+		long h2 = hash(bytes, 0xC2B2AE3D27D4EB4FL) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+			int word = (int) (index >>> 6);
+			long mask = 1L << index;
+			long current = bits.get(word);
+			while ((current & mask) == 0 && !bits.compareAndSet(word, current, current | mask)) {
+				current = bits.get(word);
+			}
+		}
+	}
+
+	public boolean mightContain(String value) {
+		byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+		long h1 = hash(bytes, 0x9E3779B97F4A7C15L);
+		long h2 = hash(bytes, 0xC2B2AE3D27D4EB4FL) | 1;
+		for (int i = 0; i < hashCount; i++) {
+			long index = Long.remainderUnsigned(h1 + i * h2, bitCount);
+			if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	public long getBitCount() {
+		return bitCount;
+	}
+
+	public int getHashCount() {
+		return hashCount;
+	}
+
+	private static long hash(byte[] bytes, long seed) {
+		long h = seed ^ (bytes.length * 0xFF51AFD7ED558CCDL);
+		for (byte b : bytes) {
+			h = (h ^ (b & 0xFF)) * 0x100000001B3L;
+			h = Long.rotateLeft(h, 29);
+		}
+		// final avalanche from MurmurHash3
+		h ^= h >>> 33;
+		h *= 0xFF51AFD7ED558CCDL;
+		h ^= h >>> 33;
+		h *= 0xC4CEB9FE1A85EC53L;
+		h ^= h >>> 33;
+		return h;
+	}
+}
@@ -0,0 +1,148 @@
+package voucher.management.app.auth.utility;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import voucher.management.app.auth.exception.PasswordHashingRejectedException;
+
+/**
+ * Runs a CPU-bound {@link PasswordEncoder} on its own small pool so a burst of
+ * logins cannot tie up every request thread. The pool holds one thread per
+ * available CPU and a bounded wait queue. A call is rejected with
+ * {@link PasswordHashingRejectedException} when the queue is full, or when it
+ * has waited longer than {@code maxQueueWaitMs} by the time a thread picks it
+ * up, in which case the hash is skipped.
+ *
+ * Time spent queued is recorded under {@code password.hash.queue} and time
+ * spent hashing under {@code password.hash.duration}, tagged with the
+ * operation.
+ */
+public class BoundedPasswordEncoder implements PasswordEncoder {
+
+	private static final Logger logger = LoggerFactory.getLogger(BoundedPasswordEncoder.class);
+
+	private final PasswordEncoder delegate;
+	private final ThreadPoolExecutor executor;
+	private final long maxQueueWaitNanos;
+	private final long retryAfterSeconds;
+
+	private final Timer queueTimer;
+	private final Timer encodeTimer;
+	private final Timer matchesTimer;
+	private final Counter queueFullCounter;
+	private final Counter queueTimeoutCounter;
+
+	public BoundedPasswordEncoder(PasswordEncoder delegate, int threads, int queueCapacity, long maxQueueWaitMs,
+			MeterRegistry meterRegistry) {
+		this.delegate = delegate;
+		this.maxQueueWaitNanos = TimeUnit.MILLISECONDS.toNanos(maxQueueWaitMs);
+		this.retryAfterSeconds = Math.max(1, TimeUnit.MILLISECONDS.toSeconds(maxQueueWaitMs));
+		int poolSize = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+		this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0L, TimeUnit.MILLISECONDS,
+				new ArrayBlockingQueue<>(queueCapacity), threadFactory(), new ThreadPoolExecutor.AbortPolicy());
+
+		this.queueTimer = Timer.builder("password.hash.queue")
+				.description("Time a password hash waits for a hashing thread").register(meterRegistry);
+		this.encodeTimer = Timer.builder("password.hash.duration").tag("operation", "encode")
+				.description("Time spent computing a password hash").register(meterRegistry);
+		this.matchesTimer = Timer.builder("password.hash.duration").tag("operation", "matches")
+				.description("Time spent computing a password hash").register(meterRegistry);
+		this.queueFullCounter = Counter.builder("password.hash.rejected").tag("reason", "queue_full")
+				.register(meterRegistry);
+		this.queueTimeoutCounter = Counter.builder("password.hash.rejected").tag("reason", "queue_timeout")
+				.register(meterRegistry);
+		Gauge.builder("password.hash.queue.depth", executor, e -> e.getQueue().size()).register(meterRegistry);
+		Gauge.builder("password.hash.active", executor, ThreadPoolExecutor::getActiveCount).register(meterRegistry);
+
+		logger.info("Password hashing pool started with threads={}, queueCapacity={}, maxQueueWaitMs={}", poolSize,
+				queueCapacity, maxQueueWaitMs);
+	}
+
+	@Override
+	public String encode(CharSequence rawPassword) {
+		return run(encodeTimer, () -> delegate.encode(rawPassword));
+	}
+
+	@Override
+	public boolean matches(CharSequence rawPassword, String encodedPassword) {
+		return run(matchesTimer, () -> delegate.matches(rawPassword, encodedPassword));
+	}
+
+	@Override
+	public boolean upgradeEncoding(String encodedPassword) {
+		return delegate.upgradeEncoding(encodedPassword);
+	}
+
+	public void shutdown() {
+		executor.shutdown();
+	}
+
+	public int getQueueDepth() {
+		return executor.getQueue().size();
+	}
+
+	private <T> T run(Timer hashTimer, Callable<T> hash) {
+		long queuedAt = System.nanoTime();
+		Future<T> future;
+		try {
+			future = executor.submit(() -> {
+				long startedAt = System.nanoTime();
+				queueTimer.record(startedAt - queuedAt, TimeUnit.NANOSECONDS);
+				if (startedAt - queuedAt > maxQueueWaitNanos) {
+					queueTimeoutCounter.increment();
+					throw reject("Password hashing queue wait exceeded.");
+				}
+				try {
+					return hash.call();
+				} finally {
+					hashTimer.record(System.nanoTime() - startedAt, TimeUnit.NANOSECONDS);
+				}
+			});
+		} catch (RejectedExecutionException e) {
+			queueFullCounter.increment();
+			throw reject("Password hashing queue is full.");
+		}
+
+		try {
+			return future.get();
+		} catch (InterruptedException e) {
+			future.cancel(true);
+			Thread.currentThread().interrupt();
+			throw new IllegalStateException("Interrupted while waiting for password hashing", e);
+		} catch (ExecutionException e) {
+			if (e.getCause() instanceof RuntimeException cause) {
+				throw cause;
+			}
+			throw new IllegalStateException("Password hashing failed", e.getCause());
+		}
+	}
+
+	private PasswordHashingRejectedException reject(String reason) {
+		logger.warn(reason + " Rejecting request.");
+		return new PasswordHashingRejectedException("Server is busy. Please try again later.", retryAfterSeconds);
+	}
+
+	private static ThreadFactory threadFactory() {
+		AtomicInteger count = new AtomicInteger();
+		return runnable -> {
+			Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+			thread.setDaemon(true);
+			return thread;
+		};
+	}
+}
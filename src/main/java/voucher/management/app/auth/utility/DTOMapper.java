@@ -8,6 +8,8 @@ import java.util.List;
 import org.springframework.stereotype.Component;
 
 import voucher.management.app.auth.dto.UserDTO;
+import voucher.management.app.auth.dto.UserLoginView;
+import voucher.management.app.auth.dto.UserSummary;
 import voucher.management.app.auth.entity.User;
 
 @Component
@@ -30,4 +32,34 @@ public class DTOMapper {
 		return userDTO;
 	}
 
+	public static UserDTO toUserDTO(UserLoginView loginView) {
+		UserDTO userDTO = new UserDTO();
+		userDTO.setUserID(loginView.getUserId());
+		userDTO.setUsername(loginView.getUsername());
+		userDTO.setEmail(loginView.getEmail());
+		userDTO.setRole(loginView.getRole());
+		userDTO.setActive(loginView.isActive());
+		userDTO.setVerified(loginView.isVerified());
+		String[] preferences = GeneralUtility.makeNotNull(loginView.getPreferences()).split(",");
+		if (preferences.length > 0 && !preferences[0].isEmpty()) {
+			userDTO.setPreferences(new ArrayList<String>(Arrays.asList(preferences)));
+		}
+		return userDTO;
+	}
+
+	public static UserDTO toUserDTO(UserSummary summary) {
+		UserDTO userDTO = new UserDTO();
+		userDTO.setUserID(summary.userId());
+		userDTO.setUsername(summary.username());
+		userDTO.setEmail(summary.email());
+		userDTO.setRole(summary.role());
+		userDTO.setActive(summary.active());
+		userDTO.setVerified(summary.verified());
+		String[] preferences = GeneralUtility.makeNotNull(summary.preferences()).split(",");
+		if (preferences.length > 0 && !preferences[0].isEmpty()) {
+			userDTO.setPreferences(new ArrayList<String>(Arrays.asList(preferences)));
+		}
+		return userDTO;
+	}
+
 }
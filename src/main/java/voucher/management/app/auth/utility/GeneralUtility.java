@@ -1,6 +1,11 @@
 package voucher.management.app.auth.utility;
 
 
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
 import org.springframework.stereotype.Component;
 
 @Component
@@ -16,4 +21,41 @@ public class GeneralUtility {
 		}
 	}
 
+	/**
+	 * Lower-cases an email and strips accents and trailing spaces, so that
+	 * emails the database collation treats as equal give the same key.
+	 */
+	public static String normalizeEmail(String email) {
+		return stripAccents(email.stripTrailing()).toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Trims and lower-cases a preference and strips its accents. Preferences
+	 * are stored and searched under this key in the user_preference table.
+	 */
+	public static String normalizePreference(String preference) {
+		return stripAccents(preference.trim()).toLowerCase(Locale.ROOT);
+	}
+
+	/**
+	 * Splits a comma-separated preferences column into its distinct normalized
+	 * preferences, skipping blank entries.
+	 */
+	public static Set<String> parsePreferences(String preferences) {
+		Set<String> parsed = new LinkedHashSet<>();
+		if (preferences == null || preferences.isEmpty()) {
+			return parsed;
+		}
+		for (String preference : preferences.split(",")) {
+			if (!preference.isBlank()) {
+				parsed.add(normalizePreference(preference));
+			}
+		}
+		return parsed;
+	}
+
+	private static String stripAccents(String value) {
+		return Normalizer.normalize(value, Normalizer.Form.NFD).replaceAll("\\p{M}", "");
+	}
+
 }
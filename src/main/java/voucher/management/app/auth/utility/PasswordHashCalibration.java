@@ -0,0 +1,124 @@
+package voucher.management.app.auth.utility;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.security.crypto.password.Pbkdf2PasswordEncoder;
+
+/**
+ * Measures password hashing cost on the machine it runs on, so that
+ * {@code password.hashing.bcrypt.strength} or
+ * {@code password.hashing.pbkdf2.iterations} can be chosen against a login
+ * latency target. For each cost it hashes with one thread per available CPU,
+ * the same as the hashing pool, and reports hashes per second and the p50 and
+ * p99 latency of a single hash. It then names the highest cost whose p99 stays
+ * within the target.
+ *
+ * Run it inside the pod, with the same CPU limit as production:
+ *
+ * <pre>
+ * java -cp app.jar -Dloader.main=voucher.management.app.auth.utility.PasswordHashCalibration \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher bcrypt 8,10,12 50 250
+ * </pre>
+ *
+ * Arguments: algorithm ({@code bcrypt} or {@code pbkdf2}), comma-separated
+ * costs, samples per cost (default 50) and the p99 target in milliseconds
+ * (default 250).
+ */
+public final class PasswordHashCalibration {
+
+	private static final String SAMPLE_PASSWORD = "Calibration@2024";
+
+	private PasswordHashCalibration() {
+	}
+
+	record Result(int cost, double hashesPerSecond, double p50Millis, double p99Millis) {
+	}
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 2) {
+			System.err.println("Usage: PasswordHashCalibration <bcrypt|pbkdf2> <cost>[,<cost>...] [samples] [p99-target-ms]");
+			System.exit(1);
+		}
+		String algorithm = args[0];
+		int[] costs = Arrays.stream(args[1].split(",")).mapToInt(cost -> Integer.parseInt(cost.trim())).toArray();
+		int samples = args.length > 2 ? Integer.parseInt(args[2]) : 50;
+		double targetMillis = args.length > 3 ? Double.parseDouble(args[3]) : 250;
+		int threads = Runtime.getRuntime().availableProcessors();
+
+		System.out.printf("algorithm=%s threads=%d samples=%d p99-target=%.0fms%n", algorithm, threads, samples,
+				targetMillis);
+		System.out.printf("%10s %12s %10s %10s%n", "cost", "hashes/sec", "p50 ms", "p99 ms");
+		Result chosen = null;
+		for (int cost : costs) {
+			Result result = measure(encoderFor(algorithm, cost), cost, samples, threads);
+			System.out.printf("%10d %12.1f %10.1f %10.1f%n", result.cost(), result.hashesPerSecond(),
+					result.p50Millis(), result.p99Millis());
+			if (result.p99Millis() <= targetMillis && (chosen == null || result.cost() > chosen.cost())) {
+				chosen = result;
+			}
+		}
+		if (chosen == null) {
+			System.out.println("No cost meets the p99 target.");
+		} else {
+			System.out.printf("Highest cost within target: %d (p99 %.1f ms, %.1f hashes/sec)%n", chosen.cost(),
+					chosen.p99Millis(), chosen.hashesPerSecond());
+		}
+	}
+
+	static PasswordEncoder encoderFor(String algorithm, int cost) {
+		switch (algorithm) {
+		case "bcrypt":
+			return new BCryptPasswordEncoder(cost);
+		case "pbkdf2":
+			return new Pbkdf2PasswordEncoder("", 16, cost, Pbkdf2PasswordEncoder.SecretKeyFactoryAlgorithm.PBKDF2WithHmacSHA256);
+		default:
+			throw new IllegalArgumentException("Unsupported algorithm: " + algorithm);
+		}
+	}
+
+	static Result measure(PasswordEncoder encoder, int cost, int samples, int threads) throws Exception {
+		String encoded = encoder.encode(SAMPLE_PASSWORD);
+		// warm up the JIT before timing
+		for (int i = 0; i < Math.min(3, samples); i++) {
+			encoder.matches(SAMPLE_PASSWORD, encoded);
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		try {
+			List<Future<Long>> futures = new ArrayList<>(samples);
+			long start = System.nanoTime();
+			for (int i = 0; i < samples; i++) {
+				futures.add(executor.submit(() -> {
+					long hashStart = System.nanoTime();
+					encoder.matches(SAMPLE_PASSWORD, encoded);
+					return System.nanoTime() - hashStart;
+				}));
+			}
+			List<Long> latencies = new ArrayList<>(samples);
+			for (Future<Long> future : futures) {
+				latencies.add(future.get());
+			}
+			long elapsed = System.nanoTime() - start;
+			Collections.sort(latencies);
+			return new Result(cost, samples / (elapsed / 1e9), percentileMillis(latencies, 0.50),
+					percentileMillis(latencies, 0.99));
+		} finally {
+			executor.shutdownNow();
+			executor.awaitTermination(5, TimeUnit.SECONDS);
+		}
+	}
+
+	private static double percentileMillis(List<Long> sortedNanos, double percentile) {
+		int index = (int) Math.ceil(percentile * sortedNanos.size()) - 1;
+		return sortedNanos.get(Math.max(0, index)) / 1e6;
+	}
+}
@@ -0,0 +1,47 @@
+package voucher.management.app.auth.utility;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the active user list, ordered by username then user id. Handed
+ * to clients as an opaque URL-safe token, so the next page can seek straight
+ * past the last row instead of skipping an offset.
+ */
+public record UserCursor(String username, String userId) {
+
+	private static final char SEPARATOR = '\u0000';
+
+	/**
+	 * Position before the first user.
+	 */
+	public static final UserCursor START = new UserCursor("", "");
+
+	public String encode() {
+		String raw = username + SEPARATOR + userId;
+		return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+	}
+
+	/**
+	 * Reads a token from {@link #encode()}. A blank token means the first page.
+	 *
+	 * @throws IllegalArgumentException if the token was not produced by
+	 *                                  {@link #encode()}
+	 */
+	public static UserCursor decode(String token) {
+		if (token == null || token.isBlank()) {
+			return START;
+		}
+		String raw;
+		try {
+			raw = new String(Base64.getUrlDecoder().decode(token.trim()), StandardCharsets.UTF_8);
+		} catch (IllegalArgumentException e) {
+			throw new IllegalArgumentException("Invalid cursor.");
+		}
+		int separator = raw.indexOf(SEPARATOR);
+		if (separator < 0 || separator != raw.lastIndexOf(SEPARATOR) || separator == raw.length() - 1) {
+			throw new IllegalArgumentException("Invalid cursor.");
+		}
+		return new UserCursor(raw.substring(0, separator), raw.substring(separator + 1));
+	}
+}
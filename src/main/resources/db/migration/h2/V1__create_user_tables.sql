@@ -0,0 +1,26 @@
+create table if not exists user (
+	user_id varchar(255) not null,
+	email varchar(255) not null,
+	username varchar(255) not null,
+	password varchar(255) not null,
+	role enum ('ADMIN','CUSTOMER','MERCHANT') not null,
+	created_date timestamp default now() not null,
+	updated_date timestamp,
+	is_active boolean default true not null,
+	last_login_date timestamp,
+	verification_code varchar(255) default '' not null,
+	is_verified boolean default false not null,
+	preferences varchar(255),
+	primary key (user_id),
+	constraint uk_user_email unique (email)
+);
+
+create table if not exists user_change_log (
+	change_id bigint generated by default as identity,
+	user_id varchar(255) not null,
+	email varchar(255) not null,
+	changed_date timestamp not null,
+	primary key (change_id)
+);
+
+create index if not exists idx_user_change_log_changed_date on user_change_log (changed_date);
@@ -0,0 +1,23 @@
+create table user_preference (
+	preference varchar(255) not null,
+	user_id varchar(255) not null,
+	primary key (preference, user_id),
+	constraint fk_user_preference_user foreign key (user_id) references user (user_id) on delete cascade
+);
+
+create index idx_user_preference_user_id on user_preference (user_id);
+
+insert into user_preference (preference, user_id)
+with recursive split (user_id, preference, rest) as (
+	select user_id, cast('' as varchar(255)), cast(concat(preferences, ',') as varchar(1000))
+	from user
+	where preferences is not null and preferences <> ''
+	union all
+	select user_id, cast(lower(trim(substring(rest, 1, locate(',', rest) - 1))) as varchar(255)),
+		cast(substring(rest, locate(',', rest) + 1) as varchar(1000))
+	from split
+	where rest <> ''
+)
+select distinct preference, user_id from split where preference <> '';
+
+drop index idx_user_active_verified_role;
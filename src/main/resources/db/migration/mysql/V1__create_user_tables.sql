@@ -0,0 +1,25 @@
+create table if not exists user (
+	user_id varchar(255) not null,
+	email varchar(255) not null,
+	username varchar(255) not null,
+	password varchar(255) not null,
+	role enum ('ADMIN','CUSTOMER','MERCHANT') not null,
+	created_date datetime default now() not null,
+	updated_date datetime,
+	is_active boolean default true not null,
+	last_login_date datetime,
+	verification_code varchar(255) default '' not null,
+	is_verified boolean default false not null,
+	preferences varchar(255),
+	primary key (user_id),
+	constraint uk_user_email unique (email)
+) engine=InnoDB;
+
+create table if not exists user_change_log (
+	change_id bigint not null auto_increment,
+	user_id varchar(255) not null,
+	email varchar(255) not null,
+	changed_date datetime not null,
+	primary key (change_id),
+	index idx_user_change_log_changed_date (changed_date)
+) engine=InnoDB;
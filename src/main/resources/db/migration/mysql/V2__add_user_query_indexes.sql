@@ -0,0 +1,7 @@
+create index idx_user_active_verified_username on user (is_active, is_verified, username, user_id);
+
+create index idx_user_active_verified_role on user (is_active, is_verified, role);
+
+create index idx_user_verification_code on user (verification_code, is_verified, is_active);
+
+create index idx_user_created_date on user (created_date);
@@ -0,0 +1,104 @@
+package voucher.management.app.auth.configuration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AsyncConfigTest {
+
+	private SimpleMeterRegistry meterRegistry;
+
+	private AsyncConfig asyncConfig;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		asyncConfig = new AsyncConfig();
+		ReflectionTestUtils.setField(asyncConfig, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(asyncConfig, "auditPoolSize", 1);
+		ReflectionTestUtils.setField(asyncConfig, "auditQueueCapacity", 1);
+		ReflectionTestUtils.setField(asyncConfig, "emailPoolSize", 1);
+		ReflectionTestUtils.setField(asyncConfig, "emailQueueCapacity", 1);
+		ReflectionTestUtils.setField(asyncConfig, "exportPoolSize", 1);
+		ReflectionTestUtils.setField(asyncConfig, "exportQueueCapacity", 1);
+	}
+
+	@Test
+	void testAuditExecutorDropsWhenFull() throws Exception {
+		ThreadPoolTaskExecutor executor = asyncConfig.auditExecutor();
+		executor.initialize();
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			executor.execute(() -> await(release));
+			executor.execute(() -> await(release));
+			executor.execute(() -> await(release));
+
+			assertEquals(1.0, meterRegistry.find("async.executor.rejected").tag("executor", "audit").counter().count());
+			assertEquals(1.0, meterRegistry.find("async.executor.queue.depth").tag("executor", "audit").gauge().value());
+		} finally {
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+
+	@Test
+	void testEmailExecutorRunsOnCallerWhenFull() throws Exception {
+		ThreadPoolTaskExecutor executor = asyncConfig.emailExecutor();
+		executor.initialize();
+		CountDownLatch release = new CountDownLatch(1);
+		AtomicReference<Thread> overflowThread = new AtomicReference<>();
+		try {
+			executor.execute(() -> await(release));
+			executor.execute(() -> await(release));
+			executor.execute(() -> overflowThread.set(Thread.currentThread()));
+
+			assertEquals(Thread.currentThread(), overflowThread.get());
+			assertEquals(1.0, meterRegistry.find("async.executor.rejected").tag("executor", "email").counter().count());
+		} finally {
+			release.countDown();
+			executor.shutdown();
+		}
+		assertTrue(meterRegistry.find("async.executor.wait").tag("executor", "email").timer().count() >= 1);
+	}
+
+	@Test
+	void testExportExecutorRefusesWhenFull() throws Exception {
+		ThreadPoolTaskExecutor executor = asyncConfig.exportExecutor();
+		executor.initialize();
+		CountDownLatch release = new CountDownLatch(1);
+		try {
+			executor.execute(() -> await(release));
+			executor.execute(() -> await(release));
+
+			assertThrows(TaskRejectedException.class, () -> executor.execute(() -> await(release)));
+			assertEquals(1.0, meterRegistry.find("async.executor.rejected").tag("executor", "export").counter().count());
+		} finally {
+			release.countDown();
+			executor.shutdown();
+		}
+	}
+
+	private void await(CountDownLatch latch) {
+		try {
+			latch.await(5, TimeUnit.SECONDS);
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
+	}
+}
@@ -0,0 +1,98 @@
+package voucher.management.app.auth.configuration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import voucher.management.app.auth.utility.BoundedPasswordEncoder;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class VoucherManagementAuthenticationSecurityConfigTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	private VoucherManagementAuthenticationSecurityConfig securityConfig;
+
+	private PasswordEncoder passwordEncoder;
+
+	@BeforeEach
+	void setUp() {
+		securityConfig = new VoucherManagementAuthenticationSecurityConfig();
+		ReflectionTestUtils.setField(securityConfig, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(securityConfig, "passwordHashingAlgorithm", "bcrypt");
+		ReflectionTestUtils.setField(securityConfig, "bcryptStrength", 5);
+		ReflectionTestUtils.setField(securityConfig, "pbkdf2Iterations", 1000);
+		ReflectionTestUtils.setField(securityConfig, "passwordHashingThreads", 1);
+		ReflectionTestUtils.setField(securityConfig, "passwordHashingQueueCapacity", 4);
+		ReflectionTestUtils.setField(securityConfig, "passwordHashingMaxQueueWaitMs", 2000L);
+	}
+
+	@AfterEach
+	void tearDown() {
+		if (passwordEncoder != null) {
+			((BoundedPasswordEncoder) passwordEncoder).shutdown();
+		}
+	}
+
+	@Test
+	void testLegacyHashMatchesAndIsUpgraded() {
+		passwordEncoder = securityConfig.passwordEncoder();
+		String legacyHash = new BCryptPasswordEncoder(4).encode("Pwd@21212");
+
+		assertThat(passwordEncoder.matches("Pwd@21212", legacyHash)).isTrue();
+		assertThat(passwordEncoder.upgradeEncoding(legacyHash)).isTrue();
+
+		String upgraded = passwordEncoder.encode("Pwd@21212");
+		assertThat(upgraded).startsWith("{bcrypt}$2a$05$");
+		assertThat(passwordEncoder.matches("Pwd@21212", upgraded)).isTrue();
+		assertThat(passwordEncoder.upgradeEncoding(upgraded)).isFalse();
+	}
+
+	@Test
+	void testSwitchingAlgorithmUpgradesExistingHashes() {
+		passwordEncoder = securityConfig.passwordEncoder();
+		String bcryptHash = passwordEncoder.encode("Pwd@21212");
+		((BoundedPasswordEncoder) passwordEncoder).shutdown();
+
+		ReflectionTestUtils.setField(securityConfig, "passwordHashingAlgorithm", "pbkdf2");
+		passwordEncoder = securityConfig.passwordEncoder();
+
+		assertThat(passwordEncoder.matches("Pwd@21212", bcryptHash)).isTrue();
+		assertThat(passwordEncoder.upgradeEncoding(bcryptHash)).isTrue();
+		assertThat(passwordEncoder.encode("Pwd@21212")).startsWith("{pbkdf2}");
+	}
+
+	@Test
+	void testUnknownAlgorithmIsRejected() {
+		ReflectionTestUtils.setField(securityConfig, "passwordHashingAlgorithm", "md5");
+
+		assertThrows(IllegalArgumentException.class, () -> securityConfig.passwordEncoder());
+	}
+
+	@Test
+	void testOnlyHealthIsPublicAmongActuatorEndpoints() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/actuator/health"))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+		mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics"))
+				.andExpect(MockMvcResultMatchers.status().isForbidden());
+		mockMvc.perform(MockMvcRequestBuilders.get("/actuator/metrics/login.guard.rejected"))
+				.andExpect(MockMvcResultMatchers.status().isForbidden());
+	}
+}
@@ -0,0 +1,55 @@
+package voucher.management.app.auth.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+
+import voucher.management.app.auth.dto.UserRequest;
+import voucher.management.app.auth.service.impl.UserService;
+
+/**
+ * Sends logins through the embedded server from behind a trusted proxy, so the
+ * client address is resolved from X-Forwarded-For the way it is in production.
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = {
+		"login.guard.ip-key.enabled=true", "login.guard.max-failures-per-ip=3",
+		"server.tomcat.remoteip.internal-proxies=127\\.0\\.0\\.1|0:0:0:0:0:0:0:1" })
+@DirtiesContext
+@ActiveProfiles("test")
+public class UserControllerClientIpTest {
+
+	@MockBean
+	private UserService userService;
+
+	@Autowired
+	private TestRestTemplate restTemplate;
+
+	@Test
+	void testClientsBehindSameProxyAreTrackedSeparately() {
+		for (int i = 0; i < 3; i++) {
+			assertThat(login("user" + i + "@gmail.com", "203.0.113.1")).isEqualTo(HttpStatus.NOT_FOUND);
+		}
+
+		assertThat(login("fresh@gmail.com", "203.0.113.1")).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+		assertThat(login("fresh@gmail.com", "203.0.113.2")).isEqualTo(HttpStatus.NOT_FOUND);
+	}
+
+	private HttpStatusCode login(String email, String clientIp) {
+		HttpHeaders headers = new HttpHeaders();
+		headers.setContentType(MediaType.APPLICATION_JSON);
+		headers.set("X-Forwarded-For", clientIp);
+		return restTemplate.postForEntity("/api/users/login",
+				new HttpEntity<>(new UserRequest(email, "Pwd@21212"), headers), String.class).getStatusCode();
+	}
+}
@@ -0,0 +1,248 @@
+package voucher.management.app.auth.controller;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
+import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import jakarta.persistence.EntityManagerFactory;
+import voucher.management.app.auth.dto.UserRequest;
+import voucher.management.app.auth.entity.User;
+import voucher.management.app.auth.entity.UserPreference;
+import voucher.management.app.auth.enums.RoleType;
+import voucher.management.app.auth.repository.UserChangeLogRepository;
+import voucher.management.app.auth.repository.UserPreferenceRepository;
+import voucher.management.app.auth.repository.UserRepository;
+import voucher.management.app.auth.service.impl.UserCache;
+
+/**
+ * Counts the SQL statements each user endpoint runs against a real database,
+ * to check that a request reads a user at most once.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@AutoConfigureMockMvc
+@DirtiesContext
+@ActiveProfiles("test")
+public class UserControllerStatementCountTest {
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private ObjectMapper objectMapper;
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserChangeLogRepository userChangeLogRepository;
+
+	@Autowired
+	private UserPreferenceRepository userPreferenceRepository;
+
+	@Autowired
+	private UserCache userCache;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private User user;
+
+	@BeforeEach
+	void setUp() {
+		user = new User("useradmin@gmail.com", "UserAdmin", "Pwd@123", RoleType.CUSTOMER, true);
+		user.setCreatedDate(LocalDateTime.now());
+		user.setVerificationCode("");
+		user.setVerified(true);
+		user.setPreferences("food");
+		user = userRepository.save(user);
+
+		userCache.clear();
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		userChangeLogRepository.deleteAll();
+		userPreferenceRepository.deleteAll();
+		userRepository.deleteAll();
+	}
+
+	@Test
+	void testUpdateUserReadsUserOnce() throws Exception {
+		UserRequest userRequest = new UserRequest(user.getEmail(), "Pwd@456", "Admin", RoleType.CUSTOMER, true,
+				new ArrayList<>(List.of("clothing")));
+
+		mockMvc.perform(MockMvcRequestBuilders.put("/api/users/{id}", user.getUserId())
+				.header("X-User-Id", user.getUserId()).contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(userRequest)))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+
+		// the user and the bulk delete of its preference rows
+		assertThat(readStatements()).isEqualTo(2);
+		assertThat(statistics.getEntityUpdateCount()).isEqualTo(1);
+	}
+
+	@Test
+	void testResetPasswordReadsUserOnce() throws Exception {
+		UserRequest userRequest = new UserRequest();
+		userRequest.setEmail(user.getEmail());
+		userRequest.setPassword("Pwd@456");
+
+		mockMvc.perform(MockMvcRequestBuilders.patch("/api/users/{id}/resetPassword", user.getUserId())
+				.header("X-User-Id", user.getUserId()).contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(userRequest)))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+
+		assertThat(readStatements()).isEqualTo(1);
+	}
+
+	@Test
+	void testUpdatePreferencesReadsUserOnce() throws Exception {
+		UserRequest userRequest = new UserRequest();
+		userRequest.setPreferences(new ArrayList<>(List.of("clothing", "food")));
+
+		mockMvc.perform(MockMvcRequestBuilders.patch("/api/users/{id}/preferences", user.getUserId())
+				.header("X-User-Id", user.getUserId()).contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(userRequest)))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+
+		// the user and the bulk delete of its preference rows
+		assertThat(readStatements()).isEqualTo(2);
+		assertThat(userPreferenceRepository.findAll()).extracting(UserPreference::getPreference)
+				.containsExactlyInAnyOrder("clothing", "food");
+	}
+
+	@Test
+	void testActiveUserReadsUserOnceThenFromCache() throws Exception {
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/users/{id}/active", user.getUserId())
+				.header("X-User-Id", user.getUserId()))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+		assertThat(readStatements()).isEqualTo(1);
+
+		statistics.clear();
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/users/{id}/active", user.getUserId())
+				.header("X-User-Id", user.getUserId()))
+				.andExpect(MockMvcResultMatchers.status().isOk());
+		assertThat(readStatements()).isZero();
+	}
+
+	@Test
+	void testActiveUserListLoadsNoEntities() throws Exception {
+		User other = new User("other@gmail.com", "Other", "Pwd@123", RoleType.CUSTOMER, true);
+		other.setCreatedDate(LocalDateTime.now());
+		other.setVerificationCode("");
+		other.setVerified(true);
+		other.setPreferences("");
+		userRepository.save(other);
+		statistics.clear();
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/users").header("X-User-Id", "unknown"))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.data.length()").value(2))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.data[0].username").value("Other"));
+
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void testPreferenceSearchMatchesWholePreference() throws Exception {
+		User other = new User("other@gmail.com", "Other", "Pwd@123", RoleType.CUSTOMER, true);
+		other.setCreatedDate(LocalDateTime.now());
+		other.setVerificationCode("");
+		other.setVerified(true);
+		other.setPreferences("seafood");
+		other = userRepository.save(other);
+		userPreferenceRepository.saveAll(List.of(new UserPreference("food", user.getUserId()),
+				new UserPreference("seafood", other.getUserId())));
+		statistics.clear();
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/users/preferences/{name}", "Food")
+				.header("X-User-Id", "unknown"))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.data.length()").value(1))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.data[0].email").value(user.getEmail()));
+
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	@Test
+	void testCursorPagingSeeksWithoutCount() throws Exception {
+		for (String name : List.of("Alice", "Bob")) {
+			User other = new User(name.toLowerCase() + "@gmail.com", name, "Pwd@123", RoleType.CUSTOMER, true);
+			other.setCreatedDate(LocalDateTime.now());
+			other.setVerificationCode("");
+			other.setVerified(true);
+			other.setPreferences("");
+			userRepository.save(other);
+		}
+		statistics.clear();
+
+		String body = mockMvc.perform(MockMvcRequestBuilders.get("/api/users").param("cursor", "").param("size", "2")
+				.header("X-User-Id", "unknown"))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.data[0].username").value("Alice"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.data[1].username").value("Bob"))
+				.andReturn().getResponse().getContentAsString();
+		String nextCursor = objectMapper.readTree(body).get("nextCursor").asText();
+		// the caller lookup and the page itself, no count
+		assertThat(readStatements()).isEqualTo(2);
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/users").param("cursor", nextCursor).param("size", "2")
+				.header("X-User-Id", "unknown"))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(MockMvcResultMatchers.jsonPath("$.data.length()").value(1))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.data[0].username").value("UserAdmin"))
+				.andExpect(MockMvcResultMatchers.jsonPath("$.nextCursor").doesNotExist());
+	}
+
+	@Test
+	void testExportStreamsActiveUsersInOneQuery() throws Exception {
+		User unverified = new User("unverified@gmail.com", "Unverified", "Pwd@123", RoleType.CUSTOMER, true);
+		unverified.setCreatedDate(LocalDateTime.now());
+		unverified.setVerificationCode("code");
+		unverified.setPreferences("");
+		userRepository.save(unverified);
+		statistics.clear();
+
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/users/export").header("X-User-Id", "unknown"))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+		String body = mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		String[] lines = body.split("\n");
+		assertThat(lines).hasSize(1);
+		assertThat(objectMapper.readTree(lines[0]).get("email").asText()).isEqualTo(user.getEmail());
+		assertThat(body).doesNotContain("password", "Pwd@123");
+		// the caller lookup and the export query
+		assertThat(readStatements()).isEqualTo(2);
+		assertThat(statistics.getEntityLoadCount()).isZero();
+	}
+
+	private long readStatements() {
+		return statistics.getPrepareStatementCount() - statistics.getEntityInsertCount()
+				- statistics.getEntityUpdateCount() - statistics.getEntityDeleteCount();
+	}
+}
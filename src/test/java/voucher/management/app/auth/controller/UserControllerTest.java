@@ -4,10 +4,9 @@ import static org.springframework.test.web.servlet.result.MockMvcResultHandlers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 
+import java.io.OutputStream;
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
 
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
@@ -20,21 +19,29 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.http.MediaType;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.request.MockMvcRequestBuilders;
 import org.springframework.test.web.servlet.result.MockMvcResultMatchers;
 import org.springframework.transaction.annotation.Transactional;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 
+import voucher.management.app.auth.dto.AudienceQuery;
+import voucher.management.app.auth.dto.UserCursorPage;
 import voucher.management.app.auth.dto.UserDTO;
+import voucher.management.app.auth.dto.UserListPage;
+import voucher.management.app.auth.dto.UserLoginView;
 import voucher.management.app.auth.dto.UserRequest;
 import voucher.management.app.auth.entity.User;
 import voucher.management.app.auth.enums.RoleType;
+import voucher.management.app.auth.exception.PasswordHashingRejectedException;
 import voucher.management.app.auth.repository.UserRepository;
+import voucher.management.app.auth.service.impl.AuditLogService;
 import voucher.management.app.auth.service.impl.UserService;
 import voucher.management.app.auth.utility.DTOMapper;
 import voucher.management.app.auth.utility.EncryptionUtils;
@@ -54,6 +61,9 @@ public class UserControllerTest {
 	@MockBean
 	private UserRepository userRepository;
 
+	@MockBean
+	private AuditLogService auditLogService;
+
 	@Autowired
 	private MockMvc mockMvc;
 	
@@ -96,11 +106,8 @@ public class UserControllerTest {
 	public void testGetAllUser() throws Exception {
 
 		Pageable pageable = PageRequest.of(0, 10, Sort.by("username").ascending());
-		Map<Long, List<UserDTO>> mockUserMap = new HashMap<>();
-		mockUserMap.put(0L, mockUsers);
-
 		Mockito.when(userService.findByUserId(testUser.getUserId())).thenReturn(testUser);
-		Mockito.when(userService.findActiveUsers(pageable)).thenReturn(mockUserMap);
+		Mockito.when(userService.findActiveUsers(pageable)).thenReturn(new UserListPage(mockUsers, 12, false));
 
 		mockMvc.perform(MockMvcRequestBuilders.get("/api/users")
 				.param("page", "0").param("size", "10")
@@ -109,13 +116,14 @@ public class UserControllerTest {
 		        .andExpect(MockMvcResultMatchers.status().isOk())
 				.andExpect(content().contentType(MediaType.APPLICATION_JSON))
 				.andExpect(jsonPath("$.success").value(true))
-				.andExpect(jsonPath("$.message").value("Successfully get all active verified user.")).andDo(print());
+				.andExpect(jsonPath("$.message").value("Successfully get all active verified user."))
+				.andExpect(jsonPath("$.totalRecord").value(12))
+				.andExpect(jsonPath("$.totalExact").value(false))
+				.andExpect(jsonPath("$.nextCursor").doesNotExist()).andDo(print());
 		
-		Map<Long, List<UserDTO>> emptyMockUserMap = new HashMap<>();
 		List<UserDTO> emptyMockUsers = new ArrayList<>();
-		emptyMockUserMap.put(0L, emptyMockUsers);
 
-		Mockito.when(userService.findActiveUsers(pageable)).thenReturn(emptyMockUserMap);
+		Mockito.when(userService.findActiveUsers(pageable)).thenReturn(new UserListPage(emptyMockUsers, 0, true));
 		mockMvc.perform(MockMvcRequestBuilders.get("/api/users")
 				.param("page", "0").param("size", "10")
 				.header("X-User-Id", testUser.getUserId())
@@ -125,14 +133,36 @@ public class UserControllerTest {
 				.andExpect(jsonPath("$.message").value("No Active User List.")).andDo(print());
 
 	}
+
+	@Test
+	public void testGetAllUserWithCursor() throws Exception {
+		Mockito.when(userService.findByUserId(testUser.getUserId())).thenReturn(testUser);
+		Mockito.when(userService.findActiveUsersAfter("", 500)).thenReturn(new UserCursorPage(mockUsers, "next-token"));
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/users")
+				.param("cursor", "").param("size", "100000")
+				.header("X-User-Id", testUser.getUserId()))
+				.andExpect(MockMvcResultMatchers.status().isOk())
+				.andExpect(jsonPath("$.success").value(true))
+				.andExpect(jsonPath("$.totalRecord").value(mockUsers.size()))
+				.andExpect(jsonPath("$.nextCursor").value("next-token"));
+
+		Mockito.when(userService.findActiveUsersAfter("bad", 10)).thenThrow(new IllegalArgumentException("Invalid cursor."));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/users")
+				.param("cursor", "bad").param("size", "10")
+				.header("X-User-Id", testUser.getUserId()))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest())
+				.andExpect(jsonPath("$.message").value("Invalid cursor."));
+	}
 	
 	@Test
 	public void testUserLogin() throws Exception {
 		testUser.setVerified(true);
 		Mockito.when(userService.findByUserId(testUser.getUserId())).thenReturn(testUser);
-		Mockito.when(userService.findByEmail(userRequest.getEmail())).thenReturn(testUser);
+		UserLoginView loginView = new SpelAwareProxyProjectionFactory().createProjection(UserLoginView.class, testUser);
+		Mockito.when(userService.findLoginViewByEmail(userRequest.getEmail())).thenReturn(loginView);
 
-		Mockito.when(userService.loginUser(userRequest.getEmail(), userRequest.getPassword()))
+		Mockito.when(userService.loginUser(loginView, userRequest.getPassword()))
 				.thenReturn(DTOMapper.toUserDTO(testUser));
 
 		mockMvc.perform(MockMvcRequestBuilders.post("/api/users/login").contentType(MediaType.APPLICATION_JSON)
@@ -158,6 +188,39 @@ public class UserControllerTest {
 	
 
 
+	@Test
+	public void testUserLoginBlockedAfterRepeatedFailures() throws Exception {
+		UserRequest unknownUserRequest = new UserRequest("unknown@gmail.com", "Pwd@21212");
+		for (int i = 0; i < 5; i++) {
+			mockMvc.perform(MockMvcRequestBuilders.post("/api/users/login").contentType(MediaType.APPLICATION_JSON)
+					.content(objectMapper.writeValueAsString(unknownUserRequest)))
+					.andExpect(MockMvcResultMatchers.status().isNotFound());
+		}
+
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/users/login").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(unknownUserRequest)))
+				.andExpect(MockMvcResultMatchers.status().isTooManyRequests())
+				.andExpect(MockMvcResultMatchers.header().exists("Retry-After"))
+				.andExpect(jsonPath("$.success").value(false)).andDo(print());
+		Mockito.verify(userService, Mockito.times(5)).findLoginViewByEmail("unknown@gmail.com");
+	}
+
+	@Test
+	public void testUserLoginRejectedWhenHashingIsSaturated() throws Exception {
+		testUser.setVerified(true);
+		UserLoginView loginView = new SpelAwareProxyProjectionFactory().createProjection(UserLoginView.class, testUser);
+		Mockito.when(userService.findLoginViewByEmail(userRequest.getEmail())).thenReturn(loginView);
+		Mockito.when(userService.loginUser(loginView, userRequest.getPassword()))
+				.thenThrow(new PasswordHashingRejectedException("Server is busy. Please try again later.", 2));
+
+		mockMvc.perform(MockMvcRequestBuilders.post("/api/users/login").contentType(MediaType.APPLICATION_JSON)
+				.content(objectMapper.writeValueAsString(userRequest)))
+				.andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+				.andExpect(MockMvcResultMatchers.header().string("Retry-After", "2"))
+				.andExpect(jsonPath("$.message").value("Server is busy. Please try again later."))
+				.andExpect(jsonPath("$.success").value(false)).andDo(print());
+	}
+
 	@Test
 	public void testVerifyUser() throws Exception {
 
@@ -291,10 +354,8 @@ public class UserControllerTest {
 	public void testGetAllUsersByPreferences() throws Exception {
 
 		Pageable pageable = PageRequest.of(0, 10, Sort.by("username").ascending());
-		Map<Long, List<UserDTO>> mockUserMap = new HashMap<>();
-		mockUserMap.put(0L, mockUsers);
-
-		Mockito.when(userService.findUsersByPreferences("clothing", pageable)).thenReturn(mockUserMap);
+		Mockito.when(userService.findUsersByPreferences("clothing", pageable))
+				.thenReturn(new UserListPage(mockUsers, mockUsers.size(), true));
 
 		mockMvc.perform(MockMvcRequestBuilders.get("/api/users/preferences/{preference}", "clothing").param("page", "0")
 				.param("size", "10")
@@ -312,6 +373,65 @@ public class UserControllerTest {
 
 	}
 	
+	@Test
+	void testExportActiveUsersIsAuditedWhenTheStreamEnds() throws Exception {
+
+		Mockito.when(userService.exportActiveUsers(Mockito.any())).thenAnswer(invocation -> {
+			invocation.getArgument(0, OutputStream.class).write("{}\n".getBytes());
+			return 1L;
+		});
+		MvcResult result = mockMvc.perform(MockMvcRequestBuilders.get("/api/users/export")
+				.header("X-User-Id", userRequest.getUserId()))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+		mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result)).andExpect(MockMvcResultMatchers.status().isOk());
+
+		Mockito.verify(auditLogService).sendAuditLogToSqs(Mockito.eq("200"), Mockito.any(), Mockito.any(),
+				Mockito.eq("Authentication-ExportActiveUsers"), Mockito.eq("Active user export is completed with 1 users."),
+				Mockito.any(), Mockito.eq("SUCCESS"), Mockito.eq("GET"), Mockito.any());
+
+		Mockito.when(userService.exportActiveUsers(Mockito.any()))
+				.thenThrow(new IllegalStateException("connection lost"));
+		result = mockMvc.perform(MockMvcRequestBuilders.get("/api/users/export")
+				.header("X-User-Id", userRequest.getUserId()))
+				.andExpect(MockMvcResultMatchers.request().asyncStarted()).andReturn();
+		try {
+			mockMvc.perform(MockMvcRequestBuilders.asyncDispatch(result));
+		} catch (Exception e) {
+			// the failure is rethrown so the container aborts the truncated stream
+		}
+
+		Mockito.verify(auditLogService).sendAuditLogToSqs(Mockito.eq("500"), Mockito.any(), Mockito.any(),
+				Mockito.eq("Authentication-ExportActiveUsers"),
+				Mockito.eq("Active user export is failed due to java.lang.IllegalStateException: connection lost"),
+				Mockito.any(), Mockito.eq("FAILED"), Mockito.eq("GET"), Mockito.any());
+	}
+
+	@Test
+	void testGetAudience() throws Exception {
+
+		AudienceQuery query = new AudienceQuery(List.of("food", "clothing"), null, List.of("shoes"));
+		Mockito.when(userService.findAudience(query, PageRequest.of(0, 10)))
+				.thenReturn(new UserListPage(mockUsers, mockUsers.size(), true));
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/users/audience").param("all", "food,clothing")
+				.param("none", "shoes").param("page", "0").param("size", "10")
+				.header("X-User-Id", userRequest.getUserId()))
+				.andExpect(MockMvcResultMatchers.status().isOk()).andExpect(jsonPath("$.success").value(true))
+				.andExpect(jsonPath("$.totalRecord").value(mockUsers.size()))
+				.andDo(print());
+
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/users/audience").header("X-User-Id", userRequest.getUserId()))
+				.andExpect(MockMvcResultMatchers.status().isBadRequest())
+				.andExpect(jsonPath("$.success").value(false));
+
+		Mockito.when(userService.findAudience(Mockito.any(), Mockito.any()))
+				.thenThrow(new IllegalStateException("Audience index is not ready."));
+		mockMvc.perform(MockMvcRequestBuilders.get("/api/users/audience").param("any", "food")
+				.header("X-User-Id", userRequest.getUserId()))
+				.andExpect(MockMvcResultMatchers.status().isServiceUnavailable())
+				.andExpect(jsonPath("$.message").value("Audience index is not ready."));
+	}
+	
 	@Test
 	void testDeletePreferencesByUser() throws Exception {
 		
@@ -0,0 +1,91 @@
+package voucher.management.app.auth.filter;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+
+import jakarta.servlet.DispatcherType;
+import voucher.management.app.auth.service.impl.AuditLogService;
+import voucher.management.app.auth.utility.AuditLogContext;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AuditLogFilterTest {
+
+	@Mock
+	private AuditLogService auditLogService;
+
+	@Mock
+	private AuditLogContext auditLogContext;
+
+	@InjectMocks
+	private AuditLogFilter auditLogFilter;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+	}
+
+	@Test
+	void testRecordedEventIsSentAfterResponseIsCommitted() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/users/login");
+		MockHttpServletResponse response = new MockHttpServletResponse();
+		when(auditLogContext.isRecorded()).thenReturn(true);
+		when(auditLogContext.getStatusCode()).thenReturn("200");
+		when(auditLogContext.getActivityType()).thenReturn("Authentication-LoginUser");
+		AtomicBoolean committedWhenSent = new AtomicBoolean();
+		doAnswer(invocation -> {
+			committedWhenSent.set(response.isCommitted());
+			return null;
+		}).when(auditLogService).sendAuditLogToSqs(any(), any(), any(), anyString(), any(), any(), any(), any(), any());
+
+		auditLogFilter.doFilter(request, response, new MockFilterChain());
+
+		verify(auditLogService).sendAuditLogToSqs(any(), any(), any(), anyString(), any(), any(), any(), any(), any());
+		assertThat(committedWhenSent.get()).isTrue();
+	}
+
+	@Test
+	void testStreamedResponseIsAuditedOnAsyncDispatch() throws Exception {
+		MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/users/export");
+		request.setAsyncSupported(true);
+		request.setAsyncStarted(true);
+		when(auditLogContext.isRecorded()).thenReturn(true);
+		when(auditLogContext.getActivityType()).thenReturn("Authentication-ExportActiveUsers");
+
+		auditLogFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		verify(auditLogService, never()).sendAuditLogToSqs(any(), any(), any(), any(), any(), any(), any(), any(),
+				any());
+
+		request.setAsyncStarted(false);
+		request.setDispatcherType(DispatcherType.ASYNC);
+		auditLogFilter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+		verify(auditLogService).sendAuditLogToSqs(any(), any(), any(), anyString(), any(), any(), any(), any(), any());
+	}
+
+	@Test
+	void testNothingIsSentWhenNothingWasRecorded() throws Exception {
+		auditLogFilter.doFilter(new MockHttpServletRequest("GET", "/actuator/health"), new MockHttpServletResponse(),
+				new MockFilterChain());
+
+		verify(auditLogService, never()).sendAuditLogToSqs(any(), any(), any(), any(), any(), any(), any(), any(),
+				any());
+	}
+}
@@ -0,0 +1,70 @@
+package voucher.management.app.auth.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.flyway.FlywayProperties;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.context.ActiveProfiles;
+
+/**
+ * Runs the migrations, with the Flyway settings the application uses, against
+ * a database that still has the schema Hibernate created before Flyway took
+ * over: a user table and no history table.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class SchemaMigrationTest {
+
+	private static final String LEGACY_USER_TABLE = "create table user ("
+			+ "user_id varchar(255) not null, email varchar(255) not null, username varchar(255) not null, "
+			+ "password varchar(255) not null, role enum ('ADMIN','CUSTOMER','MERCHANT') not null, "
+			+ "created_date datetime default now() not null, updated_date datetime, "
+			+ "is_active boolean default true not null, last_login_date datetime, "
+			+ "verification_code varchar(255) default '' not null, is_verified boolean default false not null, "
+			+ "preferences varchar(255), primary key (user_id), unique (email))";
+
+	@Autowired
+	private FlywayProperties flywayProperties;
+
+	private DriverManagerDataSource dataSource;
+	private JdbcTemplate jdbcTemplate;
+
+	@BeforeEach
+	void setUp() {
+		dataSource = new DriverManagerDataSource("jdbc:h2:mem:legacydb;NON_KEYWORDS=user;DB_CLOSE_DELAY=-1", "sa",
+				"");
+		jdbcTemplate = new JdbcTemplate(dataSource);
+		jdbcTemplate.execute(LEGACY_USER_TABLE);
+		jdbcTemplate.update("insert into user (user_id, email, username, password, role, is_verified, preferences) "
+				+ "values ('1', 'user1@gmail.com', 'User1', 'Pwd@123', 'CUSTOMER', true, 'food,Clothing')");
+	}
+
+	@AfterEach
+	void tearDown() {
+		jdbcTemplate.execute("drop all objects");
+	}
+
+	@Test
+	void testMigratesLegacySchema() {
+		Flyway flyway = Flyway.configure().dataSource(dataSource)
+				.locations(flywayProperties.getLocations().stream().map(location -> location.replace("{vendor}", "h2"))
+						.toArray(String[]::new))
+				.baselineOnMigrate(flywayProperties.isBaselineOnMigrate())
+				.baselineVersion(flywayProperties.getBaselineVersion()).load();
+
+		flyway.migrate();
+
+		assertThat(flyway.info().pending()).isEmpty();
+		assertThat(jdbcTemplate.queryForObject("select count(*) from user", Integer.class)).isEqualTo(1);
+		assertThat(jdbcTemplate.queryForObject("select count(*) from user_change_log", Integer.class)).isZero();
+		assertThat(jdbcTemplate.queryForList("select preference from user_preference where user_id = '1' "
+				+ "order by preference", String.class)).containsExactly("clothing", "food");
+	}
+}
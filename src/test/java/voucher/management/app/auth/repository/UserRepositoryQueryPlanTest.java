@@ -0,0 +1,165 @@
+package voucher.management.app.auth.repository;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.stream.Stream;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.annotation.DirtiesContext;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import voucher.management.app.auth.dto.UserSummary;
+import voucher.management.app.auth.enums.RoleType;
+
+/**
+ * Runs {@code EXPLAIN} on the SQL that Hibernate sends for each repository
+ * query, against the schema built by the migrations, and fails if any of them
+ * scans a whole table.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector="
+		+ "voucher.management.app.auth.repository.UserRepositoryQueryPlanTest$RecordingStatementInspector")
+@DirtiesContext
+@ActiveProfiles("test")
+public class UserRepositoryQueryPlanTest {
+
+	private static final Queue<String> statements = new ConcurrentLinkedQueue<>();
+
+	public static class RecordingStatementInspector implements StatementInspector {
+		private static final long serialVersionUID = 1L;
+
+		@Override
+		public String inspect(String sql) {
+			statements.add(sql);
+			return sql;
+		}
+	}
+
+	@Autowired
+	private UserRepository userRepository;
+
+	@Autowired
+	private UserChangeLogRepository userChangeLogRepository;
+
+	@Autowired
+	private UserPreferenceRepository userPreferenceRepository;
+
+	@Autowired
+	private JdbcTemplate jdbcTemplate;
+
+	@Autowired
+	private PlatformTransactionManager transactionManager;
+
+	@BeforeEach
+	void setUp() {
+		statements.clear();
+	}
+
+	@Test
+	void testActiveUserListUsesIndex() {
+		userRepository.findActiveUserList(true, true, PageRequest.of(0, 10, Sort.by("username").ascending()));
+		userRepository.findActiveUserSlice(true, true, PageRequest.of(0, 10, Sort.by("username").ascending()));
+		userRepository.countActiveUsers(true, true);
+		userRepository.findActiveUserListAfter(true, true, "UserAdmin", "1", PageRequest.of(0, 10));
+
+		assertNoTableScan(4);
+	}
+
+	@Test
+	void testActiveUserStreamUsesIndex() {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+		transactionTemplate.executeWithoutResult(status -> {
+			try (Stream<UserSummary> users = userRepository.streamActiveUsers(true, true)) {
+				users.count();
+			}
+		});
+
+		assertNoTableScan(1);
+	}
+
+	@Test
+	void testAudienceQueriesUseIndex() {
+		TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+		transactionTemplate.setReadOnly(true);
+		transactionTemplate.executeWithoutResult(status -> {
+			try (Stream<UserSummary> users = userRepository.streamActiveUsersByRole(true, true, RoleType.CUSTOMER)) {
+				users.count();
+			}
+		});
+		userRepository.findSummariesByUserIds(List.of("1", "2"));
+
+		assertNoTableScan(2);
+	}
+
+	@Test
+	void testPreferenceSearchUsesIndex() {
+		userRepository.findByPreferences("food", true, true, RoleType.CUSTOMER,
+				PageRequest.of(0, 10, Sort.by("username").ascending()));
+		userRepository.findSliceByPreferences("food", true, true, RoleType.CUSTOMER,
+				PageRequest.of(0, 10, Sort.by("username").ascending()));
+		userRepository.countByPreferences("food", true, true, RoleType.CUSTOMER);
+
+		assertNoTableScan(3);
+	}
+
+	@Test
+	void testVerificationCodeLookupUsesIndex() {
+		userRepository.findByVerificationCode("code", false, true);
+
+		assertNoTableScan(1);
+	}
+
+	@Test
+	void testEmailLookupsUseIndex() {
+		userRepository.findByEmail("useradmin@gmail.com");
+		userRepository.findLoginViewByEmail("useradmin@gmail.com");
+		userRepository.findByEmailAndStatus("useradmin@gmail.com", true, true);
+		userRepository.findEmailsCreatedSince(LocalDateTime.now());
+
+		assertNoTableScan(4);
+	}
+
+	@Test
+	void testUserIdLookupsUseIndex() {
+		userRepository.findByUserId("1");
+		userRepository.findByUserIdAndStatus("1", true, true);
+		userRepository.updatePassword("1", "Pwd@123");
+		userPreferenceRepository.deleteByUserId("1");
+
+		assertNoTableScan(4);
+	}
+
+	@Test
+	void testChangeLogQueriesUseIndex() {
+		userChangeLogRepository.findChangesAfter(0L, PageRequest.of(0, 10));
+		userChangeLogRepository.findChangesSince(LocalDateTime.now());
+		userChangeLogRepository.findLatestChangeId();
+		userChangeLogRepository.deleteChangesBefore(LocalDateTime.now());
+
+		assertNoTableScan(4);
+	}
+
+	private void assertNoTableScan(int expectedStatements) {
+		List<String> recorded = new ArrayList<>(statements);
+		assertThat(recorded).hasSize(expectedStatements);
+		for (String sql : recorded) {
+			String plan = jdbcTemplate.query(connection -> connection.prepareStatement("EXPLAIN " + sql),
+					resultSet -> resultSet.next() ? resultSet.getString(1) : null);
+			assertThat(plan).as(sql).isNotNull().doesNotContain("tableScan");
+		}
+	}
+}
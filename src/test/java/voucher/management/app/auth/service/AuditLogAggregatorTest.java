@@ -0,0 +1,91 @@
+package voucher.management.app.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import voucher.management.app.auth.dto.AuditLogRequest;
+import voucher.management.app.auth.service.impl.AuditLogAggregator;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AuditLogAggregatorTest {
+
+	private AuditLogAggregator auditLogAggregator;
+
+	private List<AuditLogRequest> emitted;
+
+	@BeforeEach
+	void setUp() {
+		auditLogAggregator = new AuditLogAggregator();
+		ReflectionTestUtils.setField(auditLogAggregator, "windowMs", 1000L);
+		ReflectionTestUtils.setField(auditLogAggregator, "maxKeys", 2);
+		ReflectionTestUtils.setField(auditLogAggregator, "activityTypes",
+				Set.of("Authentication-RetrieveActiveUserByUserId"));
+		emitted = new ArrayList<>();
+		auditLogAggregator.setSink(emitted::add);
+	}
+
+	@Test
+	void testRepeatedEventsAreCoalescedIntoOneRecord() {
+		for (int i = 0; i < 1000; i++) {
+			assertThat(auditLogAggregator.add(userLookup("user1"), 10_000 + i)).isTrue();
+		}
+		assertThat(auditLogAggregator.add(userLookup("user2"), 10_500)).isTrue();
+
+		assertThat(auditLogAggregator.flushExpired(10_999)).isZero();
+		assertThat(auditLogAggregator.flushExpired(11_000)).isEqualTo(1);
+
+		AuditLogRequest summary = emitted.get(0);
+		assertThat(summary.getUserId()).isEqualTo("user1");
+		assertThat(summary.getCount()).isEqualTo(1000);
+		assertThat(summary.getFirstOccurredAt()).isEqualTo("1970-01-01T00:00:10Z");
+		assertThat(summary.getLastOccurredAt()).isEqualTo("1970-01-01T00:00:10.999Z");
+
+		assertThat(auditLogAggregator.flushExpired(11_500)).isEqualTo(1);
+		assertThat(emitted.get(1).getUserId()).isEqualTo("user2");
+		assertThat(emitted.get(1).getCount()).isNull();
+	}
+
+	@Test
+	void testEventsPassThroughWhenKeyLimitIsReached() {
+		assertThat(auditLogAggregator.add(userLookup("user1"), 0)).isTrue();
+		assertThat(auditLogAggregator.add(userLookup("user2"), 0)).isTrue();
+
+		assertThat(auditLogAggregator.add(userLookup("user3"), 0)).isFalse();
+		assertThat(auditLogAggregator.add(userLookup("user1"), 0)).isTrue();
+		assertThat(auditLogAggregator.getOpenKeys()).isEqualTo(2);
+	}
+
+	@Test
+	void testOnlySuccessfulEventsOfListedTypesAreTaken() {
+		AuditLogRequest failedLookup = userLookup("user1");
+		failedLookup.setStatusCode("404");
+		failedLookup.setResponseStatus("FAILED");
+		assertThat(auditLogAggregator.add(failedLookup, 0)).isFalse();
+
+		AuditLogRequest login = userLookup("user1");
+		login.setActivityType("Authentication-Login");
+		assertThat(auditLogAggregator.add(login, 0)).isFalse();
+
+		assertThat(auditLogAggregator.getOpenKeys()).isZero();
+	}
+
+	private AuditLogRequest userLookup(String userId) {
+		AuditLogRequest auditLogRequest = new AuditLogRequest();
+		auditLogRequest.setStatusCode("200");
+		auditLogRequest.setUserId(userId);
+		auditLogRequest.setActivityType("Authentication-RetrieveActiveUserByUserId");
+		auditLogRequest.setResponseStatus("SUCCESS");
+		auditLogRequest.setRemarks("");
+		return auditLogRequest;
+	}
+}
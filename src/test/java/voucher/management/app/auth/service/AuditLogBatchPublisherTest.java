@@ -0,0 +1,123 @@
+package voucher.management.app.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.BatchResultErrorEntry;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+import voucher.management.app.auth.configuration.AWSConfig;
+import voucher.management.app.auth.service.impl.AuditLogBatchPublisher;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AuditLogBatchPublisherTest {
+
+	@Mock
+	private SqsAsyncClient sqsAsyncClient;
+
+	@Mock
+	private AWSConfig awsConfig;
+
+	@InjectMocks
+	private AuditLogBatchPublisher auditLogBatchPublisher;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(auditLogBatchPublisher, "queueCapacity", 100);
+		ReflectionTestUtils.setField(auditLogBatchPublisher, "lingerMs", 20L);
+		ReflectionTestUtils.setField(auditLogBatchPublisher, "maxRetries", 2);
+		ReflectionTestUtils.setField(auditLogBatchPublisher, "retryBackoffMs", 1L);
+		ReflectionTestUtils.setField(auditLogBatchPublisher, "maxInFlight", 4);
+		ReflectionTestUtils.setField(auditLogBatchPublisher, "meterRegistry", new SimpleMeterRegistry());
+		when(awsConfig.getSQSUrl()).thenReturn("https://sqs.aws-region.amazonaws.com/123456789012/MyQueue");
+	}
+
+	@AfterEach
+	void tearDown() {
+		auditLogBatchPublisher.stop();
+	}
+
+	@Test
+	void testPublishFlushesInBatchesOfTen() throws Exception {
+		when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenAnswer(invocation -> {
+			SendMessageBatchRequest request = invocation.getArgument(0);
+			List<SendMessageBatchResultEntry> successful = new ArrayList<>();
+			request.entries().forEach(entry -> successful.add(SendMessageBatchResultEntry.builder().id(entry.id()).build()));
+			return CompletableFuture.completedFuture(SendMessageBatchResponse.builder().successful(successful).build());
+		});
+		ReflectionTestUtils.setField(auditLogBatchPublisher, "lingerMs", 1000L);
+		auditLogBatchPublisher.start();
+
+		for (int i = 0; i < 25; i++) {
+			assertThat(auditLogBatchPublisher.publish("{\"statusCode\":\"200\"}".getBytes(StandardCharsets.UTF_8))).isTrue();
+		}
+		waitForSent(25);
+
+		ArgumentCaptor<SendMessageBatchRequest> requestCaptor = ArgumentCaptor.forClass(SendMessageBatchRequest.class);
+		verify(sqsAsyncClient, times(3)).sendMessageBatch(requestCaptor.capture());
+		assertThat(requestCaptor.getAllValues()).allSatisfy(request -> assertThat(request.entries()).hasSizeLessThanOrEqualTo(10));
+		assertThat(auditLogBatchPublisher.getBatchCount()).isEqualTo(3);
+	}
+
+	@Test
+	void testPartialFailureIsRetriedPerEntry() throws Exception {
+		SendMessageBatchResponse partialFailure = SendMessageBatchResponse.builder()
+				.successful(SendMessageBatchResultEntry.builder().id("0").build())
+				.failed(BatchResultErrorEntry.builder().id("1").senderFault(false).code("ServiceUnavailable").build())
+				.build();
+		SendMessageBatchResponse success = SendMessageBatchResponse.builder()
+				.successful(SendMessageBatchResultEntry.builder().id("0").build()).build();
+		when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class)))
+				.thenReturn(CompletableFuture.completedFuture(partialFailure), CompletableFuture.completedFuture(success));
+		auditLogBatchPublisher.start();
+
+		auditLogBatchPublisher.publish("{\"statusCode\":\"200\"}".getBytes(StandardCharsets.UTF_8));
+		auditLogBatchPublisher.publish("{\"statusCode\":\"500\"}".getBytes(StandardCharsets.UTF_8));
+		waitForSent(2);
+
+		assertThat(auditLogBatchPublisher.getRetriedCount()).isEqualTo(1);
+		assertThat(auditLogBatchPublisher.getFailedCount()).isZero();
+	}
+
+	@Test
+	void testOversizedMessageIsDropped() {
+		auditLogBatchPublisher.start();
+
+		String oversized = "x".repeat(AuditLogBatchPublisher.MAX_BATCH_BYTES + 1);
+
+		assertThat(auditLogBatchPublisher.publish(oversized.getBytes(StandardCharsets.UTF_8))).isFalse();
+		assertThat(auditLogBatchPublisher.getDroppedCount()).isEqualTo(1);
+	}
+
+	private void waitForSent(long expected) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (auditLogBatchPublisher.getSentCount() < expected && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(auditLogBatchPublisher.getSentCount()).isEqualTo(expected);
+	}
+}
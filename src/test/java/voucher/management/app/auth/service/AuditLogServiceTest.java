@@ -1,26 +1,30 @@
-
-
 package voucher.management.app.auth.service;
 
 import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
 
-import com.amazonaws.services.sqs.AmazonSQS;
-import com.amazonaws.services.sqs.model.SendMessageRequest;
-import com.amazonaws.services.sqs.model.SendMessageResult;
 import org.junit.jupiter.api.BeforeEach;
 
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.mockito.Spy;
 import static org.mockito.Mockito.*;
 import static org.assertj.core.api.Assertions.assertThat;
 
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+import java.util.concurrent.Executor;
+
 import jakarta.transaction.Transactional;
-import voucher.management.app.auth.configuration.AWSConfig;
+import voucher.management.app.auth.service.impl.AuditLogAggregator;
 import voucher.management.app.auth.service.impl.AuditLogService;
+import voucher.management.app.auth.service.impl.AuditSamplingPolicy;
+import voucher.management.app.auth.utility.AuditLogSerializer;
 
 @SpringBootTest
 @Transactional
@@ -28,11 +32,14 @@ import voucher.management.app.auth.service.impl.AuditLogService;
 @DirtiesContext(classMode = DirtiesContext.ClassMode.BEFORE_EACH_TEST_METHOD)
 public class AuditLogServiceTest {
 	
-	   @Mock
-	    private AmazonSQS sqs;
+	    @Mock
+	    private IAuditSink auditSink;
+
+	    @Spy
+	    private AuditLogSerializer auditLogSerializer;
 
 	    @Mock
-	    private AWSConfig awsConfig;
+	    private AuditSamplingPolicy auditSamplingPolicy;
 
 	    @InjectMocks
 	    private AuditLogService auditLogService;
@@ -41,30 +48,79 @@ public class AuditLogServiceTest {
 	    @BeforeEach
 	    void setUp() {
 	        MockitoAnnotations.openMocks(this);
+	        ReflectionTestUtils.setField(auditLogService, "auditExecutor", (Executor) Runnable::run);
 	    }
 
 	    @Test
 	    void testSendAuditLogToSqs_success() {
 	       
-	        String queueUrl = "https://sqs.aws-region.amazonaws.com/123456789012/MyQueue";
-	        String auditLogRequest = "Sample Audit Log";
-	        
-	        SendMessageResult sendMessageResult = new SendMessageResult();
-	        sendMessageResult.setMessageId("12345");
-
-	        when(awsConfig.getSQSUrl()).thenReturn(queueUrl);
-	        when(sqs.sendMessage(any(SendMessageRequest.class))).thenReturn(sendMessageResult);
-
-		    SendMessageRequest sendMessageRequest = new SendMessageRequest()
-		            .withQueueUrl(queueUrl)
-		            .withMessageBody(auditLogRequest);
-		    
-		    SendMessageResult sendMessageReponse = sqs.sendMessage(sendMessageRequest);
+	        when(auditSink.send(any(byte[].class))).thenReturn(true);
 
 	        auditLogService.sendAuditLogToSqs("200", "user1", "john.doe", "LOGIN", "User logged in",
 	                "/login", "200 OK", "POST", "No remarks");
 	        
-	        assertThat(sendMessageReponse.getMessageId()).isNotNull();
+	        ArgumentCaptor<byte[]> messageCaptor = ArgumentCaptor.forClass(byte[].class);
+	        verify(auditSink).send(messageCaptor.capture());
+	        String message = new String(messageCaptor.getValue(), StandardCharsets.UTF_8);
+	        assertThat(message).contains("\"userId\":\"user1\"");
+	        assertThat(message).contains("\"activityType\":\"LOGIN\"");
+	    }
+
+	    @Test
+	    void testSendAuditLogToSqs_sampledOut() {
+
+	        when(auditSamplingPolicy.isSampledOut("200", "Authentication-RetrieveAllActiveUsers", "SUCCESS", "GET"))
+	                .thenReturn(true);
+
+	        auditLogService.sendAuditLogToSqs("200", "user1", "john.doe", "Authentication-RetrieveAllActiveUsers",
+	                "Retrieve all active users", "/api/users", "SUCCESS", "GET", "");
+
+	        verify(auditSink, never()).send(any(byte[].class));
+	    }
+
+	    @Test
+	    void testSendAuditLogToSqs_aggregatedReadsAreNotSampled() {
+
+	        AuditLogAggregator auditLogAggregator = aggregator();
+	        when(auditSamplingPolicy.isSampledOut(anyString(), anyString(), anyString(), anyString())).thenReturn(true);
+	        when(auditSink.send(any(byte[].class))).thenReturn(true);
+
+	        for (int i = 0; i < 3; i++) {
+	            auditLogService.sendAuditLogToSqs("200", "user1", "john.doe", "Authentication-RetrieveAllActiveUsers",
+	                    "Retrieve all active users", "/api/users", "SUCCESS", "GET", "");
+	        }
+	        verify(auditSink, never()).send(any(byte[].class));
+	        verify(auditSamplingPolicy, never()).isSampledOut(anyString(), anyString(), anyString(), anyString());
+
+	        auditLogAggregator.flushExpired(Long.MAX_VALUE);
+
+	        ArgumentCaptor<byte[]> messageCaptor = ArgumentCaptor.forClass(byte[].class);
+	        verify(auditSink).send(messageCaptor.capture());
+	        assertThat(new String(messageCaptor.getValue(), StandardCharsets.UTF_8)).contains("\"count\":3");
+	    }
+
+	    @Test
+	    void testSendAuditLogToSqs_failuresAreNotHeldForAggregation() {
+
+	        AuditLogAggregator auditLogAggregator = aggregator();
+	        when(auditSink.send(any(byte[].class))).thenReturn(true);
+
+	        auditLogService.sendAuditLogToSqs("500", "user1", "john.doe", "Authentication-RetrieveAllActiveUsers",
+	                "Retrieve all active users", "/api/users", "FAILED", "GET", "");
+
+	        verify(auditSink).send(any(byte[].class));
+	        assertThat(auditLogAggregator.getOpenKeys()).isZero();
+	    }
+
+	    private AuditLogAggregator aggregator() {
+	        AuditLogAggregator auditLogAggregator = new AuditLogAggregator();
+	        ReflectionTestUtils.setField(auditLogAggregator, "windowMs", 5000L);
+	        ReflectionTestUtils.setField(auditLogAggregator, "maxKeys", 10);
+	        ReflectionTestUtils.setField(auditLogAggregator, "activityTypes",
+	                Set.of("Authentication-RetrieveAllActiveUsers"));
+	        ReflectionTestUtils.setField(auditLogService, "auditLogAggregator", auditLogAggregator);
+	        auditLogService.init();
+	        return auditLogAggregator;
 	    }
 
 	}
@@ -0,0 +1,159 @@
+package voucher.management.app.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.when;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import software.amazon.awssdk.services.sqs.SqsAsyncClient;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchRequest;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResponse;
+import software.amazon.awssdk.services.sqs.model.SendMessageBatchResultEntry;
+import voucher.management.app.auth.configuration.AWSConfig;
+import voucher.management.app.auth.service.impl.AuditLogBatchPublisher;
+import voucher.management.app.auth.service.impl.AuditLogSpool;
+import voucher.management.app.auth.service.impl.AuditLogSpoolReplayer;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AuditLogSpoolReplayerTest {
+
+	@Mock
+	private SqsAsyncClient sqsAsyncClient;
+
+	@Mock
+	private AWSConfig awsConfig;
+
+	@InjectMocks
+	private AuditLogBatchPublisher auditLogBatchPublisher;
+
+	private AuditLogSpool auditLogSpool;
+	private AuditLogSpoolReplayer auditLogSpoolReplayer;
+	private Path spoolDirectory;
+
+	private final List<SendMessageBatchRequest> requests = new ArrayList<>();
+	private final List<CompletableFuture<SendMessageBatchResponse>> responses = new ArrayList<>();
+
+	@BeforeEach
+	void setUp() throws IOException {
+		MockitoAnnotations.openMocks(this);
+		when(awsConfig.getSQSUrl()).thenReturn("https://sqs.aws-region.amazonaws.com/123456789012/MyQueue");
+		when(sqsAsyncClient.sendMessageBatch(any(SendMessageBatchRequest.class))).thenAnswer(invocation -> {
+			CompletableFuture<SendMessageBatchResponse> response = new CompletableFuture<>();
+			synchronized (requests) {
+				requests.add(invocation.getArgument(0));
+				responses.add(response);
+			}
+			return response;
+		});
+		ReflectionTestUtils.setField(auditLogBatchPublisher, "queueCapacity", 100);
+		ReflectionTestUtils.setField(auditLogBatchPublisher, "lingerMs", 20L);
+		ReflectionTestUtils.setField(auditLogBatchPublisher, "maxInFlight", 3);
+		ReflectionTestUtils.setField(auditLogBatchPublisher, "meterRegistry", new SimpleMeterRegistry());
+		auditLogBatchPublisher.start();
+
+		spoolDirectory = Files.createTempDirectory("audit-spool");
+		auditLogSpool = new AuditLogSpool();
+		ReflectionTestUtils.setField(auditLogSpool, "spoolPath", spoolDirectory.toString());
+		ReflectionTestUtils.setField(auditLogSpool, "segmentSize", 4096);
+		ReflectionTestUtils.setField(auditLogSpool, "maxSegments", 8);
+		auditLogSpool.open();
+
+		auditLogSpoolReplayer = new AuditLogSpoolReplayer();
+		ReflectionTestUtils.setField(auditLogSpoolReplayer, "auditLogSpool", auditLogSpool);
+		ReflectionTestUtils.setField(auditLogSpoolReplayer, "auditLogBatchPublisher", auditLogBatchPublisher);
+		ReflectionTestUtils.setField(auditLogSpoolReplayer, "pollIntervalMs", 10L);
+		ReflectionTestUtils.setField(auditLogSpoolReplayer, "maxBackoffMs", 100L);
+		ReflectionTestUtils.setField(auditLogSpoolReplayer, "forceIntervalMs", 1000L);
+		ReflectionTestUtils.setField(auditLogSpoolReplayer, "maxInFlight", 3);
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		auditLogSpoolReplayer.stop();
+		auditLogBatchPublisher.stop();
+		auditLogSpool.close();
+		try (Stream<Path> files = Files.walk(spoolDirectory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+		}
+	}
+
+	@Test
+	void testBatchesAreSentConcurrentlyAndCheckpointedInOrder() throws Exception {
+		for (int i = 0; i < 40; i++) {
+			auditLogSpool.append(("{\"event\":" + i + "}").getBytes(StandardCharsets.UTF_8));
+		}
+		AuditLogSpool.Position start = auditLogSpool.getCheckpoint();
+
+		auditLogSpoolReplayer.start();
+
+		waitFor(() -> sentBatches() == 3);
+		Thread.sleep(50);
+		assertThat(sentBatches()).isEqualTo(3);
+		assertThat(auditLogBatchPublisher.getInFlightBatches()).isEqualTo(3);
+
+		// a later batch finishing first must not move the checkpoint past an earlier one
+		accept(1);
+		waitFor(() -> sentBatches() == 4);
+		assertThat(auditLogSpool.getCheckpoint()).isEqualTo(start);
+
+		accept(0);
+		waitFor(() -> firstRecordAfterCheckpoint().equals("{\"event\":20}"));
+	}
+
+	private void accept(int index) {
+		SendMessageBatchRequest request;
+		CompletableFuture<SendMessageBatchResponse> response;
+		synchronized (requests) {
+			request = requests.get(index);
+			response = responses.get(index);
+		}
+		List<SendMessageBatchResultEntry> successful = new ArrayList<>();
+		request.entries().forEach(entry -> successful.add(SendMessageBatchResultEntry.builder().id(entry.id()).build()));
+		response.complete(SendMessageBatchResponse.builder().successful(successful).build());
+	}
+
+	private int sentBatches() {
+		synchronized (requests) {
+			return requests.size();
+		}
+	}
+
+	private String firstRecordAfterCheckpoint() {
+		try {
+			List<byte[]> records = auditLogSpool.read(auditLogSpool.getCheckpoint(), 1, 1024).records();
+			return records.isEmpty() ? "" : new String(records.get(0), StandardCharsets.UTF_8);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	private void waitFor(BooleanSupplier condition) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 5000;
+		while (!condition.getAsBoolean() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(10);
+		}
+		assertThat(condition.getAsBoolean()).isTrue();
+	}
+}
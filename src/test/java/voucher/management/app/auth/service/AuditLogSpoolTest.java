@@ -0,0 +1,112 @@
+package voucher.management.app.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import voucher.management.app.auth.service.impl.AuditLogSpool;
+import voucher.management.app.auth.service.impl.AuditLogSpool.Position;
+import voucher.management.app.auth.service.impl.AuditLogSpool.ReadResult;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AuditLogSpoolTest {
+
+	private Path spoolDirectory;
+
+	private AuditLogSpool auditLogSpool;
+
+	@BeforeEach
+	void setUp() throws IOException {
+		spoolDirectory = Files.createTempDirectory("audit-spool");
+		auditLogSpool = openSpool();
+	}
+
+	@AfterEach
+	void tearDown() throws IOException {
+		auditLogSpool.close();
+		try (Stream<Path> files = Files.walk(spoolDirectory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+		}
+	}
+
+	@Test
+	void testAppendAndReadAcrossSegments() throws IOException {
+		for (int i = 0; i < 20; i++) {
+			assertThat(auditLogSpool.append(("{\"event\":" + i + "}").getBytes(StandardCharsets.UTF_8))).isTrue();
+		}
+
+		List<String> replayed = readAll(auditLogSpool);
+
+		assertThat(replayed).hasSize(20);
+		assertThat(replayed.get(0)).isEqualTo("{\"event\":0}");
+		assertThat(replayed.get(19)).isEqualTo("{\"event\":19}");
+		assertThat(auditLogSpool.getWritePosition().segment()).isGreaterThan(1);
+	}
+
+	@Test
+	void testReopenResumesFromCheckpoint() throws IOException {
+		for (int i = 0; i < 6; i++) {
+			auditLogSpool.append(("{\"event\":" + i + "}").getBytes(StandardCharsets.UTF_8));
+		}
+		ReadResult firstBatch = auditLogSpool.read(auditLogSpool.getCheckpoint(), 4, 1024);
+		auditLogSpool.checkpoint(firstBatch.next());
+		auditLogSpool.close();
+
+		auditLogSpool = openSpool();
+		auditLogSpool.append("{\"event\":6}".getBytes(StandardCharsets.UTF_8));
+
+		List<String> replayed = readAll(auditLogSpool);
+		assertThat(replayed).containsExactly("{\"event\":4}", "{\"event\":5}", "{\"event\":6}");
+	}
+
+	@Test
+	void testRejectsWhenSpoolIsFull() {
+		ReflectionTestUtils.setField(auditLogSpool, "maxSegments", 2);
+		int accepted = 0;
+		for (int i = 0; i < 50; i++) {
+			if (auditLogSpool.append(("{\"event\":" + i + "}").getBytes(StandardCharsets.UTF_8))) {
+				accepted++;
+			}
+		}
+
+		assertThat(accepted).isLessThan(50);
+		assertThat(auditLogSpool.getRejectedCount()).isEqualTo(50 - accepted);
+	}
+
+	private AuditLogSpool openSpool() throws IOException {
+		AuditLogSpool spool = new AuditLogSpool();
+		ReflectionTestUtils.setField(spool, "spoolPath", spoolDirectory.toString());
+		ReflectionTestUtils.setField(spool, "segmentSize", 64);
+		ReflectionTestUtils.setField(spool, "maxSegments", 64);
+		spool.open();
+		return spool;
+	}
+
+	private List<String> readAll(AuditLogSpool spool) throws IOException {
+		List<String> replayed = new ArrayList<>();
+		Position position = spool.getCheckpoint();
+		ReadResult result;
+		do {
+			result = spool.read(position, 10, 1024);
+			result.records().forEach(record -> replayed.add(new String(record, StandardCharsets.UTF_8)));
+			position = result.next();
+			spool.checkpoint(position);
+		} while (!result.records().isEmpty());
+		return replayed;
+	}
+}
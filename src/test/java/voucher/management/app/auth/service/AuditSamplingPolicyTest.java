@@ -0,0 +1,73 @@
+package voucher.management.app.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.when;
+
+import java.util.Map;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import voucher.management.app.auth.service.impl.AuditSamplingPolicy;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AuditSamplingPolicyTest {
+
+	private static final String ACTIVITY_TYPE = "Authentication-RetrieveAllActiveUsers";
+
+	@Mock
+	private IAuditSink auditSink;
+
+	@InjectMocks
+	private AuditSamplingPolicy auditSamplingPolicy;
+
+	private ThreadPoolTaskExecutor auditExecutor;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		auditExecutor = new ThreadPoolTaskExecutor();
+		auditExecutor.setQueueCapacity(100);
+		auditExecutor.initialize();
+		ReflectionTestUtils.setField(auditSamplingPolicy, "auditExecutor", auditExecutor);
+		auditSamplingPolicy.setRates(Map.of(ACTIVITY_TYPE, 0.0));
+	}
+
+	@AfterEach
+	void tearDown() {
+		auditExecutor.shutdown();
+	}
+
+	@Test
+	void testFailuresAndMutationsAreAlwaysKept() {
+		assertThat(auditSamplingPolicy.isSampledOut("200", ACTIVITY_TYPE, "SUCCESS", "GET")).isTrue();
+		assertThat(auditSamplingPolicy.isSampledOut("404", ACTIVITY_TYPE, "SUCCESS", "GET")).isFalse();
+		assertThat(auditSamplingPolicy.isSampledOut("500", ACTIVITY_TYPE, "FAILED", "GET")).isFalse();
+		assertThat(auditSamplingPolicy.isSampledOut("200", ACTIVITY_TYPE, "SUCCESS", "POST")).isFalse();
+		assertThat(auditSamplingPolicy.isSampledOut("200", "Authentication-LoginUser", "SUCCESS", "GET")).isFalse();
+		assertThat(auditSamplingPolicy.getSampledOutCount()).isEqualTo(1);
+	}
+
+	@Test
+	void testRateDropsAsTheQueueBacksUp() {
+		auditSamplingPolicy.setRates(Map.of(ACTIVITY_TYPE, 0.5));
+
+		when(auditSink.getUtilisation()).thenReturn(0.4);
+		assertThat(auditSamplingPolicy.effectiveRate(ACTIVITY_TYPE)).isEqualTo(0.5);
+
+		when(auditSink.getUtilisation()).thenReturn(0.75);
+		assertThat(auditSamplingPolicy.effectiveRate(ACTIVITY_TYPE)).isEqualTo(0.25);
+
+		when(auditSink.getUtilisation()).thenReturn(1.0);
+		assertThat(auditSamplingPolicy.effectiveRate(ACTIVITY_TYPE)).isEqualTo(0.01);
+	}
+}
@@ -0,0 +1,93 @@
+package voucher.management.app.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Behaviour every {@link IAuditSink} must provide. Each implementation has a
+ * subclass that creates the sink and reads back what it received.
+ */
+public abstract class AuditSinkContractTest {
+
+	protected IAuditSink auditSink;
+
+	protected abstract IAuditSink createSink() throws Exception;
+
+	/**
+	 * Everything the sink has taken so far, in the order it stored it.
+	 */
+	protected abstract List<String> receivedMessages() throws Exception;
+
+	protected void closeSink() throws Exception {
+	}
+
+	@BeforeEach
+	void setUpSink() throws Exception {
+		auditSink = createSink();
+	}
+
+	@AfterEach
+	void tearDownSink() throws Exception {
+		closeSink();
+	}
+
+	@Test
+	void testMessagesArriveInOrder() throws Exception {
+		for (int i = 0; i < 100; i++) {
+			assertThat(auditSink.send(message(0, i))).isTrue();
+		}
+		auditSink.flush();
+
+		List<String> received = receivedMessages();
+		assertThat(received).hasSize(100);
+		assertThat(received.get(0)).isEqualTo("{\"thread\":0,\"event\":0}");
+		assertThat(received.get(99)).isEqualTo("{\"thread\":0,\"event\":99}");
+	}
+
+	@Test
+	void testConcurrentSendersLoseNothing() throws Exception {
+		int threads = 4;
+		int perThread = 250;
+		ExecutorService executor = Executors.newFixedThreadPool(threads);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0; t < threads; t++) {
+			int thread = t;
+			futures.add(executor.submit(() -> {
+				start.await();
+				for (int i = 0; i < perThread; i++) {
+					auditSink.send(message(thread, i));
+				}
+				return null;
+			}));
+		}
+		start.countDown();
+		for (Future<?> future : futures) {
+			future.get();
+		}
+		executor.shutdown();
+		auditSink.flush();
+
+		assertThat(receivedMessages()).hasSize(threads * perThread).doesNotHaveDuplicates();
+	}
+
+	@Test
+	void testUtilisationIsWithinRange() {
+		assertThat(auditSink.getUtilisation()).isBetween(0.0, 1.0);
+	}
+
+	private static byte[] message(int thread, int event) {
+		return ("{\"thread\":" + thread + ",\"event\":" + event + "}").getBytes(StandardCharsets.UTF_8);
+	}
+}
@@ -0,0 +1,83 @@
+package voucher.management.app.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import voucher.management.app.auth.repository.UserRepository;
+import voucher.management.app.auth.service.impl.EmailExistenceIndex;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class EmailExistenceIndexTest {
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@InjectMocks
+	private EmailExistenceIndex emailExistenceIndex;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+		ReflectionTestUtils.setField(emailExistenceIndex, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(emailExistenceIndex, "expectedInsertions", 1000L);
+		ReflectionTestUtils.setField(emailExistenceIndex, "falsePositiveRate", 0.001);
+		ReflectionTestUtils.setField(emailExistenceIndex, "refreshIntervalMs", 60_000L);
+		ReflectionTestUtils.setField(emailExistenceIndex, "rebuildIntervalMs", 3_600_000L);
+		ReflectionTestUtils.setField(emailExistenceIndex, "negativeCounter",
+				meterRegistry.counter("email.index.lookups", "result", "absent"));
+		ReflectionTestUtils.setField(emailExistenceIndex, "positiveCounter",
+				meterRegistry.counter("email.index.lookups", "result", "maybe"));
+	}
+
+	@Test
+	void testEverythingMightExistUntilBuilt() {
+		assertThat(emailExistenceIndex.isReady()).isFalse();
+		assertThat(emailExistenceIndex.mightContain("nobody@example.com")).isTrue();
+	}
+
+	@Test
+	void testRebuildIndexesEveryEmailIgnoringCaseAndAccents() {
+		Mockito.when(userRepository.streamAllEmails())
+				.thenReturn(Stream.of("useradmin@gmail.com", "Ren\u00e9@Example.com"));
+
+		emailExistenceIndex.rebuild();
+
+		assertThat(emailExistenceIndex.isReady()).isTrue();
+		assertThat(emailExistenceIndex.mightContain("UserAdmin@gmail.com")).isTrue();
+		assertThat(emailExistenceIndex.mightContain("rene@example.com")).isTrue();
+		assertThat(emailExistenceIndex.mightContain("nobody@example.com")).isFalse();
+	}
+
+	@Test
+	void testCreatedAndPolledEmailsAreAdded() {
+		Mockito.when(userRepository.streamAllEmails()).thenReturn(Stream.empty());
+		emailExistenceIndex.rebuild();
+
+		emailExistenceIndex.put("local@example.com");
+		Mockito.when(userRepository.findEmailsCreatedSince(Mockito.any())).thenReturn(List.of("remote@example.com"));
+		emailExistenceIndex.refresh();
+
+		assertThat(emailExistenceIndex.mightContain("local@example.com")).isTrue();
+		assertThat(emailExistenceIndex.mightContain("remote@example.com")).isTrue();
+		assertThat(emailExistenceIndex.mightContain("nobody@example.com")).isFalse();
+	}
+}
@@ -0,0 +1,73 @@
+package voucher.management.app.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import voucher.management.app.auth.service.impl.FileAuditSink;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class FileAuditSinkTest extends AuditSinkContractTest {
+
+	private Path directory;
+
+	private FileAuditSink fileAuditSink;
+
+	@Override
+	protected IAuditSink createSink() throws Exception {
+		directory = Files.createTempDirectory("audit-file-sink");
+		fileAuditSink = new FileAuditSink();
+		ReflectionTestUtils.setField(fileAuditSink, "directoryPath", directory.toString());
+		ReflectionTestUtils.setField(fileAuditSink, "maxFileBytes", 1024 * 1024L);
+		ReflectionTestUtils.setField(fileAuditSink, "maxFiles", 2);
+		fileAuditSink.open();
+		return fileAuditSink;
+	}
+
+	@Override
+	protected List<String> receivedMessages() throws Exception {
+		return Files.readAllLines(directory.resolve("audit.log"), StandardCharsets.UTF_8);
+	}
+
+	@Override
+	protected void closeSink() throws Exception {
+		fileAuditSink.close();
+		try (Stream<Path> files = Files.walk(directory)) {
+			files.sorted(Comparator.reverseOrder()).forEach(file -> file.toFile().delete());
+		}
+	}
+
+	@Test
+	void testMessageIsInTheFileAsSoonAsItIsSent() throws Exception {
+		fileAuditSink.send("{\"statusCode\":\"200\"}".getBytes(StandardCharsets.UTF_8));
+
+		assertThat(receivedMessages()).containsExactly("{\"statusCode\":\"200\"}");
+	}
+
+	@Test
+	void testFilesRollAndOldestIsDeleted() throws Exception {
+		ReflectionTestUtils.setField(fileAuditSink, "maxFileBytes", 100L);
+		byte[] message = "x".repeat(59).getBytes(StandardCharsets.UTF_8);
+		for (int i = 0; i < 5; i++) {
+			fileAuditSink.send(message);
+		}
+		fileAuditSink.flush();
+
+		assertThat(directory.resolve("audit.log")).exists();
+		assertThat(directory.resolve("audit.log.1")).exists();
+		assertThat(directory.resolve("audit.log.2")).exists();
+		assertThat(directory.resolve("audit.log.3")).doesNotExist();
+		assertThat(receivedMessages()).hasSize(1);
+	}
+}
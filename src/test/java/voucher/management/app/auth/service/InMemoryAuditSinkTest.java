@@ -0,0 +1,46 @@
+package voucher.management.app.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import voucher.management.app.auth.service.impl.InMemoryAuditSink;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class InMemoryAuditSinkTest extends AuditSinkContractTest {
+
+	private InMemoryAuditSink inMemoryAuditSink;
+
+	@Override
+	protected IAuditSink createSink() {
+		inMemoryAuditSink = new InMemoryAuditSink();
+		ReflectionTestUtils.setField(inMemoryAuditSink, "capacity", 1000);
+		inMemoryAuditSink.init();
+		return inMemoryAuditSink;
+	}
+
+	@Override
+	protected List<String> receivedMessages() {
+		return inMemoryAuditSink.getMessages().stream().map(m -> new String(m, StandardCharsets.UTF_8)).toList();
+	}
+
+	@Test
+	void testOldestMessagesAreOverwrittenWhenFull() {
+		for (int i = 0; i < 1500; i++) {
+			inMemoryAuditSink.send(Integer.toString(i).getBytes(StandardCharsets.UTF_8));
+		}
+
+		List<String> received = receivedMessages();
+		assertThat(inMemoryAuditSink.getCapacity()).isEqualTo(1024);
+		assertThat(received).hasSize(1024);
+		assertThat(received.get(0)).isEqualTo("476");
+		assertThat(inMemoryAuditSink.getSentCount()).isEqualTo(1500);
+	}
+}
@@ -0,0 +1,122 @@
+package voucher.management.app.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import voucher.management.app.auth.service.impl.LoginAttemptService;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class LoginAttemptServiceTest {
+
+	private static final long WINDOW_MS = 60_000;
+	private static final String IP = "10.0.0.1";
+
+	private SimpleMeterRegistry meterRegistry;
+	private LoginAttemptService loginAttemptService;
+
+	@BeforeEach
+	void setUp() {
+		meterRegistry = new SimpleMeterRegistry();
+		loginAttemptService = new LoginAttemptService();
+		ReflectionTestUtils.setField(loginAttemptService, "meterRegistry", meterRegistry);
+		ReflectionTestUtils.setField(loginAttemptService, "maxFailuresPerEmail", 3);
+		ReflectionTestUtils.setField(loginAttemptService, "ipKeyEnabled", true);
+		ReflectionTestUtils.setField(loginAttemptService, "maxFailuresPerIp", 10);
+		ReflectionTestUtils.setField(loginAttemptService, "windowMs", WINDOW_MS);
+		ReflectionTestUtils.setField(loginAttemptService, "backoffBaseMs", 1000L);
+		ReflectionTestUtils.setField(loginAttemptService, "backoffMaxMs", 8000L);
+		ReflectionTestUtils.setField(loginAttemptService, "maxKeys", 8);
+		ReflectionTestUtils.setField(loginAttemptService, "stripeCount", 2);
+		loginAttemptService.init();
+	}
+
+	@Test
+	void testEmailIsBlockedWithProgressiveBackoff() {
+		long now = 0;
+		loginAttemptService.recordFailure("user@example.com", IP, now);
+		loginAttemptService.recordFailure("User@Example.com ", IP, now);
+		assertThat(loginAttemptService.getRetryAfterMillis("user@example.com", IP, now)).isZero();
+
+		loginAttemptService.recordFailure("user@example.com", IP, now);
+		assertThat(loginAttemptService.getRetryAfterMillis("USER@example.com", IP, now)).isEqualTo(1000);
+		assertThat(loginAttemptService.getRetryAfterMillis("other@example.com", IP, now)).isZero();
+
+		now += 1000;
+		assertThat(loginAttemptService.getRetryAfterMillis("user@example.com", IP, now)).isZero();
+		loginAttemptService.recordFailure("user@example.com", IP, now);
+		assertThat(loginAttemptService.getRetryAfterMillis("user@example.com", IP, now)).isEqualTo(2000);
+
+		now += 2000;
+		loginAttemptService.recordFailure("user@example.com", IP, now);
+		loginAttemptService.recordFailure("user@example.com", IP, now);
+		loginAttemptService.recordFailure("user@example.com", IP, now);
+		assertThat(loginAttemptService.getRetryAfterMillis("user@example.com", IP, now)).isEqualTo(8000);
+		assertThat(meterRegistry.find("login.guard.rejected").tag("key", "email").counter().count()).isEqualTo(3.0);
+	}
+
+	@Test
+	void testAccentVariantsShareTheEmailLimit() {
+		for (int i = 0; i < 3; i++) {
+			loginAttemptService.recordFailure("joe@example.com", null, 0);
+		}
+
+		assertThat(loginAttemptService.getRetryAfterMillis("j\u00f6e@example.com", null, 0)).isPositive();
+		assertThat(loginAttemptService.getRetryAfterMillis("J\u00d3E@example.com", null, 0)).isPositive();
+	}
+
+	@Test
+	void testFailuresExpireWithTheSlidingWindow() {
+		for (int i = 0; i < 3; i++) {
+			loginAttemptService.recordFailure("user@example.com", IP, 0);
+		}
+
+		// half of the previous window still counts: 1.5 + 1 stays under the limit of 3
+		loginAttemptService.recordFailure("user@example.com", IP, WINDOW_MS + WINDOW_MS / 2);
+		assertThat(loginAttemptService.getRetryAfterMillis("user@example.com", IP, WINDOW_MS + WINDOW_MS / 2)).isZero();
+
+		loginAttemptService.recordFailure("user@example.com", IP, WINDOW_MS + WINDOW_MS / 2);
+		assertThat(loginAttemptService.getRetryAfterMillis("user@example.com", IP, WINDOW_MS + WINDOW_MS / 2))
+				.isPositive();
+	}
+
+	@Test
+	void testSuccessClearsEmailButNotIp() {
+		for (int i = 0; i < 10; i++) {
+			loginAttemptService.recordFailure("user" + (i % 2) + "@example.com", IP, 0);
+		}
+		assertThat(loginAttemptService.getRetryAfterMillis("fresh@example.com", IP, 0)).isPositive();
+
+		loginAttemptService.recordSuccess("user0@example.com");
+
+		assertThat(loginAttemptService.getRetryAfterMillis("user0@example.com", null, 0)).isZero();
+		assertThat(loginAttemptService.getRetryAfterMillis("user1@example.com", null, 0)).isPositive();
+		assertThat(loginAttemptService.getRetryAfterMillis(null, IP, 0)).isPositive();
+	}
+
+	@Test
+	void testTrackedKeysStayBounded() {
+		for (int i = 0; i < 1000; i++) {
+			loginAttemptService.recordFailure("user" + i + "@example.com", "10.0." + (i / 256) + "." + (i % 256), i);
+		}
+
+		assertThat(loginAttemptService.getTrackedKeys()).isLessThanOrEqualTo(8);
+	}
+
+	@Test
+	void testIpIsIgnoredWhenIpKeyIsDisabled() {
+		ReflectionTestUtils.setField(loginAttemptService, "ipKeyEnabled", false);
+		for (int i = 0; i < 20; i++) {
+			loginAttemptService.recordFailure("user" + i + "@example.com", IP, 0);
+		}
+
+		assertThat(loginAttemptService.getRetryAfterMillis("fresh@example.com", IP, 0)).isZero();
+		assertThat(loginAttemptService.getRetryAfterMillis("user0@example.com", IP, 0)).isZero();
+	}
+}
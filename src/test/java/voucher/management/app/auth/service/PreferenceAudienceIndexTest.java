@@ -0,0 +1,99 @@
+package voucher.management.app.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import voucher.management.app.auth.dto.AudienceQuery;
+import voucher.management.app.auth.dto.UserSummary;
+import voucher.management.app.auth.enums.RoleType;
+import voucher.management.app.auth.repository.UserRepository;
+import voucher.management.app.auth.service.impl.PreferenceAudienceIndex;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class PreferenceAudienceIndexTest {
+
+	@Mock
+	private UserRepository userRepository;
+
+	@Mock
+	private PlatformTransactionManager transactionManager;
+
+	@InjectMocks
+	private PreferenceAudienceIndex preferenceAudienceIndex;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+	}
+
+	@Test
+	void testNotReadyUntilBuilt() {
+		preferenceAudienceIndex.update("alice", true, "food");
+
+		assertThat(preferenceAudienceIndex.isReady()).isFalse();
+		assertThat(preferenceAudienceIndex.match(query("food"), 0, 10)).isNull();
+	}
+
+	@Test
+	void testRebuildIndexesActiveCustomers() {
+		Mockito.when(userRepository.streamActiveUsersByRole(true, true, RoleType.CUSTOMER))
+				.thenReturn(Stream.of(summary("alice", "food,clothing"), summary("bob", "seafood")));
+
+		preferenceAudienceIndex.rebuild();
+
+		PreferenceAudienceIndex.Match match = preferenceAudienceIndex.match(query("food"), 0, 10);
+		assertThat(preferenceAudienceIndex.isReady()).isTrue();
+		assertThat(match.userIds()).containsExactly("alice");
+		assertThat(match.total()).isEqualTo(1);
+	}
+
+	@Test
+	void testUpdatesDuringRebuildAreNotLost() {
+		Mockito.when(userRepository.streamActiveUsersByRole(true, true, RoleType.CUSTOMER)).thenAnswer(invocation -> {
+			// changed after the scan has read them
+			preferenceAudienceIndex.update("alice", false, null);
+			preferenceAudienceIndex.update("carol", true, "food");
+			return Stream.of(summary("alice", "food"), summary("bob", "food"));
+		});
+
+		preferenceAudienceIndex.rebuild();
+
+		assertThat(preferenceAudienceIndex.match(query("food"), 0, 10).userIds()).containsExactly("bob", "carol");
+	}
+
+	@Test
+	void testReloadAppliesCurrentRows() {
+		Mockito.when(userRepository.streamActiveUsersByRole(true, true, RoleType.CUSTOMER))
+				.thenReturn(Stream.of(summary("alice", "food"), summary("bob", "food")));
+		preferenceAudienceIndex.rebuild();
+		UserSummary merchant = new UserSummary("bob", "bob@gmail.com", "bob", RoleType.MERCHANT, true, true, "food");
+		Mockito.when(userRepository.findSummariesByUserIds(List.of("alice", "bob", "carol")))
+				.thenReturn(List.of(summary("alice", "shoes"), merchant));
+
+		preferenceAudienceIndex.reload(List.of("alice", "bob", "carol"));
+
+		assertThat(preferenceAudienceIndex.match(query("food"), 0, 10).total()).isZero();
+		assertThat(preferenceAudienceIndex.match(query("shoes"), 0, 10).userIds()).containsExactly("alice");
+	}
+
+	private static AudienceQuery query(String preference) {
+		return new AudienceQuery(List.of(preference), null, null);
+	}
+
+	private static UserSummary summary(String userId, String preferences) {
+		return new UserSummary(userId, userId + "@gmail.com", userId, RoleType.CUSTOMER, true, true, preferences);
+	}
+}
@@ -0,0 +1,74 @@
+package voucher.management.app.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import voucher.management.app.auth.service.impl.AuditLogBatchPublisher;
+import voucher.management.app.auth.service.impl.AuditLogSpool;
+import voucher.management.app.auth.service.impl.SqsAuditSink;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SqsAuditSinkTest extends AuditSinkContractTest {
+
+	@Mock
+	private AuditLogBatchPublisher auditLogBatchPublisher;
+
+	@Mock
+	private AuditLogSpool auditLogSpool;
+
+	@InjectMocks
+	private SqsAuditSink sqsAuditSink;
+
+	private final List<String> published = new CopyOnWriteArrayList<>();
+
+	@Override
+	protected IAuditSink createSink() {
+		MockitoAnnotations.openMocks(this);
+		when(auditLogBatchPublisher.getQueueCapacity()).thenReturn(10000);
+		when(auditLogSpool.getBacklogSegments()).thenReturn(1L);
+		when(auditLogSpool.getMaxSegments()).thenReturn(64);
+		when(auditLogSpool.append(any(byte[].class))).thenAnswer(invocation -> {
+			published.add(new String((byte[]) invocation.getArgument(0), StandardCharsets.UTF_8));
+			return true;
+		});
+		return sqsAuditSink;
+	}
+
+	@Override
+	protected List<String> receivedMessages() {
+		return Collections.unmodifiableList(published);
+	}
+
+	@Test
+	void testFallsBackToPublisherWhenSpoolIsFull() {
+		when(auditLogSpool.append(any(byte[].class))).thenReturn(false);
+		when(auditLogBatchPublisher.publish(any(byte[].class))).thenReturn(true);
+
+		assertThat(sqsAuditSink.send("{}".getBytes(StandardCharsets.UTF_8))).isTrue();
+
+		verify(auditLogBatchPublisher).publish(any(byte[].class));
+	}
+
+	@Test
+	void testSpooledMessageSkipsPublisher() {
+		sqsAuditSink.send("{}".getBytes(StandardCharsets.UTF_8));
+
+		verify(auditLogBatchPublisher, never()).publish(any(byte[].class));
+	}
+}
@@ -0,0 +1,104 @@
+package voucher.management.app.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import voucher.management.app.auth.entity.User;
+import voucher.management.app.auth.enums.RoleType;
+import voucher.management.app.auth.service.impl.UserCache;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class UserCacheTest {
+
+	private UserCache userCache;
+	private User user;
+	private AtomicInteger loads;
+	private Function<String, User> loader;
+
+	@BeforeEach
+	void setUp() {
+		userCache = new UserCache();
+		ReflectionTestUtils.setField(userCache, "meterRegistry", new SimpleMeterRegistry());
+		ReflectionTestUtils.setField(userCache, "maxSize", 4);
+		ReflectionTestUtils.setField(userCache, "ttlMs", 60_000L);
+		ReflectionTestUtils.setField(userCache, "stripeCount", 1);
+		userCache.init();
+
+		user = new User("useradmin@gmail.com", "UserAdmin", "Pwd@123", RoleType.MERCHANT, true);
+		user.setUserId("8f6e8b84-1219-4c28-a95c-9891c11328b7");
+		loads = new AtomicInteger();
+		loader = key -> {
+			loads.incrementAndGet();
+			return user;
+		};
+	}
+
+	@Test
+	void testHitByIdOrEmailReturnsCopy() {
+		User loaded = userCache.getByUserId(user.getUserId(), loader);
+		User byId = userCache.getByUserId(user.getUserId(), loader);
+		User byEmail = userCache.getByEmail("UserAdmin@Gmail.com", loader);
+
+		assertThat(loads.get()).isEqualTo(1);
+		assertThat(byId).isNotSameAs(loaded);
+		assertThat(byEmail.getUserId()).isEqualTo(user.getUserId());
+		byId.setUsername("changed");
+		assertThat(userCache.getByUserId(user.getUserId(), loader).getUsername()).isEqualTo("UserAdmin");
+		assertThat(userCache.getHitRate()).isEqualTo(0.75);
+	}
+
+	@Test
+	void testInvalidateDropsBothKeys() {
+		userCache.getByUserId(user.getUserId(), loader);
+
+		userCache.invalidate(user.getUserId(), user.getEmail());
+		userCache.getByUserId(user.getUserId(), loader);
+		userCache.invalidate(user.getUserId(), user.getEmail());
+		userCache.getByEmail(user.getEmail(), loader);
+
+		assertThat(loads.get()).isEqualTo(3);
+	}
+
+	@Test
+	void testLoadRacingAnInvalidationIsNotCached() {
+		userCache.getByUserId(user.getUserId(), key -> {
+			userCache.invalidate(user.getUserId(), user.getEmail());
+			return user;
+		});
+
+		userCache.getByUserId(user.getUserId(), loader);
+		assertThat(loads.get()).isEqualTo(1);
+	}
+
+	@Test
+	void testExpiredAndMissingEntries() {
+		ReflectionTestUtils.setField(userCache, "ttlMs", -1L);
+		userCache.getByUserId(user.getUserId(), loader);
+		userCache.getByUserId(user.getUserId(), loader);
+		assertThat(loads.get()).isEqualTo(2);
+
+		assertThat(userCache.getByUserId("unknown", key -> null)).isNull();
+		assertThat(userCache.getByUserId("unknown", loader)).isNotNull();
+	}
+
+	@Test
+	void testSizeIsBounded() {
+		for (int i = 0; i < 20; i++) {
+			User other = new User("user" + i + "@gmail.com", "User" + i, "Pwd@123", RoleType.CUSTOMER, true);
+			other.setUserId("id-" + i);
+			userCache.getByUserId(other.getUserId(), key -> other);
+		}
+
+		assertThat(userCache.getSize()).isLessThanOrEqualTo(8);
+	}
+}
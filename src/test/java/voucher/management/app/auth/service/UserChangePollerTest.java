@@ -0,0 +1,107 @@
+package voucher.management.app.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Mockito;
+import org.mockito.MockitoAnnotations;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import voucher.management.app.auth.entity.UserChangeLog;
+import voucher.management.app.auth.repository.UserChangeLogRepository;
+import voucher.management.app.auth.service.impl.PreferenceAudienceIndex;
+import voucher.management.app.auth.service.impl.UserCache;
+import voucher.management.app.auth.service.impl.UserChangePoller;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class UserChangePollerTest {
+
+	@Mock
+	private UserChangeLogRepository userChangeLogRepository;
+
+	@Mock
+	private UserCache userCache;
+
+	@Mock
+	private PreferenceAudienceIndex preferenceAudienceIndex;
+
+	@InjectMocks
+	private UserChangePoller userChangePoller;
+
+	@BeforeEach
+	void setUp() {
+		MockitoAnnotations.openMocks(this);
+		ReflectionTestUtils.setField(userChangePoller, "graceMs", 5000L);
+		ReflectionTestUtils.setField(userChangePoller, "batchSize", 2);
+		ReflectionTestUtils.setField(userChangePoller, "retentionMs", 3_600_000L);
+		Mockito.when(userChangeLogRepository.findLatestChangeId()).thenReturn(10L);
+		Mockito.when(userChangeLogRepository.findChangesSince(Mockito.any())).thenReturn(List.of());
+	}
+
+	@Test
+	void testFirstPollStartsFromLatestChange() {
+		assertThat(userChangePoller.poll()).isZero();
+
+		assertThat(userChangePoller.getLastChangeId()).isEqualTo(10L);
+		Mockito.verifyNoInteractions(userCache);
+	}
+
+	@Test
+	void testEvictsChangedUsersInBatches() {
+		userChangePoller.poll();
+		Mockito.when(userChangeLogRepository.findChangesAfter(Mockito.eq(10L), Mockito.any(Pageable.class)))
+				.thenReturn(List.of(change(11L, "a"), change(12L, "b")));
+		Mockito.when(userChangeLogRepository.findChangesAfter(Mockito.eq(12L), Mockito.any(Pageable.class)))
+				.thenReturn(List.of(change(13L, "a")));
+
+		assertThat(userChangePoller.poll()).isEqualTo(3);
+
+		assertThat(userChangePoller.getLastChangeId()).isEqualTo(13L);
+		Mockito.verify(userCache, Mockito.times(2)).invalidate("a", "a@gmail.com");
+		Mockito.verify(userCache).invalidate("b", "b@gmail.com");
+		Mockito.verify(userChangeLogRepository).deleteChangesBefore(Mockito.any());
+	}
+
+	@Test
+	void testRecentChangesCommittedOutOfOrderAreEvicted() {
+		userChangePoller.poll();
+		Mockito.when(userChangeLogRepository.findChangesAfter(Mockito.eq(10L), Mockito.any(Pageable.class)))
+				.thenReturn(List.of());
+		Mockito.when(userChangeLogRepository.findChangesSince(Mockito.any())).thenReturn(List.of(change(9L, "late")));
+
+		userChangePoller.poll();
+
+		assertThat(userChangePoller.getLastChangeId()).isEqualTo(10L);
+		Mockito.verify(userCache).invalidate("late", "late@gmail.com");
+	}
+
+	@Test
+	void testChangedUsersAreReloadedIntoAudienceIndex() {
+		userChangePoller.poll();
+		Mockito.when(userChangeLogRepository.findChangesAfter(Mockito.eq(10L), Mockito.any(Pageable.class)))
+				.thenReturn(List.of(change(11L, "a")));
+		Mockito.when(userChangeLogRepository.findChangesSince(Mockito.any()))
+				.thenReturn(List.of(change(11L, "a"), change(9L, "late")));
+
+		userChangePoller.poll();
+
+		Mockito.verify(preferenceAudienceIndex).reload(Set.of("a", "late"));
+	}
+
+	private UserChangeLog change(long changeId, String userId) {
+		UserChangeLog change = new UserChangeLog(userId, userId + "@gmail.com", LocalDateTime.now());
+		change.setChangeId(changeId);
+		return change;
+	}
+}
@@ -0,0 +1,83 @@
+package voucher.management.app.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import voucher.management.app.auth.service.impl.UserCountCache;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class UserCountCacheTest {
+
+	private UserCountCache userCountCache;
+	private AtomicLong counts;
+
+	@BeforeEach
+	void setUp() {
+		userCountCache = new UserCountCache();
+		ReflectionTestUtils.setField(userCountCache, "ttlMs", 60_000L);
+		ReflectionTestUtils.setField(userCountCache, "maxKeys", 2);
+		userCountCache.init();
+		counts = new AtomicLong();
+	}
+
+	@AfterEach
+	void tearDown() {
+		userCountCache.shutdown();
+	}
+
+	@Test
+	void testCountsOnceUntilStale() {
+		assertThat(userCountCache.get("active", () -> 10 + counts.getAndIncrement())).isEqualTo(10);
+		assertThat(userCountCache.get("active", () -> 10 + counts.getAndIncrement())).isEqualTo(10);
+		assertThat(counts.get()).isEqualTo(1);
+	}
+
+	@Test
+	void testExactCountReplacesCachedOne() {
+		userCountCache.get("active", () -> 10);
+		userCountCache.put("active", 7);
+
+		assertThat(userCountCache.get("active", counts::incrementAndGet)).isEqualTo(7);
+		assertThat(counts.get()).isZero();
+	}
+
+	@Test
+	void testStaleCountIsServedWhileRefreshing() throws Exception {
+		ReflectionTestUtils.setField(userCountCache, "ttlMs", 0L);
+		userCountCache.get("active", () -> 10);
+		Thread.sleep(5);
+		CountDownLatch refreshed = new CountDownLatch(1);
+
+		long count = userCountCache.get("active", () -> {
+			refreshed.countDown();
+			return 20;
+		});
+
+		assertThat(count).isEqualTo(10);
+		assertThat(refreshed.await(5, TimeUnit.SECONDS)).isTrue();
+		Thread.sleep(50);
+		assertThat(userCountCache.get("active", () -> 30)).isIn(20L, 30L);
+	}
+
+	@Test
+	void testLeastRecentlyUsedFilterIsEvicted() {
+		userCountCache.get("preferences:food", () -> 1);
+		userCountCache.get("preferences:shoes", () -> 2);
+		userCountCache.get("preferences:food", () -> 1);
+		userCountCache.get("preferences:books", () -> 3);
+
+		assertThat(userCountCache.get("preferences:food", counts::incrementAndGet)).isEqualTo(1);
+		assertThat(userCountCache.get("preferences:shoes", () -> 20 + counts.incrementAndGet())).isEqualTo(21);
+	}
+}
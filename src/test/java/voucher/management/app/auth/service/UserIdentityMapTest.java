@@ -0,0 +1,114 @@
+package voucher.management.app.auth.service;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import voucher.management.app.auth.entity.User;
+import voucher.management.app.auth.enums.RoleType;
+import voucher.management.app.auth.service.impl.UserIdentityMap;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class UserIdentityMapTest {
+
+	private UserIdentityMap userIdentityMap;
+	private User user;
+	private AtomicInteger loads;
+	private Function<String, User> loader;
+
+	@BeforeEach
+	void setUp() {
+		userIdentityMap = new UserIdentityMap();
+		user = new User("useradmin@gmail.com", "UserAdmin", "Pwd@123", RoleType.CUSTOMER, true);
+		user.setUserId("8f6e8b84-1219-4c28-a95c-9891c11328b7");
+		loads = new AtomicInteger();
+		loader = key -> {
+			loads.incrementAndGet();
+			return user;
+		};
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+	}
+
+	@AfterEach
+	void tearDown() {
+		RequestContextHolder.resetRequestAttributes();
+	}
+
+	@Test
+	void testLoadsOncePerRequestByIdAndEmail() {
+		User first = userIdentityMap.getByUserId(user.getUserId(), loader);
+
+		assertThat(userIdentityMap.getByUserId(user.getUserId(), loader)).isSameAs(first);
+		assertThat(userIdentityMap.getByEmail("UserAdmin@Gmail.com ", loader)).isSameAs(first);
+		assertThat(loads.get()).isEqualTo(1);
+	}
+
+	@Test
+	void testNewRequestStartsEmpty() {
+		userIdentityMap.getByUserId(user.getUserId(), loader);
+		RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(new MockHttpServletRequest()));
+
+		userIdentityMap.getByUserId(user.getUserId(), loader);
+
+		assertThat(loads.get()).isEqualTo(2);
+	}
+
+	@Test
+	void testWritesOnlyReuseRowsReadFromDatabase() {
+		userIdentityMap.getByUserId(user.getUserId(), loader);
+		userIdentityMap.getLoadedByUserId(user.getUserId(), loader);
+		assertThat(loads.get()).isEqualTo(2);
+
+		userIdentityMap.getLoadedByUserId(user.getUserId(), loader);
+		userIdentityMap.getByUserId(user.getUserId(), loader);
+		assertThat(loads.get()).isEqualTo(2);
+	}
+
+	@Test
+	void testLoaderRecordedRowIsShared() {
+		User cachedCopy = new User(user.getEmail(), user.getUsername(), user.getPassword(), user.getRole(), true);
+		cachedCopy.setUserId(user.getUserId());
+
+		User result = userIdentityMap.getByUserId(user.getUserId(), key -> {
+			userIdentityMap.loaded(user);
+			return cachedCopy;
+		});
+
+		assertThat(result).isSameAs(user);
+		assertThat(userIdentityMap.getLoadedByUserId(user.getUserId(), loader)).isSameAs(user);
+		assertThat(loads.get()).isZero();
+	}
+
+	@Test
+	void testInvalidateAndMissesAreNotRemembered() {
+		userIdentityMap.getByUserId("unknown", key -> null);
+		userIdentityMap.getByUserId(user.getUserId(), loader);
+		userIdentityMap.invalidate(user.getUserId(), user.getEmail());
+
+		userIdentityMap.getByEmail(user.getEmail(), loader);
+
+		assertThat(loads.get()).isEqualTo(2);
+		assertThat(userIdentityMap.getByUserId("unknown", loader)).isSameAs(user);
+	}
+
+	@Test
+	void testOutsideRequestAlwaysLoads() {
+		RequestContextHolder.resetRequestAttributes();
+
+		userIdentityMap.getByUserId(user.getUserId(), loader);
+		userIdentityMap.getByUserId(user.getUserId(), loader);
+
+		assertThat(loads.get()).isEqualTo(2);
+	}
+}
@@ -3,10 +3,10 @@ package voucher.management.app.auth.service;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
 import java.util.Optional;
 
 import org.junit.jupiter.api.AfterEach;
@@ -19,19 +19,35 @@ import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.projection.SpelAwareProxyProjectionFactory;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.annotation.DirtiesContext;
 import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import jakarta.transaction.Transactional;
+import voucher.management.app.auth.dto.AudienceQuery;
+import voucher.management.app.auth.dto.UserCursorPage;
 import voucher.management.app.auth.dto.UserDTO;
+import voucher.management.app.auth.dto.UserListPage;
+import voucher.management.app.auth.dto.UserLoginView;
 import voucher.management.app.auth.dto.UserRequest;
+import voucher.management.app.auth.dto.UserSummary;
 import voucher.management.app.auth.entity.User;
+import voucher.management.app.auth.entity.UserPreference;
 import voucher.management.app.auth.enums.RoleType;
+import voucher.management.app.auth.exception.UserNotFoundException;
+import voucher.management.app.auth.repository.UserChangeLogRepository;
+import voucher.management.app.auth.repository.UserPreferenceRepository;
 import voucher.management.app.auth.repository.UserRepository;
+import voucher.management.app.auth.service.impl.EmailExistenceIndex;
+import voucher.management.app.auth.service.impl.PreferenceAudienceIndex;
 import voucher.management.app.auth.service.impl.UserService;
 import voucher.management.app.auth.utility.EncryptionUtils;
+import voucher.management.app.auth.utility.UserCursor;
 
 @SpringBootTest
 @Transactional
@@ -53,6 +69,12 @@ public class UserServiceTest {
 	@MockBean
 	private EncryptionUtils encryptionUtils;
 
+	@MockBean
+	private UserChangeLogRepository userChangeLogRepository;
+
+	@MockBean
+	private UserPreferenceRepository userPreferenceRepository;
+
 	
 	private static User user;
 
@@ -79,17 +101,15 @@ public class UserServiceTest {
 	@Test
 	void getAllActiveUsers() {
 
-		List<UserDTO> userDTOList = new ArrayList<UserDTO>();
 		Pageable pageable = PageRequest.of(0, 10);
-		Page<User> mockUserPages = new PageImpl<>(mockUsers, pageable, mockUsers.size());
+		Page<UserSummary> mockUserPages = new PageImpl<>(toSummaries(mockUsers), pageable, mockUsers.size());
 
 		Mockito.when(userRepository.findActiveUserList(true, true, pageable)).thenReturn(mockUserPages);
-		Map<Long, List<UserDTO>> userPages = userService.findActiveUsers(pageable);
+		UserListPage userPage = userService.findActiveUsers(pageable);
 
-		for (Map.Entry<Long, List<UserDTO>> entry : userPages.entrySet()) {
-			userDTOList = entry.getValue();
-
-		}
+		List<UserDTO> userDTOList = userPage.users();
+		assertThat(userPage.totalExact()).isTrue();
+		assertEquals(mockUsers.size(), userPage.total());
 		assertEquals(mockUsers.size(), userDTOList.size());
 		assertEquals(mockUsers.get(0).getEmail(), userDTOList.get(0).getEmail());
 
@@ -111,15 +131,93 @@ public class UserServiceTest {
 	@Test
     public void testValidateUserLogin_Successful() {
         
-        Mockito.when(userRepository.findByEmailAndStatus(user.getEmail(), true, true)).thenReturn(user);
+        user.setVerified(true);
+        UserLoginView loginView = new SpelAwareProxyProjectionFactory().createProjection(UserLoginView.class, user);
         Mockito.when(passwordEncoder.matches(user.getPassword(), user.getPassword())).thenReturn(true);
 
-        UserDTO result = userService.loginUser(user.getEmail(), user.getPassword());
+        UserDTO result = userService.loginUser(loginView, user.getPassword());
 
         assertEquals(user.getEmail(), result.getEmail());
     }
+
+	@Test
+	public void testLoginUserWithLoginView() {
+		user.setVerified(true);
+		UserLoginView loginView = new SpelAwareProxyProjectionFactory().createProjection(UserLoginView.class, user);
+		Mockito.when(userRepository.findLoginViewByEmail(user.getEmail())).thenReturn(loginView);
+		Mockito.when(passwordEncoder.matches("Pwd@123", user.getPassword())).thenReturn(true);
+
+		UserDTO result = userService.loginUser(userService.findLoginViewByEmail(user.getEmail()), "Pwd@123");
+
+		assertEquals(user.getUserId(), result.getUserID());
+		assertEquals(List.of("food"), result.getPreferences());
+		Mockito.verify(userRepository, Mockito.never()).findByEmailAndStatus(Mockito.anyString(), Mockito.anyBoolean(),
+				Mockito.anyBoolean());
+		assertThrows(UserNotFoundException.class, () -> userService.loginUser(loginView, "wrong"));
+	}
 	
 
+	@Test
+	public void testLookupsSkipDatabaseForUnknownEmail() {
+		EmailExistenceIndex emailExistenceIndex = Mockito.mock(EmailExistenceIndex.class);
+		Mockito.when(emailExistenceIndex.mightContain("nobody@gmail.com")).thenReturn(false);
+		Mockito.when(emailExistenceIndex.mightContain(user.getEmail())).thenReturn(true);
+		Mockito.when(userRepository.findByEmail(user.getEmail())).thenReturn(user);
+		ReflectionTestUtils.setField(AopTestUtils.getTargetObject(userService), "emailExistenceIndex", emailExistenceIndex);
+
+		assertThat(userService.findByEmail("nobody@gmail.com")).isNull();
+		assertThat(userService.findLoginViewByEmail("nobody@gmail.com")).isNull();
+		assertThat(userService.findByEmail(user.getEmail()).getUserId()).isEqualTo(user.getUserId());
+		Mockito.verify(userRepository, Mockito.never()).findByEmail("nobody@gmail.com");
+		Mockito.verify(userRepository, Mockito.never()).findLoginViewByEmail("nobody@gmail.com");
+	}
+
+	@Test
+	public void testFindByUserIdIsCachedUntilWrite() throws Exception {
+		user.setVerified(true);
+		Mockito.when(userRepository.findByUserId(user.getUserId())).thenReturn(user);
+		Mockito.when(userRepository.save(Mockito.any(User.class))).thenReturn(user);
+
+		userService.findByUserId(user.getUserId());
+		userService.findByUserId(user.getUserId());
+		userService.checkSpecificActiveUser(user.getUserId());
+		Mockito.verify(userRepository, Mockito.times(1)).findByUserId(user.getUserId());
+
+		// the write reuses the row this request already read
+		userService.updatePreferencesByUser(user.getUserId(), new ArrayList<>(List.of("clothing")));
+		userService.findByUserId(user.getUserId());
+		Mockito.verify(userRepository, Mockito.times(2)).findByUserId(user.getUserId());
+		Mockito.verify(userChangeLogRepository).save(Mockito.argThat(
+				change -> change.getUserId().equals(user.getUserId()) && change.getEmail().equals(user.getEmail())));
+	}
+
+	@Test
+	public void testLoginUserUpgradesOutdatedHash() {
+		user.setVerified(true);
+		UserLoginView loginView = new SpelAwareProxyProjectionFactory().createProjection(UserLoginView.class, user);
+		Mockito.when(passwordEncoder.matches("Pwd@123", user.getPassword())).thenReturn(true);
+		Mockito.when(passwordEncoder.upgradeEncoding(user.getPassword())).thenReturn(true);
+		Mockito.when(passwordEncoder.encode("Pwd@123")).thenReturn("{bcrypt}upgraded");
+
+		userService.loginUser(loginView, "Pwd@123");
+
+		Mockito.verify(userRepository).updatePassword(user.getUserId(), "{bcrypt}upgraded");
+	}
+
+	@Test
+	public void testLoginUserSucceedsWhenHashUpgradeFails() {
+		user.setVerified(true);
+		UserLoginView loginView = new SpelAwareProxyProjectionFactory().createProjection(UserLoginView.class, user);
+		Mockito.when(passwordEncoder.matches("Pwd@123", user.getPassword())).thenReturn(true);
+		Mockito.when(passwordEncoder.upgradeEncoding(user.getPassword())).thenReturn(true);
+		Mockito.when(passwordEncoder.encode("Pwd@123")).thenThrow(new IllegalStateException("hashing failed"));
+
+		UserDTO result = userService.loginUser(loginView, "Pwd@123");
+
+		assertEquals(user.getUserId(), result.getUserID());
+		Mockito.verify(userRepository, Mockito.never()).updatePassword(Mockito.anyString(), Mockito.anyString());
+	}
+
 	@Test
 	public void verifyUser() throws Exception {
 		String decodedVerificationCode = "7f03a9a9-d7a5-4742-bc85-68d52b2bee45";
@@ -159,27 +257,145 @@ public class UserServiceTest {
         assertEquals(user, result);
     }
 	
+	@Test
+	void getAllActiveUsersWithCachedCount() {
+		ReflectionTestUtils.setField(AopTestUtils.getTargetObject(userService), "countMode", "cached");
+		List<UserSummary> summaries = toSummaries(List.of(user));
+		Mockito.when(userRepository.findActiveUserSlice(true, true, PageRequest.of(0, 1)))
+				.thenReturn(new SliceImpl<>(summaries, PageRequest.of(0, 1), true));
+		Mockito.when(userRepository.countActiveUsers(true, true)).thenReturn(5L);
+
+		UserListPage firstPage = userService.findActiveUsers(PageRequest.of(0, 1));
+		userService.findActiveUsers(PageRequest.of(0, 1));
+
+		assertEquals(5, firstPage.total());
+		assertThat(firstPage.totalExact()).isFalse();
+		Mockito.verify(userRepository, Mockito.times(1)).countActiveUsers(true, true);
+		Mockito.verify(userRepository, Mockito.never()).findActiveUserList(Mockito.anyBoolean(), Mockito.anyBoolean(),
+				Mockito.any());
+
+		// the last page gives the exact total without a count
+		Mockito.when(userRepository.findActiveUserSlice(true, true, PageRequest.of(2, 1)))
+				.thenReturn(new SliceImpl<>(summaries, PageRequest.of(2, 1), false));
+		UserListPage lastPage = userService.findActiveUsers(PageRequest.of(2, 1));
+
+		assertEquals(3, lastPage.total());
+		assertThat(lastPage.totalExact()).isTrue();
+		assertEquals(3, userService.findActiveUsers(PageRequest.of(0, 1)).total());
+		Mockito.verify(userRepository, Mockito.times(1)).countActiveUsers(true, true);
+	}
+
+	@Test
+	void getActiveUsersAfterCursor() {
+		User second = new User("second@gmail.com", "Second", "Pwd@123", RoleType.CUSTOMER, true);
+		second.setUserId("9a0e8b84-1219-4c28-a95c-9891c11328b7");
+		second.setPreferences("");
+		String cursor = new UserCursor("A", "1").encode();
+		Mockito.when(userRepository.findActiveUserListAfter(true, true, "A", "1", PageRequest.of(0, 2)))
+				.thenReturn(toSummaries(List.of(user, second)));
+
+		UserCursorPage page = userService.findActiveUsersAfter(cursor, 1);
+
+		assertEquals(1, page.users().size());
+		assertEquals(user.getEmail(), page.users().get(0).getEmail());
+		assertEquals(new UserCursor(user.getUsername(), user.getUserId()), UserCursor.decode(page.nextCursor()));
+
+		Mockito.when(userRepository.findActiveUserListAfter(true, true, "A", "1", PageRequest.of(0, 3)))
+				.thenReturn(toSummaries(List.of(user, second)));
+		assertThat(userService.findActiveUsersAfter(cursor, 2).nextCursor()).isNull();
+	}
+
 	@Test
 	void getAllActiveUsersByPreferences() throws Exception {
 
-		List<UserDTO> userDTOList = new ArrayList<UserDTO>();
 		Pageable pageable = PageRequest.of(0, 10);
-		Page<User> mockUserPages = new PageImpl<>(mockUsers, pageable, mockUsers.size());
+		Page<UserSummary> mockUserPages = new PageImpl<>(toSummaries(mockUsers), pageable, mockUsers.size());
 
 		Mockito.when(userRepository.findByPreferences("clothing", true, true, RoleType.CUSTOMER, pageable)).thenReturn(mockUserPages);
-		Map<Long, List<UserDTO>> userPages = userService.findUsersByPreferences("clothing", pageable);
-
-		for (Map.Entry<Long, List<UserDTO>> entry : userPages.entrySet()) {
-			userDTOList = entry.getValue();
+		UserListPage userPage = userService.findUsersByPreferences("clothing", pageable);
 
-		}
+		List<UserDTO> userDTOList = userPage.users();
 		assertEquals(mockUsers.size(), userDTOList.size());
 		assertEquals(mockUsers.get(0).getEmail(), userDTOList.get(0).getEmail());
 	}
+
+	@Test
+	void getAllActiveUsersByPreferencesMatchesNormalizedName() throws Exception {
+
+		Pageable pageable = PageRequest.of(0, 10);
+		Page<UserSummary> mockUserPages = new PageImpl<>(toSummaries(mockUsers), pageable, mockUsers.size());
+
+		Mockito.when(userRepository.findByPreferences("cafe", true, true, RoleType.CUSTOMER, pageable)).thenReturn(mockUserPages);
+		UserListPage userPage = userService.findUsersByPreferences(" Caf\u00e9 ", pageable);
+
+		assertEquals(mockUsers.size(), userPage.users().size());
+	}
 	
+	@Test
+	void getAllActiveUsersByPreferencesFromAudienceIndex() throws Exception {
+
+		user.setVerified(true);
+		PreferenceAudienceIndex preferenceAudienceIndex = Mockito.mock(PreferenceAudienceIndex.class);
+		AudienceQuery query = new AudienceQuery(List.of("food"), null, null);
+		Mockito.when(preferenceAudienceIndex.isReady()).thenReturn(true);
+		Mockito.when(preferenceAudienceIndex.match(query, 0, 10))
+				.thenReturn(new PreferenceAudienceIndex.Match(List.of(user.getUserId(), "removed"), 2));
+		Mockito.when(userRepository.findSummariesByUserIds(List.of(user.getUserId(), "removed")))
+				.thenReturn(toSummaries(List.of(user)));
+		ReflectionTestUtils.setField(AopTestUtils.getTargetObject(userService), "preferenceAudienceIndex",
+				preferenceAudienceIndex);
+
+		UserListPage userPage = userService.findUsersByPreferences("food", PageRequest.of(0, 10));
+
+		assertThat(userPage.users()).extracting(UserDTO::getEmail).containsExactly(user.getEmail());
+		assertThat(userPage.total()).isEqualTo(1);
+		assertThat(userPage.totalExact()).isFalse();
+		Mockito.verify(preferenceAudienceIndex).update("removed", false, null);
+		Mockito.verify(userRepository, Mockito.never()).findByPreferences(Mockito.any(), Mockito.anyBoolean(),
+				Mockito.anyBoolean(), Mockito.any(), Mockito.any());
+	}
+
+	@Test
+	void findAudienceCorrectsUsersWhosePreferencesChanged() {
+
+		user.setVerified(true);
+		PreferenceAudienceIndex preferenceAudienceIndex = Mockito.mock(PreferenceAudienceIndex.class);
+		AudienceQuery query = new AudienceQuery(List.of("Food"), null, List.of("travel"));
+		Mockito.when(preferenceAudienceIndex.match(query, 0, 10))
+				.thenReturn(new PreferenceAudienceIndex.Match(List.of(user.getUserId()), 1));
+		Mockito.when(userRepository.findSummariesByUserIds(List.of(user.getUserId())))
+				.thenReturn(toSummaries(List.of(user)));
+		ReflectionTestUtils.setField(AopTestUtils.getTargetObject(userService), "preferenceAudienceIndex",
+				preferenceAudienceIndex);
+
+		UserListPage userPage = userService.findAudience(query, PageRequest.of(0, 10));
+		assertThat(userPage.users()).hasSize(1);
+		assertThat(userPage.totalExact()).isTrue();
+		Mockito.verify(preferenceAudienceIndex, Mockito.never()).update(Mockito.any(), Mockito.anyBoolean(),
+				Mockito.any());
+
+		user.setPreferences("food,travel");
+		Mockito.when(userRepository.findSummariesByUserIds(List.of(user.getUserId())))
+				.thenReturn(toSummaries(List.of(user)));
+		userPage = userService.findAudience(query, PageRequest.of(0, 10));
+
+		assertThat(userPage.users()).isEmpty();
+		assertThat(userPage.total()).isZero();
+		assertThat(userPage.totalExact()).isFalse();
+		Mockito.verify(preferenceAudienceIndex).update(user.getUserId(), true, "food,travel");
+	}
+
+	@Test
+	void findAudienceWithoutIndexIsRejected() {
+		AudienceQuery query = new AudienceQuery(List.of("food"), null, null);
+
+		assertThrows(IllegalStateException.class, () -> userService.findAudience(query, PageRequest.of(0, 10)));
+	}
+
 	@Test
 	void resetPassword() throws Exception {
 
+		user.setVerified(true);
 		Mockito.when(userRepository.findByUserIdAndStatus(user.getUserId(), true, true)).thenReturn(user);
 		Mockito.when(userRepository.save(user)).thenReturn(user);
      
@@ -192,7 +408,8 @@ public class UserServiceTest {
 	@Test
 	void checkSpecificActiveUser() throws Exception {
 
-		Mockito.when(userRepository.findByUserIdAndStatus(user.getUserId(), true, true)).thenReturn(user);
+		user.setVerified(true);
+		Mockito.when(userRepository.findByUserId(user.getUserId())).thenReturn(user);
      
 		UserDTO activeUser = userService.checkSpecificActiveUser(user.getUserId());
 		assertThat(activeUser.getEmail().equals(user.getEmail())).isTrue();
@@ -220,11 +437,28 @@ public class UserServiceTest {
 		updatedPreferenceList.add("clothing");
 		Mockito.when(userService.findByUserId(user.getUserId())).thenReturn(user);
 		Mockito.when(userRepository.save(user)).thenReturn(user);
+		PreferenceAudienceIndex preferenceAudienceIndex = Mockito.mock(PreferenceAudienceIndex.class);
+		ReflectionTestUtils.setField(AopTestUtils.getTargetObject(userService), "preferenceAudienceIndex",
+				preferenceAudienceIndex);
      
 	    UserDTO updateUser = userService.updatePreferencesByUser(user.getUserId(),updatedPreferenceList);	
 	    assertEquals(updateUser.getPreferences().isEmpty(), false);
 	    assertEquals(updateUser.getPreferences().size(), 1);
 	    assertNotNull(updateUser.getPreferences());
+	    Mockito.verify(userPreferenceRepository).deleteByUserId(user.getUserId());
+	    Mockito.verify(userPreferenceRepository).saveAll(Mockito.argThat(rows -> {
+	    	List<UserPreference> saved = new ArrayList<>();
+	    	rows.forEach(saved::add);
+	    	return saved.size() == 1 && saved.get(0).getPreference().equals("clothing")
+	    			&& saved.get(0).getUserId().equals(user.getUserId());
+	    }));
+	    // applied only once the transaction commits
+	    Mockito.verifyNoInteractions(preferenceAudienceIndex);
+	}
+
+	private static List<UserSummary> toSummaries(List<User> users) {
+		return users.stream().map(u -> new UserSummary(u.getUserId(), u.getEmail(), u.getUsername(), u.getRole(),
+				u.isActive(), u.isVerified(), u.getPreferences())).toList();
 	}
 
 }
@@ -0,0 +1,75 @@
+package voucher.management.app.auth.utility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.BitSet;
+import java.util.List;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AudienceBitmapIndexTest {
+
+	private AudienceBitmapIndex index;
+
+	@BeforeEach
+	void setUp() {
+		index = new AudienceBitmapIndex();
+		index.put("alice", "food,clothing");
+		index.put("bob", "seafood, Food");
+		index.put("carol", "clothing,Caf\u00e9");
+		index.put("dave", "");
+	}
+
+	@Test
+	void testSinglePreferenceMatchesWholeNormalizedPreference() {
+		assertThat(userIds(index.match(List.of("FOOD"), List.of(), List.of()))).containsExactly("alice", "bob");
+		assertThat(userIds(index.match(List.of("cafe"), List.of(), List.of()))).containsExactly("carol");
+		assertThat(userIds(index.match(List.of("shoes"), List.of(), List.of()))).isEmpty();
+	}
+
+	@Test
+	void testAndOrNot() {
+		assertThat(userIds(index.match(List.of("food", "clothing"), List.of(), List.of()))).containsExactly("alice");
+		assertThat(userIds(index.match(List.of(), List.of("seafood", "cafe", "shoes"), List.of())))
+				.containsExactly("bob", "carol");
+		assertThat(userIds(index.match(List.of(), List.of(), List.of("food")))).containsExactly("carol", "dave");
+		assertThat(userIds(index.match(List.of("clothing"), List.of("food", "seafood"), List.of("cafe"))))
+				.containsExactly("alice");
+	}
+
+	@Test
+	void testPutReplacesPreferencesAndRemoveDropsUser() {
+		index.put("alice", "shoes");
+		index.remove("bob");
+		index.remove("nobody");
+
+		assertThat(userIds(index.match(List.of("food"), List.of(), List.of()))).isEmpty();
+		assertThat(userIds(index.match(List.of("shoes"), List.of(), List.of()))).containsExactly("alice");
+		assertThat(index.contains("bob")).isFalse();
+		assertThat(index.getUserCount()).isEqualTo(3);
+
+		index.put("bob", "food");
+		// a user added back keeps its ordinal, so it stays ahead of later users
+		index.put("erin", "food");
+		assertThat(userIds(index.match(List.of("food"), List.of(), List.of()))).containsExactly("bob", "erin");
+	}
+
+	@Test
+	void testPagesFollowOrdinalOrder() {
+		BitSet everyone = index.match(List.of(), List.of(), List.of());
+
+		assertThat(everyone.cardinality()).isEqualTo(4);
+		assertThat(index.userIds(everyone, 1, 2)).containsExactly("bob", "carol");
+		assertThat(index.userIds(everyone, 3, 2)).containsExactly("dave");
+		assertThat(index.userIds(everyone, 4, 2)).isEmpty();
+	}
+
+	private List<String> userIds(BitSet matches) {
+		return index.userIds(matches, 0, Integer.MAX_VALUE);
+	}
+}
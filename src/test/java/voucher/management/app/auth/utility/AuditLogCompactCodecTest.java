@@ -0,0 +1,56 @@
+package voucher.management.app.auth.utility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import voucher.management.app.auth.dto.AuditLogRequest;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AuditLogCompactCodecTest {
+
+	@Test
+	void testRoundTripIsLosslessAndSmallerThanJson() throws Exception {
+		AuditLogRequest request = failedLogin("Invalid credentials for user@example.com");
+		request.setCount(42);
+		request.setFirstOccurredAt("2024-08-01T10:15:30.120Z");
+		request.setLastOccurredAt("2024-08-01T10:15:34.999Z");
+
+		byte[] compact = AuditLogCompactCodec.encode(request, AuditLogCompactCodec.MAX_ENCODED_BYTES);
+		byte[] json = new AuditLogSerializer().serialize(request);
+		AuditLogRequest decoded = AuditLogCompactCodec.decode(compact);
+
+		assertThat(AuditLogCompactCodec.isCompact(compact)).isTrue();
+		assertThat(AuditLogCompactCodec.isCompact(json)).isFalse();
+		assertThat(compact.length * 3).isLessThan(json.length);
+		assertThat(decoded).usingRecursiveComparison().isEqualTo(request);
+	}
+
+	@Test
+	void testOversizedRemarksAreTruncatedWithinLimit() {
+		AuditLogRequest request = failedLogin("\u00e9".repeat(AuditLogCompactCodec.MAX_ENCODED_BYTES));
+
+		byte[] compact = AuditLogCompactCodec.encode(request, AuditLogCompactCodec.MAX_ENCODED_BYTES);
+		AuditLogRequest decoded = AuditLogCompactCodec.decode(compact);
+
+		assertThat(compact.length).isLessThanOrEqualTo(AuditLogCompactCodec.MAX_ENCODED_BYTES);
+		assertThat(decoded.getRemarks()).endsWith("\u00e9...");
+	}
+
+	private AuditLogRequest failedLogin(String remarks) {
+		AuditLogRequest request = new AuditLogRequest();
+		request.setStatusCode("401");
+		request.setUserId("InvalidUserID");
+		request.setUsername("InvalidUserName");
+		request.setActivityType("Authentication-LoginUser");
+		request.setActivityDescription("User failed to login due to " + remarks.substring(0, Math.min(40, remarks.length())));
+		request.setRequestActionEndpoint("api/users/login");
+		request.setResponseStatus("FAILED");
+		request.setRequestType("POST");
+		request.setRemarks(remarks);
+		return request;
+	}
+}
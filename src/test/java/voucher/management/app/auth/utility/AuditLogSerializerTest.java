@@ -0,0 +1,72 @@
+package voucher.management.app.auth.utility;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.nio.charset.StandardCharsets;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import voucher.management.app.auth.dto.AuditLogRequest;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class AuditLogSerializerTest {
+
+	private final AuditLogSerializer auditLogSerializer = new AuditLogSerializer();
+
+	private final ObjectMapper objectMapper = new ObjectMapper();
+
+	@Test
+	void testSerializeMatchesObjectMapper() throws Exception {
+		AuditLogRequest auditLogRequest = createAuditLogRequest("No remarks");
+
+		byte[] message = auditLogSerializer.serialize(auditLogRequest);
+
+		assertEquals(objectMapper.writeValueAsString(auditLogRequest), new String(message, StandardCharsets.UTF_8));
+	}
+
+	@Test
+	void testOversizedRemarksAreTruncatedWithinLimit() throws Exception {
+		String remarks = "\u00e9\"\n\ud83d\ude00".repeat(60000);
+		AuditLogRequest auditLogRequest = createAuditLogRequest(remarks);
+
+		byte[] message = auditLogSerializer.serialize(auditLogRequest);
+
+		assertTrue(message.length <= AuditLogSerializer.MAX_MESSAGE_BYTES);
+		assertTrue(message.length > AuditLogSerializer.MAX_MESSAGE_BYTES - 8);
+		JsonNode json = objectMapper.readTree(message);
+		String truncatedRemarks = json.get("remarks").asText();
+		assertTrue(truncatedRemarks.endsWith("..."));
+		assertTrue(remarks.startsWith(truncatedRemarks.substring(0, truncatedRemarks.length() - 3)));
+		assertEquals("LOGIN", json.get("activityType").asText());
+	}
+
+	@Test
+	void testBufferIsReusedBetweenMessages() throws Exception {
+		auditLogSerializer.serialize(createAuditLogRequest("x".repeat(300 * 1024)));
+
+		byte[] message = auditLogSerializer.serialize(createAuditLogRequest("short"));
+
+		assertEquals("short", objectMapper.readTree(message).get("remarks").asText());
+	}
+
+	private AuditLogRequest createAuditLogRequest(String remarks) {
+		AuditLogRequest auditLogRequest = new AuditLogRequest();
+		auditLogRequest.setStatusCode("200");
+		auditLogRequest.setUserId("user1");
+		auditLogRequest.setUsername("john.doe");
+		auditLogRequest.setActivityType("LOGIN");
+		auditLogRequest.setActivityDescription("User logged in");
+		auditLogRequest.setRequestActionEndpoint("/login");
+		auditLogRequest.setResponseStatus("SUCCESS");
+		auditLogRequest.setRequestType("POST");
+		auditLogRequest.setRemarks(remarks);
+		return auditLogRequest;
+	}
+}
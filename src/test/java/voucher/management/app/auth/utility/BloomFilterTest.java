@@ -0,0 +1,40 @@
+package voucher.management.app.auth.utility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BloomFilterTest {
+
+	@Test
+	void testNoFalseNegativesAndFalsePositiveRateNearTarget() {
+		BloomFilter filter = new BloomFilter(10_000, 0.01);
+		for (int i = 0; i < 10_000; i++) {
+			filter.put("user" + i + "@example.com");
+		}
+
+		for (int i = 0; i < 10_000; i++) {
+			assertThat(filter.mightContain("user" + i + "@example.com")).isTrue();
+		}
+		int falsePositives = 0;
+		for (int i = 0; i < 100_000; i++) {
+			if (filter.mightContain("other" + i + "@example.com")) {
+				falsePositives++;
+			}
+		}
+		assertThat(falsePositives / 100_000.0).isLessThan(0.02);
+	}
+
+	@Test
+	void testSizing() {
+		BloomFilter filter = new BloomFilter(1_000_000, 0.01);
+
+		// about 9.6 bits and 7 hashes per element for a 1% false positive rate
+		assertThat(filter.getBitCount()).isBetween(9_500_000L, 9_700_000L);
+		assertThat(filter.getHashCount()).isEqualTo(7);
+	}
+}
@@ -0,0 +1,114 @@
+package voucher.management.app.auth.utility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import voucher.management.app.auth.exception.PasswordHashingRejectedException;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BoundedPasswordEncoderTest {
+
+	private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+	private final CountDownLatch started = new CountDownLatch(1);
+	private final CountDownLatch release = new CountDownLatch(1);
+	private BoundedPasswordEncoder encoder;
+
+	@AfterEach
+	void tearDown() {
+		release.countDown();
+		encoder.shutdown();
+	}
+
+	@Test
+	void testDelegatesAndRecordsHashTime() {
+		encoder = new BoundedPasswordEncoder(new BlockingEncoder(false), 1, 1, 1000, meterRegistry);
+
+		assertThat(encoder.encode("Pwd@21212")).isEqualTo("hashed:Pwd@21212");
+		assertThat(encoder.matches("Pwd@21212", "hashed:Pwd@21212")).isTrue();
+		assertThat(encoder.matches("wrong", "hashed:Pwd@21212")).isFalse();
+		assertThat(meterRegistry.find("password.hash.duration").tag("operation", "matches").timer().count())
+				.isEqualTo(2);
+		assertThat(meterRegistry.find("password.hash.queue").timer().count()).isEqualTo(3);
+	}
+
+	@Test
+	void testRejectsWhenQueueIsFull() throws Exception {
+		encoder = new BoundedPasswordEncoder(new BlockingEncoder(true), 1, 1, 10000, meterRegistry);
+
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+		while (encoder.getQueueDepth() == 0) {
+			Thread.sleep(5);
+		}
+
+		assertThatThrownBy(() -> encoder.encode("third")).isInstanceOf(PasswordHashingRejectedException.class)
+				.extracting("retryAfterSeconds").isEqualTo(10L);
+		assertThat(meterRegistry.find("password.hash.rejected").tag("reason", "queue_full").counter().count())
+				.isEqualTo(1.0);
+
+		release.countDown();
+		assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:first");
+		assertThat(queued.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:second");
+	}
+
+	@Test
+	void testSkipsHashWhenQueuedTooLong() throws Exception {
+		encoder = new BoundedPasswordEncoder(new BlockingEncoder(true), 1, 1, 50, meterRegistry);
+
+		CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+		assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+		CompletableFuture<Boolean> queued = CompletableFuture.supplyAsync(() -> encoder.matches("second", "x"));
+		while (encoder.getQueueDepth() == 0) {
+			Thread.sleep(5);
+		}
+		Thread.sleep(100);
+		release.countDown();
+
+		assertThat(running.get(5, TimeUnit.SECONDS)).isEqualTo("hashed:first");
+		assertThat(queued).failsWithin(5, TimeUnit.SECONDS).withThrowableOfType(Exception.class)
+				.withCauseInstanceOf(PasswordHashingRejectedException.class);
+		assertThat(meterRegistry.find("password.hash.rejected").tag("reason", "queue_timeout").counter().count())
+				.isEqualTo(1.0);
+	}
+
+	private class BlockingEncoder implements PasswordEncoder {
+
+		private final boolean block;
+
+		BlockingEncoder(boolean block) {
+			this.block = block;
+		}
+
+		@Override
+		public String encode(CharSequence rawPassword) {
+			if (block) {
+				started.countDown();
+				try {
+					release.await();
+				} catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+			return "hashed:" + rawPassword;
+		}
+
+		@Override
+		public boolean matches(CharSequence rawPassword, String encodedPassword) {
+			return encode(rawPassword).equals(encodedPassword);
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package voucher.management.app.auth.utility;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class UserCursorTest {
+
+	@Test
+	void testRoundTrip() {
+		UserCursor cursor = new UserCursor("J\u00f6rg Smith", "8f6e8b84-1219-4c28-a95c-9891c11328b7");
+
+		String token = cursor.encode();
+
+		assertThat(token).doesNotContain("+", "/", "=");
+		assertThat(UserCursor.decode(token)).isEqualTo(cursor);
+	}
+
+	@Test
+	void testBlankTokenStartsAtBeginning() {
+		assertThat(UserCursor.decode(null)).isEqualTo(UserCursor.START);
+		assertThat(UserCursor.decode(" ")).isEqualTo(UserCursor.START);
+	}
+
+	@Test
+	void testRejectsForeignTokens() {
+		String noSeparator = Base64.getUrlEncoder().encodeToString("username".getBytes(StandardCharsets.UTF_8));
+
+		assertThrows(IllegalArgumentException.class, () -> UserCursor.decode("not base64!"));
+		assertThrows(IllegalArgumentException.class, () -> UserCursor.decode(noSeparator));
+	}
+}